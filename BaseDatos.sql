@@ -1,14 +1,16 @@
 -- Script de creación de base de datos para el sistema bancario
 -- Base de datos: banking_db
+-- Este script crea el esquema inicial (versión 0). Los cambios posteriores los aplican las
+-- migraciones Flyway de cada servicio (src/main/resources/db/migration) al arrancar.
 
 CREATE DATABASE IF NOT EXISTS banking_db;
 USE banking_db;
 
 -- Tabla de personas (tabla padre)
 CREATE TABLE IF NOT EXISTS personas (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    persona_id BIGINT AUTO_INCREMENT PRIMARY KEY,
     nombre VARCHAR(100) NOT NULL,
-    genero CHAR(1) NOT NULL CHECK (genero IN ('M', 'F', 'O')),
+    genero VARCHAR(1) NOT NULL CHECK (genero IN ('M', 'F', 'O')),
     edad INT NOT NULL CHECK (edad >= 0 AND edad <= 150),
     identificacion VARCHAR(20) NOT NULL UNIQUE,
     direccion VARCHAR(200) NOT NULL,
@@ -17,13 +19,13 @@ CREATE TABLE IF NOT EXISTS personas (
     fecha_actualizacion DATETIME NULL
 );
 
--- Tabla de clientes (hereda de personas)
+-- Tabla de clientes (hereda de personas: comparten persona_id)
 CREATE TABLE IF NOT EXISTS clientes (
-    cliente_id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    persona_id BIGINT NOT NULL,
+    persona_id BIGINT PRIMARY KEY,
+    cliente_id BIGINT NULL,
     contrasena VARCHAR(100) NOT NULL,
     estado BOOLEAN NOT NULL DEFAULT TRUE,
-    FOREIGN KEY (persona_id) REFERENCES personas(id) ON DELETE CASCADE
+    FOREIGN KEY (persona_id) REFERENCES personas(persona_id) ON DELETE CASCADE
 );
 
 -- Tabla de cuentas
@@ -50,10 +52,23 @@ CREATE TABLE IF NOT EXISTS movimientos (
     FOREIGN KEY (cuenta_id) REFERENCES cuentas(cuenta_id) ON DELETE CASCADE
 );
 
+-- Secuencia de identificadores de movimientos (MySQL no tiene secuencias: Hibernate usa esta tabla)
+CREATE TABLE IF NOT EXISTS movimientos_seq (
+    next_val BIGINT NOT NULL
+);
+
+-- Tabla de saldos vigentes por cuenta (cabecera del libro mayor)
+CREATE TABLE IF NOT EXISTS saldos_cuenta (
+    cuenta_id BIGINT PRIMARY KEY,
+    saldo DECIMAL(15,2) NOT NULL,
+    activa BOOLEAN NOT NULL DEFAULT TRUE,
+    fecha_actualizacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (cuenta_id) REFERENCES cuentas(cuenta_id) ON DELETE CASCADE
+);
+
 -- Índices para mejorar el rendimiento
 -- Nota: Los índices se crean solo si no existen
 CREATE INDEX idx_personas_identificacion ON personas(identificacion);
-CREATE INDEX idx_clientes_persona_id ON clientes(persona_id);
 CREATE INDEX idx_cuentas_numero ON cuentas(numero_cuenta);
 CREATE INDEX idx_cuentas_cliente_id ON cuentas(cliente_id);
 CREATE INDEX idx_movimientos_cuenta_id ON movimientos(cuenta_id);
@@ -65,10 +80,10 @@ INSERT INTO personas (nombre, genero, edad, identificacion, direccion, telefono)
 ('Carlos Rodríguez', 'M', 28, '87654321', 'Carrera 45 #78-90', '3109876543'),
 ('Ana García', 'F', 42, '11223344', 'Avenida 5 #12-34', '3155555555');
 
-INSERT INTO clientes (persona_id, contrasena, estado) VALUES
-(1, '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi', TRUE),
-(2, '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi', TRUE),
-(3, '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi', TRUE);
+INSERT INTO clientes (persona_id, cliente_id, contrasena, estado) VALUES
+(1, 1, '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi', TRUE),
+(2, 2, '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi', TRUE),
+(3, 3, '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi', TRUE);
 
 INSERT INTO cuentas (numero_cuenta, tipo_cuenta, saldo_inicial, estado, cliente_id) VALUES
 ('225487', 'Corriente', 100.00, TRUE, 1),
@@ -83,6 +98,19 @@ INSERT INTO movimientos (fecha, tipo_movimiento, valor, saldo, cuenta_id) VALUES
 ('2024-01-01 11:00:00', 'Deposito', 300.00, 800.00, 2),
 ('2024-01-02 16:45:00', 'Retiro', 100.00, 700.00, 2);
 
+-- La secuencia reparte bloques de 50 identificadores: arranca por encima del máximo existente
+INSERT INTO movimientos_seq (next_val)
+SELECT COALESCE(MAX(movimiento_id), 0) + 50 FROM movimientos;
+
+-- Saldo vigente: último movimiento de cada cuenta o, si no tiene, su saldo inicial
+INSERT INTO saldos_cuenta (cuenta_id, saldo, activa)
+SELECT c.cuenta_id,
+       COALESCE((SELECT m.saldo FROM movimientos m
+                 WHERE m.cuenta_id = c.cuenta_id
+                 ORDER BY m.fecha DESC, m.movimiento_id DESC LIMIT 1), c.saldo_inicial),
+       c.estado
+FROM cuentas c;
+
 -- Consultas de verificación
 SELECT 'Verificación de datos insertados:' as mensaje;
 
@@ -92,7 +120,9 @@ SELECT 'Clientes:', COUNT(*) FROM clientes
 UNION ALL
 SELECT 'Cuentas:', COUNT(*) FROM cuentas
 UNION ALL
-SELECT 'Movimientos:', COUNT(*) FROM movimientos;
+SELECT 'Movimientos:', COUNT(*) FROM movimientos
+UNION ALL
+SELECT 'Saldos:', COUNT(*) FROM saldos_cuenta;
 
 -- Ejemplo de consulta de estado de cuenta
 SELECT 
@@ -104,7 +134,7 @@ SELECT
     SUM(CASE WHEN m.tipo_movimiento = 'Deposito' THEN m.valor ELSE -m.valor END) as Movimiento_Total,
     COALESCE(SUM(CASE WHEN m.tipo_movimiento = 'Deposito' THEN m.valor ELSE -m.valor END), 0) + c.saldo_inicial as Saldo_Disponible
 FROM personas p
-JOIN clientes cl ON p.id = cl.persona_id
+JOIN clientes cl ON p.persona_id = cl.persona_id
 JOIN cuentas c ON cl.cliente_id = c.cliente_id
 LEFT JOIN movimientos m ON c.cuenta_id = m.cuenta_id
 WHERE p.identificacion = '12345678'
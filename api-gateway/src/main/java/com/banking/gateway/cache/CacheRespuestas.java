@@ -0,0 +1,109 @@
+package com.banking.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché de respuestas del gateway, acotada por bytes de cuerpo y con vigencia por ruta.
+ * Las entradas se agrupan por recurso ("cuentas", "clientes"): una escritura sobre el recurso
+ * invalida su grupo completo, porque la misma cuenta se lee por número y se modifica por id.
+ */
+@Component
+public class CacheRespuestas {
+    
+    // Cabeceras, clave y estructuras de Caffeine por entrada, aproximado
+    private static final int SOBRECARGA_ENTRADA = 256;
+    
+    private final Cache<String, RespuestaCacheada> respuestas;
+    private final Map<String, AtomicLong> generaciones = new ConcurrentHashMap<>();
+    
+    public CacheRespuestas(@Value("${banking.gateway.cache.max-bytes:67108864}") long maxBytes,
+                           MeterRegistry meterRegistry) {
+        this.respuestas = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String clave, RespuestaCacheada respuesta) ->
+                        respuesta.getCuerpo().length + clave.length() + SOBRECARGA_ENTRADA)
+                .expireAfter(new Expiry<String, RespuestaCacheada>() {
+                    @Override
+                    public long expireAfterCreate(String clave, RespuestaCacheada respuesta, long ahora) {
+                        return respuesta.getTtl().toNanos();
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String clave, RespuestaCacheada respuesta, long ahora, long restante) {
+                        return respuesta.getTtl().toNanos();
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String clave, RespuestaCacheada respuesta, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, respuestas, "gateway.respuestas");
+    }
+    
+    public RespuestaCacheada obtener(String clave) {
+        return respuestas.getIfPresent(clave);
+    }
+    
+    // Se toma al empezar la lectura: si el grupo se invalida mientras tanto, la respuesta ya no se guarda
+    public long generacion(String grupo) {
+        return contador(grupo).get();
+    }
+    
+    public void guardar(String clave, RespuestaCacheada respuesta, long generacion) {
+        if (generacion(respuesta.getGrupo()) == generacion) {
+            respuestas.put(clave, respuesta);
+        }
+    }
+    
+    public void invalidar(String grupo) {
+        contador(grupo).incrementAndGet();
+        respuestas.asMap().values().removeIf(respuesta -> respuesta.getGrupo().equals(grupo));
+    }
+    
+    // ETag fuerte: primeros 8 bytes del SHA-256 del cuerpo
+    public static String etag(byte[] cuerpo) {
+        try {
+            byte[] resumen = MessageDigest.getInstance("SHA-256").digest(cuerpo);
+            return "\"" + HexFormat.of().formatHex(resumen, 0, 8) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    // If-None-Match admite una lista, "*" y validadores débiles (W/"..."), que también valen para GET
+    public static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private AtomicLong contador(String grupo) {
+        return generaciones.computeIfAbsent(grupo, g -> new AtomicLong());
+    }
+}
@@ -0,0 +1,119 @@
+package com.banking.gateway.cache;
+
+import com.banking.gateway.limite.ClaveClienteResolver;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Filtro de ruta {@code CacheRespuestas=<grupo>, <ttl>}: sirve los GET desde memoria sin llegar al
+ * servicio y responde 304 cuando el If-None-Match coincide con el ETag del cuerpo. Solo guarda
+ * respuestas 200 (las captura {@link CapturaRespuestasFilter}); el resto pasa sin tocar.
+ * <p>
+ * La clave lleva el cliente (la misma que usa el limitador) y el Accept además de la ruta y la
+ * consulta: una respuesta nunca se sirve a otro cliente ni en otro formato.
+ */
+@Component
+public class CacheRespuestasGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<CacheRespuestasGatewayFilterFactory.Config> {
+    
+    private static final String CABECERA_CACHE = "X-Cache";
+    
+    private final CacheRespuestas cacheRespuestas;
+    private final ClaveClienteResolver claveCliente;
+    
+    public CacheRespuestasGatewayFilterFactory(CacheRespuestas cacheRespuestas, ClaveClienteResolver claveCliente) {
+        super(Config.class);
+        this.cacheRespuestas = cacheRespuestas;
+        this.claveCliente = claveCliente;
+    }
+    
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("grupo", "ttl");
+    }
+    
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Sin orden propio: queda en su posición entre los filtros de la ruta, detrás de la métrica por ruta
+        // (GatewayMetricsFilter) y del RequestRateLimiter de default-filters, que se cargan antes. Así un
+        // acierto cuenta para el límite y la latencia; ReintentoGet, CircuitBreaker y el descarte de carga
+        // van después porque un acierto no llega al servicio.
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            
+            return claveCliente.resolve(exchange).flatMap(cliente -> {
+                String clave = clave(cliente, request);
+                String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+                RespuestaCacheada cacheada = cacheRespuestas.obtener(clave);
+                if (cacheada != null) {
+                    return escribir(exchange.getResponse(), cacheada, ifNoneMatch, "HIT");
+                }
+                
+                long generacion = cacheRespuestas.generacion(config.getGrupo());
+                exchange.getAttributes().put(CapturaRespuestasFilter.LECTURA_PENDIENTE,
+                        new CapturaRespuestasFilter.LecturaPendiente(clave, config.getGrupo(), config.getTtl(),
+                                generacion, ifNoneMatch));
+                return chain.filter(exchange);
+            });
+        };
+    }
+    
+    static String clave(String cliente, ServerHttpRequest request) {
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        String consulta = request.getURI().getRawQuery();
+        String ruta = consulta == null ? request.getURI().getRawPath() : request.getURI().getRawPath() + "?" + consulta;
+        return cliente + " " + (accept == null ? "" : accept) + " " + ruta;
+    }
+    
+    static Mono<Void> escribir(ServerHttpResponse response, RespuestaCacheada respuesta, String ifNoneMatch,
+                               String resultado) {
+        HttpHeaders cabeceras = response.getHeaders();
+        cabeceras.setETag(respuesta.getEtag());
+        cabeceras.set(CABECERA_CACHE, resultado);
+        if (CacheRespuestas.coincide(ifNoneMatch, respuesta.getEtag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            cabeceras.remove(HttpHeaders.CONTENT_LENGTH);
+            cabeceras.remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        cabeceras.setContentType(respuesta.getContentType());
+        cabeceras.setContentLength(respuesta.getCuerpo().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(respuesta.getCuerpo())));
+    }
+    
+    public static class Config {
+        
+        private String grupo;
+        private Duration ttl = Duration.ofSeconds(30);
+        
+        public String getGrupo() {
+            return grupo;
+        }
+        
+        public void setGrupo(String grupo) {
+            this.grupo = grupo;
+        }
+        
+        public Duration getTtl() {
+            return ttl;
+        }
+        
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
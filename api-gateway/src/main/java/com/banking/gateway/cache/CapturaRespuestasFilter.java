@@ -0,0 +1,106 @@
+package com.banking.gateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Guarda en {@link CacheRespuestas} las respuestas 200 de los GET que el filtro CacheRespuestas no
+ * encontró. Va antes de NettyWriteResponseFilter para que el cuerpo del servicio pase por el
+ * decorador; la búsqueda en cambio ocurre más tarde, en la posición del filtro de ruta, y deja en el
+ * exchange la lectura pendiente. Sin ese atributo el cuerpo pasa sin tocar.
+ */
+@Component
+public class CapturaRespuestasFilter implements GlobalFilter, Ordered {
+    
+    public static final String LECTURA_PENDIENTE = CapturaRespuestasFilter.class.getName() + ".lecturaPendiente";
+    
+    private final CacheRespuestas cacheRespuestas;
+    
+    public CapturaRespuestasFilter(CacheRespuestas cacheRespuestas) {
+        this.cacheRespuestas = cacheRespuestas;
+    }
+    
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        ServerHttpResponseDecorator decorada = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                LecturaPendiente pendiente = exchange.getAttribute(LECTURA_PENDIENTE);
+                if (pendiente == null || getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value()) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(Flux.from(body)).flatMap(buffer -> {
+                    byte[] cuerpo = new byte[buffer.readableByteCount()];
+                    buffer.read(cuerpo);
+                    DataBufferUtils.release(buffer);
+                    RespuestaCacheada respuesta = new RespuestaCacheada(pendiente.getGrupo(),
+                            getHeaders().getContentType(), cuerpo, CacheRespuestas.etag(cuerpo), pendiente.getTtl());
+                    cacheRespuestas.guardar(pendiente.getClave(), respuesta, pendiente.getGeneracion());
+                    return CacheRespuestasGatewayFilterFactory.escribir(getDelegate(), respuesta,
+                            pendiente.getIfNoneMatch(), "MISS");
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().response(decorada).build());
+    }
+    
+    // Lo que el filtro de ruta averiguó al no encontrar la respuesta: dónde guardarla y cómo contestar
+    public static class LecturaPendiente {
+        
+        private final String clave;
+        private final String grupo;
+        private final Duration ttl;
+        private final long generacion;
+        private final String ifNoneMatch;
+        
+        public LecturaPendiente(String clave, String grupo, Duration ttl, long generacion, String ifNoneMatch) {
+            this.clave = clave;
+            this.grupo = grupo;
+            this.ttl = ttl;
+            this.generacion = generacion;
+            this.ifNoneMatch = ifNoneMatch;
+        }
+        
+        public String getClave() {
+            return clave;
+        }
+        
+        public String getGrupo() {
+            return grupo;
+        }
+        
+        public Duration getTtl() {
+            return ttl;
+        }
+        
+        public long getGeneracion() {
+            return generacion;
+        }
+        
+        public String getIfNoneMatch() {
+            return ifNoneMatch;
+        }
+    }
+}
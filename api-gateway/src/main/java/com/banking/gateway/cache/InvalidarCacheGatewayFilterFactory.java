@@ -0,0 +1,55 @@
+package com.banking.gateway.cache;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Filtro de ruta {@code InvalidarCache=<grupo>}: toda escritura (POST, PUT, PATCH, DELETE) que pasa por
+ * la ruta vacía el grupo al terminar, aunque haya fallado, porque el cambio pudo quedar confirmado.
+ * Otras instancias del gateway conservan su copia hasta que vence el TTL.
+ */
+@Component
+public class InvalidarCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<InvalidarCacheGatewayFilterFactory.Config> {
+    
+    private final CacheRespuestas cacheRespuestas;
+    
+    public InvalidarCacheGatewayFilterFactory(CacheRespuestas cacheRespuestas) {
+        super(Config.class);
+        this.cacheRespuestas = cacheRespuestas;
+    }
+    
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("grupo");
+    }
+    
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            HttpMethod metodo = exchange.getRequest().getMethod();
+            if (metodo == HttpMethod.GET || metodo == HttpMethod.HEAD || metodo == HttpMethod.OPTIONS) {
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange)
+                    .doFinally(senal -> cacheRespuestas.invalidar(config.getGrupo()));
+        };
+    }
+    
+    public static class Config {
+        
+        private String grupo;
+        
+        public String getGrupo() {
+            return grupo;
+        }
+        
+        public void setGrupo(String grupo) {
+            this.grupo = grupo;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.banking.gateway.cache;
+
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+
+// Respuesta 200 guardada por el gateway: solo el cuerpo y lo necesario para volver a servirla
+public class RespuestaCacheada {
+    
+    private final String grupo;
+    private final MediaType contentType;
+    private final byte[] cuerpo;
+    private final String etag;
+    private final Duration ttl;
+    
+    public RespuestaCacheada(String grupo, MediaType contentType, byte[] cuerpo, String etag, Duration ttl) {
+        this.grupo = grupo;
+        this.contentType = contentType;
+        this.cuerpo = cuerpo;
+        this.etag = etag;
+        this.ttl = ttl;
+    }
+    
+    public String getGrupo() {
+        return grupo;
+    }
+    
+    public MediaType getContentType() {
+        return contentType;
+    }
+    
+    public byte[] getCuerpo() {
+        return cuerpo;
+    }
+    
+    public String getEtag() {
+        return etag;
+    }
+    
+    public Duration getTtl() {
+        return ttl;
+    }
+}
@@ -0,0 +1,28 @@
+package com.banking.gateway.limite;
+
+import reactor.core.publisher.Mono;
+
+// Dónde viven las cubetas de tokens: en memoria de cada instancia o compartidas entre instancias
+public interface AlmacenTokens {
+    
+    Mono<Consumo> consumir(String clave, int tasa, int rafaga, int pedidos);
+    
+    class Consumo {
+        
+        private final boolean permitido;
+        private final long restantes;
+        
+        public Consumo(boolean permitido, long restantes) {
+            this.permitido = permitido;
+            this.restantes = restantes;
+        }
+        
+        public boolean isPermitido() {
+            return permitido;
+        }
+        
+        public long getRestantes() {
+            return restantes;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.banking.gateway.limite;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+// Cubetas en memoria: cada instancia del gateway aplica el límite completo por su cuenta.
+// Las claves inactivas se descartan; una clave que vuelve empieza con la cubeta llena.
+@Component
+@ConditionalOnProperty(name = "banking.gateway.limite.almacen", havingValue = "local", matchIfMissing = true)
+public class AlmacenTokensLocal implements AlmacenTokens {
+    
+    private final Cache<String, Cubeta> cubetas = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(100_000)
+            .build();
+    private final LongSupplier reloj;
+    
+    public AlmacenTokensLocal() {
+        this(System::nanoTime);
+    }
+    
+    AlmacenTokensLocal(LongSupplier reloj) {
+        this.reloj = reloj;
+    }
+    
+    @Override
+    public Mono<Consumo> consumir(String clave, int tasa, int rafaga, int pedidos) {
+        Cubeta cubeta = cubetas.get(clave, k -> new Cubeta(rafaga, reloj.getAsLong()));
+        return Mono.just(cubeta.consumir(tasa, rafaga, pedidos, reloj.getAsLong()));
+    }
+    
+    private static final class Cubeta {
+        
+        private double tokens;
+        private long ultimaRecarga;
+        
+        Cubeta(int rafaga, long ahora) {
+            this.tokens = rafaga;
+            this.ultimaRecarga = ahora;
+        }
+        
+        synchronized Consumo consumir(int tasa, int rafaga, int pedidos, long ahora) {
+            tokens = Math.min(rafaga, tokens + (ahora - ultimaRecarga) / 1e9 * tasa);
+            ultimaRecarga = ahora;
+            if (tokens < pedidos) {
+                return new Consumo(false, (long) tokens);
+            }
+            tokens -= pedidos;
+            return new Consumo(true, (long) tokens);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.banking.gateway.limite;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Cubetas compartidas por todas las instancias, con el script Lua de Spring Cloud Gateway (una
+// llamada atómica por petición). Si Redis falla se deja pasar: el descarte de carga sigue protegiendo.
+@Component
+@ConditionalOnProperty(name = "banking.gateway.limite.almacen", havingValue = "redis")
+public class AlmacenTokensRedis implements AlmacenTokens {
+    
+    private static final Logger log = LoggerFactory.getLogger(AlmacenTokensRedis.class);
+    
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<List<Long>> script;
+    
+    public AlmacenTokensRedis(ReactiveStringRedisTemplate redisTemplate,
+                              @Qualifier("redisRequestRateLimiterScript") RedisScript<List<Long>> script) {
+        this.redisTemplate = redisTemplate;
+        this.script = script;
+    }
+    
+    @Override
+    public Mono<Consumo> consumir(String clave, int tasa, int rafaga, int pedidos) {
+        String prefijo = "banking_limite.{" + clave + "}";
+        List<String> claves = List.of(prefijo + ".tokens", prefijo + ".timestamp");
+        // El tercer argumento vacío hace que el script use la hora del servidor Redis
+        List<String> argumentos = List.of(String.valueOf(tasa), String.valueOf(rafaga), "", String.valueOf(pedidos));
+        return redisTemplate.execute(script, claves, argumentos)
+                .next()
+                .map(resultado -> new Consumo(resultado.get(0) == 1L, resultado.get(1)))
+                .onErrorResume(e -> {
+                    log.warn("Limitador sin Redis, se permite la petición: {}", e.getMessage());
+                    return Mono.just(new Consumo(true, -1));
+                });
+    }
+}
@@ -0,0 +1,30 @@
+package com.banking.gateway.limite;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+// Clave del limitador: la API key del socio, si no el id de cliente del canal y, sin ninguno, la IP de origen
+@Component("claveCliente")
+public class ClaveClienteResolver implements KeyResolver {
+    
+    public static final String CABECERA_API_KEY = "X-API-Key";
+    public static final String CABECERA_CLIENTE = "X-Cliente-Id";
+    
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        String apiKey = exchange.getRequest().getHeaders().getFirst(CABECERA_API_KEY);
+        if (apiKey != null && !apiKey.isBlank()) {
+            return Mono.just("key:" + apiKey);
+        }
+        String clienteId = exchange.getRequest().getHeaders().getFirst(CABECERA_CLIENTE);
+        if (clienteId != null && !clienteId.isBlank()) {
+            return Mono.just("cliente:" + clienteId);
+        }
+        InetSocketAddress origen = exchange.getRequest().getRemoteAddress();
+        return Mono.just("ip:" + (origen != null ? origen.getAddress().getHostAddress() : "desconocida"));
+    }
+}
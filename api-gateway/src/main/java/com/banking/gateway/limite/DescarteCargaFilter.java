@@ -0,0 +1,108 @@
+package com.banking.gateway.limite;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Descarte de carga por ruta: cuando el servicio empieza a responder lento o con 502/503/504 el
+ * límite de concurrencia baja y el exceso recibe 503 con Retry-After al instante, sin ocupar hilos
+ * de Tomcat ni conexiones de Hikari del servicio. Corre después del RequestRateLimiter (429 por
+ * cliente) y de la caché del gateway, así los aciertos de caché no cuentan.
+ * <p>
+ * El metadato de ruta {@code concurrencia-maxima} fija un tope propio (bulkhead): los reportes no
+ * pueden ocupar más que su cupo aunque respondan a tiempo, y los movimientos conservan el suyo.
+ * El metadato {@code latencia-objetivo-ms} reemplaza la latencia objetivo global en rutas que por
+ * naturaleza tardan más (reportes); con 0 el límite de la ruta solo baja ante 502/503/504.
+ */
+@Component
+public class DescarteCargaFilter implements GlobalFilter, Ordered {
+    
+    public static final int ORDEN = 10;
+    public static final String CONCURRENCIA_MAXIMA = "concurrencia-maxima";
+    public static final String LATENCIA_OBJETIVO_MS = "latencia-objetivo-ms";
+    
+    private final Map<String, LimiteConcurrencia> limites = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final int inicial;
+    private final int minimo;
+    private final int maximo;
+    private final long latenciaObjetivoNanos;
+    
+    public DescarteCargaFilter(MeterRegistry meterRegistry,
+                               @Value("${banking.gateway.limite.concurrencia.inicial:100}") int inicial,
+                               @Value("${banking.gateway.limite.concurrencia.minimo:10}") int minimo,
+                               @Value("${banking.gateway.limite.concurrencia.maximo:400}") int maximo,
+                               @Value("${banking.gateway.limite.concurrencia.latencia-objetivo-ms:500}") long latenciaObjetivoMs) {
+        this.meterRegistry = meterRegistry;
+        this.inicial = inicial;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.latenciaObjetivoNanos = Duration.ofMillis(latenciaObjetivoMs).toNanos();
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route ruta = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (ruta == null) {
+            return chain.filter(exchange);
+        }
+        
+        LimiteConcurrencia limite = limites.computeIfAbsent(ruta.getId(), id -> crearLimite(ruta));
+        if (!limite.adquirir()) {
+            meterRegistry.counter("gateway.descartes", "ruta", ruta.getId()).increment();
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return exchange.getResponse().setComplete();
+        }
+        
+        long inicio = System.nanoTime();
+        return chain.filter(exchange).doFinally(senal -> {
+            HttpStatusCode estado = exchange.getResponse().getStatusCode();
+            boolean sobrecarga = senal == SignalType.ON_ERROR
+                    || (estado != null && (estado.value() == 502 || estado.value() == 503 || estado.value() == 504));
+            limite.liberar(System.nanoTime() - inicio, sobrecarga);
+        });
+    }
+    
+    @Override
+    public int getOrder() {
+        return ORDEN;
+    }
+    
+    private LimiteConcurrencia crearLimite(Route ruta) {
+        String rutaId = ruta.getId();
+        Object cupo = ruta.getMetadata().get(CONCURRENCIA_MAXIMA);
+        int tope = cupo != null ? Integer.parseInt(cupo.toString()) : maximo;
+        Object objetivo = ruta.getMetadata().get(LATENCIA_OBJETIVO_MS);
+        long objetivoNanos = objetivo != null
+                ? Duration.ofMillis(Long.parseLong(objetivo.toString())).toNanos() : latenciaObjetivoNanos;
+        LimiteConcurrencia limite = new LimiteConcurrencia(Math.min(inicial, tope), Math.min(minimo, tope), tope,
+                objetivoNanos);
+        Gauge.builder("gateway.limite.concurrencia", limite, LimiteConcurrencia::getLimite)
+                .tag("ruta", rutaId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.peticiones.en.curso", limite, LimiteConcurrencia::getEnCurso)
+                .tag("ruta", rutaId)
+                .register(meterRegistry);
+        return limite;
+    }
+}
@@ -0,0 +1,77 @@
+package com.banking.gateway.limite;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Cubeta de tokens por ruta y cliente para el filtro RequestRateLimiter. Los argumentos
+ * {@code limitador-tokens.tasa} y {@code limitador-tokens.rafaga} del filtro fijan el límite de la
+ * ruta; sin ellos rigen los valores de {@code banking.gateway.limite}. Es @Primary porque Spring
+ * Cloud Gateway también registra su RedisRateLimiter.
+ */
+@Primary
+@Component("limitadorTokens")
+public class LimitadorTokens extends AbstractRateLimiter<LimitadorTokens.Config> {
+    
+    public static final String CONFIGURACION = "limitador-tokens";
+    
+    private final AlmacenTokens almacenTokens;
+    private final Config porDefecto;
+    
+    public LimitadorTokens(AlmacenTokens almacenTokens, ConfigurationService configurationService,
+                           @Value("${banking.gateway.limite.tasa:50}") int tasa,
+                           @Value("${banking.gateway.limite.rafaga:100}") int rafaga) {
+        super(Config.class, CONFIGURACION, configurationService);
+        this.almacenTokens = almacenTokens;
+        this.porDefecto = new Config();
+        this.porDefecto.setTasa(tasa);
+        this.porDefecto.setRafaga(rafaga);
+    }
+    
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, porDefecto);
+        return almacenTokens.consumir(routeId + ":" + id, config.getTasa(), config.getRafaga(), config.getTokensPorPeticion())
+                .map(consumo -> new Response(consumo.isPermitido(), Map.of(
+                        "X-RateLimit-Limit", String.valueOf(config.getRafaga()),
+                        "X-RateLimit-Remaining", String.valueOf(consumo.getRestantes()))));
+    }
+    
+    public static class Config {
+        
+        // Tokens repuestos por segundo y tamaño de la cubeta (peticiones seguidas admitidas)
+        private int tasa = 50;
+        private int rafaga = 100;
+        private int tokensPorPeticion = 1;
+        
+        public int getTasa() {
+            return tasa;
+        }
+        
+        public void setTasa(int tasa) {
+            this.tasa = tasa;
+        }
+        
+        public int getRafaga() {
+            return rafaga;
+        }
+        
+        public void setRafaga(int rafaga) {
+            this.rafaga = rafaga;
+        }
+        
+        public int getTokensPorPeticion() {
+            return tokensPorPeticion;
+        }
+        
+        public void setTokensPorPeticion(int tokensPorPeticion) {
+            this.tokensPorPeticion = tokensPorPeticion;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.banking.gateway.limite;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de peticiones en curso hacia una ruta que se ajusta solo (AIMD): sube de a una por
+ * ventana mientras las respuestas llegan a tiempo y baja un 10 % ante cada respuesta lenta o
+ * de sobrecarga. Lo que excede el límite se rechaza al instante en lugar de esperar en cola.
+ * Con latencia objetivo 0 la duración no cuenta y solo las respuestas de sobrecarga lo bajan.
+ */
+public class LimiteConcurrencia {
+    
+    private static final double REDUCCION = 0.9;
+    
+    private final int minimo;
+    private final int maximo;
+    private final long latenciaObjetivoNanos;
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private volatile double limite;
+    
+    public LimiteConcurrencia(int inicial, int minimo, int maximo, long latenciaObjetivoNanos) {
+        this.limite = inicial;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.latenciaObjetivoNanos = latenciaObjetivoNanos;
+    }
+    
+    public boolean adquirir() {
+        int limiteActual = getLimite();
+        while (true) {
+            int actual = enCurso.get();
+            if (actual >= limiteActual) {
+                return false;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    public void liberar(long duracionNanos, boolean sobrecarga) {
+        int enCursoAlTerminar = enCurso.getAndDecrement();
+        synchronized (this) {
+            boolean lenta = latenciaObjetivoNanos > 0 && duracionNanos > latenciaObjetivoNanos;
+            if (sobrecarga || lenta) {
+                limite = Math.max(minimo, limite * REDUCCION);
+            } else if (enCursoAlTerminar * 2 >= limite) {
+                // Solo crece si el límite se está usando; con poca carga no hay nada que aprender
+                limite = Math.min(maximo, limite + 1.0 / limite);
+            }
+        }
+    }
+    
+    public int getLimite() {
+        return (int) limite;
+    }
+    
+    public int getEnCurso() {
+        return enCurso.get();
+    }
+}
@@ -0,0 +1,133 @@
+package com.banking.gateway.resiliencia;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.util.retry.Retry;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.reset;
+
+/**
+ * Filtro de ruta {@code ReintentoGet=<intentos>}: repite los GET que no llegaron al servicio (error de
+ * conexión) o que el servicio rechazó con 502/503, con espera exponencial y jitter del 50 % para que
+ * los reintentos de muchos clientes no lleguen juntos. Las escrituras nunca se repiten. Va antes del
+ * CircuitBreaker de la ruta: con el circuito abierto no hay reintento.
+ */
+@Component
+public class ReintentoGetGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ReintentoGetGatewayFilterFactory.Config> {
+    
+    private static final double JITTER = 0.5;
+    
+    public ReintentoGetGatewayFilterFactory() {
+        super(Config.class);
+    }
+    
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("intentos");
+    }
+    
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            HttpMethod metodo = exchange.getRequest().getMethod();
+            if ((metodo != HttpMethod.GET && metodo != HttpMethod.HEAD) || config.getIntentos() < 2) {
+                return chain.filter(exchange);
+            }
+            
+            // El cuerpo lo escribe NettyWriteResponseFilter al volver de la cadena: aquí solo se ve el
+            // estado, y el último intento deja pasar el 502/503 tal cual al cliente
+            AtomicInteger intento = new AtomicInteger();
+            Mono<Void> llamada = Mono.defer(() -> {
+                int actual = intento.incrementAndGet();
+                return chain.filter(exchange).then(Mono.defer(() -> {
+                    HttpStatusCode estado = exchange.getResponse().getStatusCode();
+                    if (actual < config.getIntentos() && estado != null && config.getEstados().contains(estado.value())) {
+                        return Mono.error(new EstadoReintentable(estado.value()));
+                    }
+                    return Mono.empty();
+                }));
+            });
+            
+            return llamada.retryWhen(Retry.backoff(config.getIntentos() - 1, config.getEspera())
+                    .maxBackoff(config.getEsperaMaxima())
+                    .jitter(JITTER)
+                    .filter(error -> reintentable(error) && !exchange.getResponse().isCommitted())
+                    .doBeforeRetry(senal -> reiniciar(exchange))
+                    .onRetryExhaustedThrow((spec, senal) -> senal.failure()));
+        };
+    }
+    
+    private boolean reintentable(Throwable error) {
+        return error instanceof EstadoReintentable || error instanceof ConnectException;
+    }
+    
+    // Descarta la respuesta del intento fallido y permite que NettyRoutingFilter vuelva a enrutar
+    private void reiniciar(ServerWebExchange exchange) {
+        Connection conexion = exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR);
+        if (conexion != null) {
+            conexion.dispose();
+            exchange.getAttributes().remove(CLIENT_RESPONSE_CONN_ATTR);
+        }
+        reset(exchange);
+    }
+    
+    private static class EstadoReintentable extends RuntimeException {
+        
+        EstadoReintentable(int estado) {
+            super("Respuesta " + estado + " del servicio", null, false, false);
+        }
+    }
+    
+    public static class Config {
+        
+        private int intentos = 3;
+        private Duration espera = Duration.ofMillis(100);
+        private Duration esperaMaxima = Duration.ofSeconds(1);
+        private List<Integer> estados = List.of(502, 503);
+        
+        public int getIntentos() {
+            return intentos;
+        }
+        
+        public void setIntentos(int intentos) {
+            this.intentos = intentos;
+        }
+        
+        public Duration getEspera() {
+            return espera;
+        }
+        
+        public void setEspera(Duration espera) {
+            this.espera = espera;
+        }
+        
+        public Duration getEsperaMaxima() {
+            return esperaMaxima;
+        }
+        
+        public void setEsperaMaxima(Duration esperaMaxima) {
+            this.esperaMaxima = esperaMaxima;
+        }
+        
+        public List<Integer> getEstados() {
+            return estados;
+        }
+        
+        public void setEstados(List<Integer> estados) {
+            this.estados = estados;
+        }
+    }
+}
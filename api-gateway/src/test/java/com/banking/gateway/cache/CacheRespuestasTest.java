@@ -0,0 +1,141 @@
+package com.banking.gateway.cache;
+
+import com.banking.gateway.limite.ClaveClienteResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheRespuestasTest {
+    
+    private static final String RUTA = "/api/cuentas/numero/478758";
+    
+    private final AtomicInteger llamadas = new AtomicInteger();
+    
+    private CacheRespuestas cacheRespuestas;
+    private CapturaRespuestasFilter captura;
+    private GatewayFilter lectura;
+    private GatewayFilter escritura;
+    
+    @BeforeEach
+    void setUp() {
+        cacheRespuestas = new CacheRespuestas(1024 * 1024, new SimpleMeterRegistry());
+        captura = new CapturaRespuestasFilter(cacheRespuestas);
+        
+        CacheRespuestasGatewayFilterFactory.Config config = new CacheRespuestasGatewayFilterFactory.Config();
+        config.setGrupo("cuentas");
+        config.setTtl(Duration.ofSeconds(60));
+        lectura = new CacheRespuestasGatewayFilterFactory(cacheRespuestas, new ClaveClienteResolver()).apply(config);
+        
+        InvalidarCacheGatewayFilterFactory.Config invalidar = new InvalidarCacheGatewayFilterFactory.Config();
+        invalidar.setGrupo("cuentas");
+        escritura = new InvalidarCacheGatewayFilterFactory(cacheRespuestas).apply(invalidar);
+    }
+    
+    @Test
+    void testAcierto_SeSirveSinLlegarAlServicio() {
+        // Given
+        MockServerWebExchange primera = get(MockServerHttpRequest.get(RUTA));
+        
+        // When
+        MockServerWebExchange segunda = get(MockServerHttpRequest.get(RUTA));
+        
+        // Then
+        assertEquals(1, llamadas.get());
+        assertEquals("MISS", primera.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", segunda.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(HttpStatus.OK, segunda.getResponse().getStatusCode());
+        assertEquals(cuerpo(primera), cuerpo(segunda));
+        assertEquals(primera.getResponse().getHeaders().getETag(), segunda.getResponse().getHeaders().getETag());
+    }
+    
+    @Test
+    void testClave_SeparaClientesYFormatos() {
+        // When - mismo recurso pedido por dos clientes y en otro formato
+        get(MockServerHttpRequest.get(RUTA).header(ClaveClienteResolver.CABECERA_CLIENTE, "1"));
+        MockServerWebExchange otroCliente = get(MockServerHttpRequest.get(RUTA).header(ClaveClienteResolver.CABECERA_CLIENTE, "2"));
+        MockServerWebExchange otroFormato = get(MockServerHttpRequest.get(RUTA)
+                .header(ClaveClienteResolver.CABECERA_CLIENTE, "1").header(HttpHeaders.ACCEPT, "text/csv"));
+        MockServerWebExchange repetida = get(MockServerHttpRequest.get(RUTA).header(ClaveClienteResolver.CABECERA_CLIENTE, "2"));
+        
+        // Then
+        assertEquals(3, llamadas.get());
+        assertEquals("MISS", otroCliente.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("MISS", otroFormato.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("HIT", repetida.getResponse().getHeaders().getFirst("X-Cache"));
+    }
+    
+    @Test
+    void testIfNoneMatch_RespondeNoModificadoSinCuerpo() {
+        // Given
+        String etag = get(MockServerHttpRequest.get(RUTA)).getResponse().getHeaders().getETag();
+        
+        // When - revalidación con el ETag vigente y con uno viejo
+        MockServerWebExchange vigente = get(MockServerHttpRequest.get(RUTA).header(HttpHeaders.IF_NONE_MATCH, "W/" + etag));
+        MockServerWebExchange viejo = get(MockServerHttpRequest.get(RUTA).header(HttpHeaders.IF_NONE_MATCH, "\"0000\""));
+        
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, vigente.getResponse().getStatusCode());
+        assertEquals("", cuerpo(vigente));
+        assertEquals(HttpStatus.OK, viejo.getResponse().getStatusCode());
+        assertEquals(etag, viejo.getResponse().getHeaders().getETag());
+        assertEquals(1, llamadas.get());
+    }
+    
+    @Test
+    void testInvalidacion_UnaEscrituraVaciaElGrupo() {
+        // Given
+        String antes = cuerpo(get(MockServerHttpRequest.get(RUTA)));
+        
+        // When
+        MockServerWebExchange post = MockServerWebExchange.from(MockServerHttpRequest.post("/api/cuentas"));
+        escritura.filter(post, exchange -> Mono.empty()).block();
+        MockServerWebExchange despues = get(MockServerHttpRequest.get(RUTA));
+        
+        // Then - la lectura vuelve al servicio y trae el cuerpo nuevo
+        assertEquals(2, llamadas.get());
+        assertEquals("MISS", despues.getResponse().getHeaders().getFirst("X-Cache"));
+        assertNotEquals(antes, cuerpo(despues));
+    }
+    
+    @Test
+    void testOrden_LosAciertosPasanPorElLimitadorYLaMetrica() {
+        // La búsqueda no fija orden y queda en su posición de la ruta, detrás de los filtros globales de
+        // orden 0 (métricas) y del RequestRateLimiter; la captura va antes de escribir la respuesta
+        assertFalse(lectura instanceof Ordered);
+        assertTrue(captura.getOrder() < NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER);
+    }
+    
+    // Cadena del gateway reducida: captura, filtro de la ruta y un servicio que responde un cuerpo distinto cada vez
+    private MockServerWebExchange get(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        captura.filter(exchange, decorado -> lectura.filter(decorado, alServicio -> {
+            int llamada = llamadas.incrementAndGet();
+            ServerHttpResponse response = alServicio.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            byte[] cuerpo = ("{\"llamada\":" + llamada + "}").getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(cuerpo)));
+        })).block();
+        return exchange;
+    }
+    
+    private static String cuerpo(MockServerWebExchange exchange) {
+        return exchange.getResponse().getBodyAsString().defaultIfEmpty("").block();
+    }
+}
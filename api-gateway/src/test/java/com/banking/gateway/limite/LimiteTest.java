@@ -0,0 +1,95 @@
+package com.banking.gateway.limite;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteTest {
+    
+    private static final long UN_SEGUNDO = Duration.ofSeconds(1).toNanos();
+    
+    @Test
+    void testCubeta_AgotaLaRafagaYRecargaConElTiempo() {
+        // Given - tasa de 1 token por segundo y ráfaga de 3
+        AtomicLong ahora = new AtomicLong();
+        AlmacenTokensLocal almacen = new AlmacenTokensLocal(ahora::get);
+        
+        // When & Then - la ráfaga pasa completa y la siguiente petición se rechaza
+        for (int i = 0; i < 3; i++) {
+            assertTrue(almacen.consumir("ruta:cliente-1", 1, 3, 1).block().isPermitido());
+        }
+        assertFalse(almacen.consumir("ruta:cliente-1", 1, 3, 1).block().isPermitido());
+        
+        // Otro cliente tiene su propia cubeta
+        assertTrue(almacen.consumir("ruta:cliente-2", 1, 3, 1).block().isPermitido());
+        
+        // Un segundo después hay un token más, y solo uno
+        ahora.addAndGet(UN_SEGUNDO);
+        assertTrue(almacen.consumir("ruta:cliente-1", 1, 3, 1).block().isPermitido());
+        assertFalse(almacen.consumir("ruta:cliente-1", 1, 3, 1).block().isPermitido());
+    }
+    
+    @Test
+    void testLimiteConcurrencia_RechazaElExcesoYBajaConRespuestasLentas() {
+        // Given
+        LimiteConcurrencia limite = new LimiteConcurrencia(4, 2, 10, Duration.ofMillis(100).toNanos());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limite.adquirir());
+        }
+        
+        // When & Then - la quinta petición se descarta sin esperar
+        assertFalse(limite.adquirir());
+        
+        // Una respuesta lenta reduce el límite: 4 * 0,9 -> 3 peticiones en curso
+        limite.liberar(Duration.ofSeconds(1).toNanos(), false);
+        assertEquals(3, limite.getLimite());
+        assertFalse(limite.adquirir());
+        
+        // Cada 502/503/504 lo sigue bajando, hasta el mínimo
+        for (int i = 0; i < 3; i++) {
+            limite.liberar(0, true);
+        }
+        assertEquals(2, limite.getLimite());
+    }
+    
+    @Test
+    void testLimiteConcurrencia_CreceMientrasLasRespuestasLleganATiempo() {
+        // Given
+        LimiteConcurrencia limite = new LimiteConcurrencia(4, 2, 10, Duration.ofMillis(100).toNanos());
+        
+        // When - varias ventanas con el límite lleno y respuestas rápidas
+        for (int ventana = 0; ventana < 20; ventana++) {
+            int enCurso = 0;
+            while (limite.adquirir()) {
+                enCurso++;
+            }
+            for (int i = 0; i < enCurso; i++) {
+                limite.liberar(Duration.ofMillis(10).toNanos(), false);
+            }
+        }
+        
+        // Then - sube hasta el máximo y no lo pasa
+        assertEquals(10, limite.getLimite());
+    }
+    
+    @Test
+    void testLimiteConcurrencia_SinLatenciaObjetivoSoloBajaConSobrecarga() {
+        // Given - ruta de descargas: latencia objetivo 0
+        LimiteConcurrencia limite = new LimiteConcurrencia(4, 2, 10, 0);
+        
+        // When - respuestas de un minuto
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limite.adquirir());
+            limite.liberar(Duration.ofMinutes(1).toNanos(), false);
+        }
+        
+        // Then - el límite no baja; un 503 sí lo reduce
+        assertEquals(4, limite.getLimite());
+        assertTrue(limite.adquirir());
+        limite.liberar(0, true);
+        assertEquals(3, limite.getLimite());
+    }
+}
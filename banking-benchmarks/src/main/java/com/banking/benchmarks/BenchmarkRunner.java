@@ -0,0 +1,33 @@
+package com.banking.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada del jar de benchmarks. Acepta las mismas opciones que JMH y, si no se
+ * indica otra cosa, deja los resultados en JSON (jmh-result.json) para compararlos entre versiones.
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions opciones = new CommandLineOptions(args);
+        if (opciones.shouldHelp() || opciones.shouldList() || opciones.shouldListWithParams()
+                || opciones.shouldListProfilers() || opciones.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(opciones);
+        if (!opciones.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!opciones.getResult().hasValue()) {
+            builder.result("jmh-result.json");
+        }
+        new Runner(builder.build()).run();
+    }
+}
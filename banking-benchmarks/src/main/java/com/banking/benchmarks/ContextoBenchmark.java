@@ -0,0 +1,35 @@
+package com.banking.benchmarks;
+
+import com.banking.cuenta.CuentaMovimientoServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Levanta el servicio de cuentas sin web, Eureka ni Kafka, sobre una base H2 en memoria
+ * propia de cada benchmark, con el esquema generado desde las entidades.
+ */
+final class ContextoBenchmark {
+    
+    private ContextoBenchmark() {}
+    
+    static ConfigurableApplicationContext iniciar(String baseDatos) {
+        // Como argumentos de línea de comandos para que tengan prioridad sobre application.yml
+        return new SpringApplicationBuilder(CuentaMovimientoServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + baseDatos + ";DB_CLOSE_DELAY=-1",
+                     "--spring.datasource.username=sa",
+                     "--spring.datasource.password=",
+                     "--spring.datasource.driver-class-name=org.h2.Driver",
+                     "--spring.jpa.hibernate.ddl-auto=create-drop",
+                     "--spring.jpa.show-sql=false",
+                     "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                     "--spring.jpa.properties.hibernate.format_sql=false",
+                     "--spring.flyway.enabled=false",
+                     "--spring.kafka.listener.auto-startup=false",
+                     "--banking.outbox.relay-habilitado=false",
+                     "--banking.clientes.validar-titular=false",
+                     "--eureka.client.enabled=false",
+                     "--logging.level.root=WARN");
+    }
+}
@@ -0,0 +1,102 @@
+package com.banking.benchmarks;
+
+import com.banking.cuenta.model.dto.EstadoCuentaDTO;
+import com.banking.cuenta.service.ReporteService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estado de cuenta de un cliente con 1, 10 o 100 cuentas de 10.000 movimientos cada una,
+ * tanto escrito en streaming (como lo sirve el endpoint) como armado en memoria.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class EstadoCuentaBenchmark {
+    
+    private static final int MOVIMIENTOS_POR_CUENTA = 10_000;
+    private static final long CLIENTE_ID = 1L;
+    private static final LocalDateTime FECHA_BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    
+    @Param({"1", "10", "100"})
+    private int cuentas;
+    
+    private ConfigurableApplicationContext contexto;
+    private ReporteService reporteService;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar("estado" + cuentas);
+        reporteService = contexto.getBean(ReporteService.class);
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        
+        long movimientoId = 1;
+        for (int c = 0; c < cuentas; c++) {
+            jdbcTemplate.update("INSERT INTO cuentas (numero_cuenta, tipo_cuenta, saldo_inicial, estado, cliente_id, fecha_creacion) " +
+                    "VALUES (?, 'Ahorros', 1000.00, TRUE, ?, ?)", String.format("99%08d", c), CLIENTE_ID, FECHA_BASE);
+            Long cuentaId = jdbcTemplate.queryForObject("SELECT MAX(cuenta_id) FROM cuentas", Long.class);
+            
+            BigDecimal saldo = new BigDecimal("1000.00");
+            List<Object[]> movimientos = new ArrayList<>(MOVIMIENTOS_POR_CUENTA);
+            for (int j = 0; j < MOVIMIENTOS_POR_CUENTA; j++) {
+                saldo = saldo.add(BigDecimal.ONE);
+                LocalDateTime fecha = FECHA_BASE.plusMinutes(j);
+                movimientos.add(new Object[]{movimientoId++, fecha, "Deposito", BigDecimal.ONE, saldo, cuentaId, fecha});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO movimientos (movimiento_id, fecha, tipo_movimiento, valor, saldo, cuenta_id, fecha_creacion) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)", movimientos);
+            jdbcTemplate.update("INSERT INTO saldos_cuenta (cuenta_id, saldo, activa, franjas, fecha_actualizacion) VALUES (?, ?, TRUE, 0, ?)",
+                    cuentaId, saldo, FECHA_BASE);
+        }
+        
+        fechaInicio = FECHA_BASE;
+        fechaFin = FECHA_BASE.plusMinutes(MOVIMIENTOS_POR_CUENTA);
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+    
+    @Benchmark
+    public long escribirEnStreaming() throws IOException {
+        SalidaContada salida = new SalidaContada();
+        reporteService.escribirEstadoCuenta(CLIENTE_ID, fechaInicio, fechaFin, salida);
+        return salida.bytes;
+    }
+    
+    @Benchmark
+    public List<EstadoCuentaDTO> generarEnMemoria() {
+        return reporteService.generarEstadoCuenta(CLIENTE_ID, fechaInicio, fechaFin);
+    }
+    
+    // Descarta la salida pero cuenta los bytes para que el JIT no pueda eliminar la escritura
+    private static class SalidaContada extends OutputStream {
+        
+        private long bytes;
+        
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
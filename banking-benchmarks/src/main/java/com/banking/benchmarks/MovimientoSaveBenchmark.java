@@ -0,0 +1,60 @@
+package com.banking.benchmarks;
+
+import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.service.CuentaService;
+import com.banking.cuenta.service.MovimientoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MovimientoService.save con varios hilos a la vez. Con una sola cuenta todos los hilos compiten
+ * por el mismo bloqueo; con más cuentas la contención se reparte entre las franjas.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class MovimientoSaveBenchmark {
+    
+    @Param({"1", "8", "64"})
+    private int cuentas;
+    
+    private ConfigurableApplicationContext contexto;
+    private MovimientoService movimientoService;
+    private List<Long> cuentaIds;
+    
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar("save" + cuentas);
+        movimientoService = contexto.getBean(MovimientoService.class);
+        CuentaService cuentaService = contexto.getBean(CuentaService.class);
+        
+        cuentaIds = new ArrayList<>(cuentas);
+        for (int i = 0; i < cuentas; i++) {
+            Cuenta cuenta = cuentaService.save(new Cuenta(String.format("88%08d", i), "Ahorros", new BigDecimal("1000.00"), 1L));
+            cuentaIds.add(cuenta.getCuentaId());
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+    
+    // Solo depósitos: ningún movimiento se rechaza por saldo y todas las invocaciones hacen el mismo trabajo
+    @Benchmark
+    public Movimiento depositar() {
+        Long cuentaId = cuentaIds.get(ThreadLocalRandom.current().nextInt(cuentaIds.size()));
+        return movimientoService.save(new Movimiento("Deposito", new BigDecimal("10.00"), null, cuentaId));
+    }
+}
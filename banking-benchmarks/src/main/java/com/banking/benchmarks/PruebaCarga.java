@@ -0,0 +1,192 @@
+package com.banking.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prueba de carga de bucle cerrado contra un servicio en ejecución: N clientes concurrentes repiten
+ * la misma petición durante un tiempo fijo y se informa el rendimiento y los percentiles de latencia.
+ * Sirve para comparar el servicio con hilos de plataforma y con hilos virtuales sobre la misma base.
+ *
+ * <pre>
+ * java -cp banking-benchmarks/target/benchmarks.jar com.banking.benchmarks.PruebaCarga \
+ *      --url http://localhost:8082/api/movimientos/cuenta/1 --concurrencia 1000 --duracion 60 \
+ *      --calentamiento 15 --etiqueta plataforma --salida carga-plataforma.json
+ * </pre>
+ */
+public class PruebaCarga {
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = leerOpciones(args);
+        String url = requerida(opciones, "url");
+        int concurrencia = Integer.parseInt(opciones.getOrDefault("concurrencia", "500"));
+        int duracion = Integer.parseInt(opciones.getOrDefault("duracion", "60"));
+        int calentamiento = Integer.parseInt(opciones.getOrDefault("calentamiento", "10"));
+        String etiqueta = opciones.getOrDefault("etiqueta", "carga");
+        String salida = opciones.getOrDefault("salida", "carga-" + etiqueta + ".json");
+        
+        HttpRequest peticion = construirPeticion(url, opciones.get("metodo"), opciones.get("cuerpo"));
+        
+        // El generador usa hilos virtuales para que su propio límite de hilos no enmascare el del servicio
+        HttpClient cliente = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        
+        System.out.printf("Calentamiento %d s con %d clientes contra %s%n", calentamiento, concurrencia, url);
+        ejecutar(cliente, peticion, concurrencia, calentamiento);
+        
+        System.out.printf("Medición %d s%n", duracion);
+        Resultado resultado = ejecutar(cliente, peticion, concurrencia, duracion);
+        
+        Map<String, Object> informe = resultado.informe(etiqueta, url, concurrencia, duracion);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(salida), informe);
+        informe.forEach((clave, valor) -> System.out.printf("%-16s %s%n", clave, valor));
+    }
+    
+    private static Resultado ejecutar(HttpClient cliente, HttpRequest peticion, int concurrencia, int segundos)
+            throws Exception {
+        AtomicBoolean activo = new AtomicBoolean(true);
+        List<Future<Muestras>> trabajos = new ArrayList<>(concurrencia);
+        
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrencia; i++) {
+                trabajos.add(clientes.submit(() -> repetir(cliente, peticion, activo)));
+            }
+            Thread.sleep(segundos * 1000L);
+            activo.set(false);
+            
+            Resultado resultado = new Resultado();
+            for (Future<Muestras> trabajo : trabajos) {
+                resultado.agregar(trabajo.get());
+            }
+            return resultado;
+        }
+    }
+    
+    private static Muestras repetir(HttpClient cliente, HttpRequest peticion, AtomicBoolean activo) {
+        Muestras muestras = new Muestras();
+        while (activo.get()) {
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<Void> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+                if (respuesta.statusCode() >= 400) {
+                    muestras.errores++;
+                    continue;
+                }
+                muestras.agregar(System.nanoTime() - inicio);
+            } catch (IOException e) {
+                muestras.errores++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return muestras;
+    }
+    
+    private static HttpRequest construirPeticion(String url, String metodo, String cuerpo) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30));
+        if (cuerpo != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        HttpRequest.BodyPublisher publicador = cuerpo != null
+                ? HttpRequest.BodyPublishers.ofString(cuerpo)
+                : HttpRequest.BodyPublishers.noBody();
+        return builder.method(metodo != null ? metodo : (cuerpo != null ? "POST" : "GET"), publicador).build();
+    }
+    
+    private static Map<String, String> leerOpciones(String[] args) {
+        Map<String, String> opciones = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Opción no válida: " + args[i]);
+            }
+            opciones.put(args[i].substring(2), args[i + 1]);
+        }
+        return opciones;
+    }
+    
+    private static String requerida(Map<String, String> opciones, String nombre) {
+        String valor = opciones.get(nombre);
+        if (valor == null) {
+            throw new IllegalArgumentException("Falta la opción --" + nombre);
+        }
+        return valor;
+    }
+    
+    // Latencias de un cliente en nanosegundos, sin sincronización: cada cliente escribe solo las suyas
+    private static final class Muestras {
+        
+        private long[] latencias = new long[1024];
+        private int cantidad;
+        private long errores;
+        
+        void agregar(long latencia) {
+            if (cantidad == latencias.length) {
+                latencias = Arrays.copyOf(latencias, cantidad * 2);
+            }
+            latencias[cantidad++] = latencia;
+        }
+    }
+    
+    private static final class Resultado {
+        
+        private final List<Muestras> muestras = new ArrayList<>();
+        
+        void agregar(Muestras muestrasCliente) {
+            muestras.add(muestrasCliente);
+        }
+        
+        Map<String, Object> informe(String etiqueta, String url, int concurrencia, int segundos) {
+            int total = muestras.stream().mapToInt(m -> m.cantidad).sum();
+            long errores = muestras.stream().mapToLong(m -> m.errores).sum();
+            long[] todas = new long[total];
+            int posicion = 0;
+            for (Muestras m : muestras) {
+                System.arraycopy(m.latencias, 0, todas, posicion, m.cantidad);
+                posicion += m.cantidad;
+            }
+            Arrays.sort(todas);
+            
+            Map<String, Object> informe = new LinkedHashMap<>();
+            informe.put("etiqueta", etiqueta);
+            informe.put("url", url);
+            informe.put("concurrencia", concurrencia);
+            informe.put("duracionS", segundos);
+            informe.put("peticiones", total);
+            informe.put("errores", errores);
+            informe.put("rendimientoRps", Math.round(total / (double) segundos));
+            informe.put("p50Ms", percentil(todas, 0.50));
+            informe.put("p99Ms", percentil(todas, 0.99));
+            informe.put("p999Ms", percentil(todas, 0.999));
+            informe.put("maxMs", total > 0 ? todas[total - 1] / 1_000_000.0 : 0.0);
+            return informe;
+        }
+        
+        private static double percentil(long[] ordenadas, double fraccion) {
+            if (ordenadas.length == 0) {
+                return 0.0;
+            }
+            int indice = (int) Math.ceil(fraccion * ordenadas.length) - 1;
+            return ordenadas[Math.max(indice, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.banking.benchmarks;
+
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.SaldoCuenta;
+import com.banking.cuenta.service.SaldoCuentaService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aritmética del saldo sin base de datos: la validación y el cálculo de cada movimiento
+ * (SaldoCuentaService.aplicarMovimiento) y el total del período del estado de cuenta.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SaldoBenchmark {
+    
+    private static final int MOVIMIENTOS = 1000;
+    
+    // aplicarMovimiento no usa los repositorios, así que basta con la instancia sin contexto
+    private final SaldoCuentaService saldoCuentaService = new SaldoCuentaService();
+    
+    private SaldoCuenta saldoCuenta;
+    private Movimiento deposito;
+    private Movimiento retiro;
+    private List<Movimiento> movimientos;
+    
+    @Setup
+    public void setUp() {
+        saldoCuenta = new SaldoCuenta(1L, new BigDecimal("1000000.00"), true);
+        deposito = new Movimiento("Deposito", new BigDecimal("125.50"), null, 1L);
+        retiro = new Movimiento("Retiro", new BigDecimal("125.50"), null, 1L);
+        
+        movimientos = new ArrayList<>(MOVIMIENTOS);
+        for (int i = 0; i < MOVIMIENTOS; i++) {
+            String tipo = i % 3 == 0 ? "Retiro" : "Deposito";
+            movimientos.add(new Movimiento(tipo, new BigDecimal(i % 500 + 1).movePointLeft(2).add(BigDecimal.TEN), null, 1L));
+        }
+    }
+    
+    // Un depósito y un retiro del mismo valor: el saldo no deriva entre invocaciones
+    @Benchmark
+    public BigDecimal aplicarDepositoYRetiro() {
+        saldoCuentaService.aplicarMovimiento(saldoCuenta, deposito);
+        return saldoCuentaService.aplicarMovimiento(saldoCuenta, retiro);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(MOVIMIENTOS)
+    public BigDecimal totalDelPeriodo() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Movimiento movimiento : movimientos) {
+            BigDecimal valor = "Deposito".equals(movimiento.getTipoMovimiento()) ? movimiento.getValor() : movimiento.getValor().negate();
+            total = total.add(valor);
+        }
+        return total;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(MOVIMIENTOS)
+    public BigDecimal totalDelPeriodoConStream() {
+        return movimientos.stream()
+                .map(mov -> "Deposito".equals(mov.getTipoMovimiento()) ? mov.getValor() : mov.getValor().negate())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,67 @@
+package com.banking.benchmarks;
+
+import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.dto.EstadoCuentaDTO;
+import com.banking.cuenta.model.dto.MovimientoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de las respuestas más frecuentes con un ObjectMapper configurado
+ * como el de Spring Boot (fechas ISO mediante JavaTimeModule).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionBenchmark {
+    
+    @Param({"10", "1000"})
+    private int movimientos;
+    
+    private ObjectMapper objectMapper;
+    private EstadoCuentaDTO estadoCuenta;
+    private Cuenta cuenta;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        
+        LocalDateTime fecha = LocalDateTime.of(2024, 1, 1, 9, 0);
+        BigDecimal saldo = new BigDecimal("1000.00");
+        List<MovimientoDTO> detalle = new ArrayList<>(movimientos);
+        for (int i = 0; i < movimientos; i++) {
+            saldo = saldo.add(new BigDecimal("12.35"));
+            detalle.add(new MovimientoDTO(fecha.plusMinutes(i), "Deposito", new BigDecimal("12.35"), saldo));
+        }
+        estadoCuenta = new EstadoCuentaDTO("01/01/2024", "Cliente 1", "225487", "Corriente",
+                new BigDecimal("1000.00"), true, saldo.subtract(new BigDecimal("1000.00")), saldo, detalle);
+        
+        cuenta = new Cuenta();
+        cuenta.setCuentaId(1L);
+        cuenta.setNumeroCuenta("225487");
+        cuenta.setTipoCuenta("Corriente");
+        cuenta.setSaldoInicial(new BigDecimal("1000.00"));
+        cuenta.setEstado(true);
+        cuenta.setClienteId(1L);
+    }
+    
+    @Benchmark
+    public byte[] serializarEstadoCuenta() throws Exception {
+        return objectMapper.writeValueAsBytes(estadoCuenta);
+    }
+    
+    @Benchmark
+    public byte[] serializarCuenta() throws Exception {
+        return objectMapper.writeValueAsBytes(cuenta);
+    }
+}
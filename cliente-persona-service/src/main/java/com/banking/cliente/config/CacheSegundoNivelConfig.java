@@ -0,0 +1,61 @@
+package com.banking.cliente.config;
+
+import com.banking.cliente.model.ClienteLectura;
+import com.banking.cliente.model.Persona;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Caché de segundo nivel de Hibernate sobre JCache, con Caffeine como proveedor local. Cada región se
+// crea aquí con su tamaño máximo y vencimiento; missing_cache_strategy=fail impide que Hibernate cree
+// otra sin límites. Los aciertos por región salen en hibernate.second.level.cache.requests y los de
+// las consultas en hibernate.cache.query.requests. Los cambios hechos por otras instancias llegan por
+// Kafka y los descarta ClienteCache.
+@Configuration
+public class CacheSegundoNivelConfig {
+    
+    // Gestor propio de cada contexto: el del URI por defecto es único en la JVM y dos contextos
+    // contra bases distintas compartirían entradas
+    @Bean
+    public CacheManager cacheSegundoNivel(@Value("${spring.application.name}") String aplicacion,
+                                          @Value("${banking.cache.segundo-nivel.maximo-entidades:20000}") long maximoEntidades,
+                                          @Value("${banking.cache.segundo-nivel.maximo-consultas:20000}") long maximoConsultas,
+                                          @Value("${banking.cache.segundo-nivel.expiracion:30m}") Duration expiracion) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("banking:" + aplicacion + ":" + UUID.randomUUID()), getClass().getClassLoader());
+        crearRegion(cacheManager, Persona.REGION_CACHE, OptionalLong.of(maximoEntidades), expiracion);
+        crearRegion(cacheManager, ClienteLectura.REGION_CACHE, OptionalLong.of(maximoEntidades), expiracion);
+        crearRegion(cacheManager, ClienteLectura.REGION_CONSULTAS, OptionalLong.of(maximoConsultas), expiracion);
+        crearRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                OptionalLong.of(maximoConsultas), expiracion);
+        // La última actualización de cada tabla no puede perderse: sin ella un resultado viejo parecería vigente
+        crearRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, OptionalLong.empty(), null);
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheSegundoNivel) {
+        return propiedades -> propiedades.put(ConfigSettings.CACHE_MANAGER, cacheSegundoNivel);
+    }
+    
+    private void crearRegion(CacheManager cacheManager, String region, OptionalLong maximo, Duration expiracion) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setMaximumSize(maximo);
+        if (expiracion != null) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(expiracion.toNanos()));
+        }
+        cacheManager.createCache(region, configuracion);
+    }
+}
@@ -0,0 +1,26 @@
+package com.banking.cliente.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Las transacciones readOnly leen de la réplica y el resto va al pool principal. Va detrás de un
+// LazyConnectionDataSourceProxy: la conexión se pide en la primera sentencia, cuando la marca
+// readOnly de la transacción ya está puesta.
+public class EnrutamientoDataSource extends AbstractRoutingDataSource {
+    
+    public static final String PRINCIPAL = "principal";
+    public static final String REPLICA = "replica";
+    
+    public EnrutamientoDataSource(DataSource principal, DataSource replica) {
+        setTargetDataSources(Map.of(PRINCIPAL, principal, REPLICA, replica));
+        setDefaultTargetDataSource(principal);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA : PRINCIPAL;
+    }
+}
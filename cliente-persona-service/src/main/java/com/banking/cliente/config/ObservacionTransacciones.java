@@ -0,0 +1,52 @@
+package com.banking.cliente.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Un span "Clase.metodo" por cada método transaccional de los servicios llamado dentro de una petición,
+// entre el span HTTP y los de JDBC.
+// Va por fuera del interceptor de @Transactional para que la duración incluya la espera del commit.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ObservacionTransacciones {
+    
+    private final ObservationRegistry observationRegistry;
+    
+    public ObservacionTransacciones(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+    
+    @Around("execution(public * com.banking.cliente.service..*(..)) && " +
+            "(@within(org.springframework.transaction.annotation.Transactional) || " +
+            "@annotation(org.springframework.transaction.annotation.Transactional))")
+    public Object observar(ProceedingJoinPoint punto) throws Throwable {
+        // Sin una observación en curso (arranque, hilos propios) no se abre una traza por cada llamada
+        if (observationRegistry.getCurrentObservation() == null) {
+            return punto.proceed();
+        }
+        
+        MethodSignature firma = (MethodSignature) punto.getSignature();
+        String clase = firma.getDeclaringType().getSimpleName();
+        Observation observacion = Observation.createNotStarted("banking.servicio", observationRegistry)
+                .contextualName(clase + "." + firma.getName())
+                .lowCardinalityKeyValue("clase", clase)
+                .lowCardinalityKeyValue("metodo", firma.getName())
+                .start();
+        try (Observation.Scope scope = observacion.openScope()) {
+            return punto.proceed();
+        } catch (Throwable e) {
+            observacion.error(e);
+            throw e;
+        } finally {
+            observacion.stop();
+        }
+    }
+}
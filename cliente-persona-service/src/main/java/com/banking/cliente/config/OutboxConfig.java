@@ -0,0 +1,26 @@
+package com.banking.cliente.config;
+
+import com.banking.cliente.service.OutboxService;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Solo donde corre el relay: sin él no se programa la publicación ni se contacta al broker al arrancar
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "banking.outbox", name = "relay-habilitado", havingValue = "true", matchIfMissing = true)
+public class OutboxConfig {
+    
+    @Value("${banking.outbox.particiones:6}")
+    private int particiones;
+    
+    // Compactado: conserva el último evento de cada cliente para que las réplicas puedan releerlo completo
+    @Bean
+    public NewTopic topicoClientes() {
+        return TopicBuilder.name(OutboxService.TOPICO_CLIENTES).partitions(particiones).compact().build();
+    }
+}
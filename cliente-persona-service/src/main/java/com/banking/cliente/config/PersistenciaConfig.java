@@ -0,0 +1,44 @@
+package com.banking.cliente.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Réplica de lectura opcional: con banking.replica.datasource.hikari.jdbc-url definido, el DataSource
+// enruta las transacciones readOnly a ella. Sin esa propiedad Spring Boot configura el DataSource de siempre.
+@Configuration
+@ConditionalOnProperty(prefix = "banking.replica.datasource.hikari", name = "jdbc-url")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class PersistenciaConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource principalDataSource(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    // Usuario y clave son los del datasource principal salvo que la réplica defina los suyos
+    @Bean
+    @ConfigurationProperties("banking.replica.datasource.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("principalDataSource") DataSource principal,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        EnrutamientoDataSource enrutamiento = new EnrutamientoDataSource(principal, replica);
+        enrutamiento.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(enrutamiento);
+    }
+}
@@ -1,6 +1,9 @@
 package com.banking.cliente.controller;
 
 import com.banking.cliente.model.Cliente;
+import com.banking.cliente.model.ClienteLectura;
+import com.banking.cliente.model.dto.ClienteResumen;
+import com.banking.cliente.model.dto.PaginaDTO;
 import com.banking.cliente.service.ClienteService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,19 +23,23 @@ public class ClienteController {
     private ClienteService clienteService;
     
     @GetMapping
-    public ResponseEntity<List<Cliente>> getAllClientes() {
+    public ResponseEntity<PaginaDTO<ClienteResumen>> getAllClientes(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limite", defaultValue = "50") int limite) {
         try {
-            List<Cliente> clientes = clienteService.findAll();
+            PaginaDTO<ClienteResumen> clientes = clienteService.listar(cursor, limite);
             return ResponseEntity.ok(clientes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Cliente> getClienteById(@PathVariable Long id) {
+    public ResponseEntity<ClienteLectura> getClienteById(@PathVariable Long id) {
         try {
-            Optional<Cliente> cliente = clienteService.findById(id);
+            Optional<ClienteLectura> cliente = clienteService.findById(id);
             return cliente.map(ResponseEntity::ok)
                          .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
@@ -41,9 +48,9 @@ public class ClienteController {
     }
     
     @GetMapping("/identificacion/{identificacion}")
-    public ResponseEntity<Cliente> getClienteByIdentificacion(@PathVariable String identificacion) {
+    public ResponseEntity<ClienteLectura> getClienteByIdentificacion(@PathVariable String identificacion) {
         try {
-            Optional<Cliente> cliente = clienteService.findByIdentificacion(identificacion);
+            Optional<ClienteLectura> cliente = clienteService.findByIdentificacion(identificacion);
             return cliente.map(ResponseEntity::ok)
                          .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
@@ -52,20 +59,31 @@ public class ClienteController {
     }
     
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<List<Cliente>> getClientesByEstado(@PathVariable Boolean estado) {
+    public ResponseEntity<List<ClienteLectura>> getClientesByEstado(@PathVariable Boolean estado) {
         try {
-            List<Cliente> clientes = clienteService.findByEstado(estado);
+            List<ClienteLectura> clientes = clienteService.findByEstado(estado);
             return ResponseEntity.ok(clientes);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    // q busca en nombre (prefijos y errores de tipeo), identificación y teléfono; nombre se acepta como alias
     @GetMapping("/buscar")
-    public ResponseEntity<List<Cliente>> searchClientesByNombre(@RequestParam String nombre) {
+    public ResponseEntity<PaginaDTO<ClienteLectura>> searchClientes(
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "nombre", required = false) String nombre,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limite", defaultValue = "20") int limite) {
+        String texto = q != null ? q : nombre;
+        if (texto == null || texto.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            List<Cliente> clientes = clienteService.findByNombreContaining(nombre);
+            PaginaDTO<ClienteLectura> clientes = clienteService.buscar(texto.strip(), cursor, limite);
             return ResponseEntity.ok(clientes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.*;
 @Entity
 @Table(name = "clientes")
 @PrimaryKeyJoinColumn(name = "persona_id")
+@Cacheable
 public class Cliente extends Persona {
     
     @Column(name = "cliente_id")
@@ -0,0 +1,180 @@
+package com.banking.cliente.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Modelo de lectura de clientes: personas y clientes aplanados en una sola tabla, sin la contraseña.
+// ClienteService la actualiza en la misma transacción que cada alta, cambio o baja, y todas las
+// consultas de /api/clientes se resuelven con una fila por índice, sin el join de la herencia JOINED.
+@Entity
+@Table(name = "clientes_lectura", indexes = {
+    @Index(name = "idx_clientes_lectura_estado", columnList = "estado, persona_id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ClienteLectura.REGION_CACHE)
+public class ClienteLectura implements Persistable<Long> {
+    
+    public static final String REGION_CACHE = "entidad.clientes-lectura";
+    public static final String REGION_CONSULTAS = "consultas.clientes";
+    
+    @Id
+    @Column(name = "persona_id")
+    private Long id;
+    
+    @Column(name = "cliente_id")
+    private Long clienteId;
+    
+    @Column(name = "nombre", nullable = false, length = 100)
+    private String nombre;
+    
+    @Column(name = "genero", nullable = false, length = 1)
+    private String genero;
+    
+    @Column(name = "edad", nullable = false)
+    private Integer edad;
+    
+    @Column(name = "identificacion", nullable = false, unique = true, length = 20)
+    private String identificacion;
+    
+    @Column(name = "direccion", nullable = false, length = 200)
+    private String direccion;
+    
+    @Column(name = "telefono", nullable = false, length = 20)
+    private String telefono;
+    
+    @Column(name = "estado", nullable = false)
+    private Boolean estado;
+    
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+    
+    // El id viene de personas: sin esto save() haría un SELECT previo en cada alta
+    @Transient
+    private boolean nueva = true;
+    
+    // Constructores
+    public ClienteLectura() {
+    }
+    
+    public static ClienteLectura desde(Cliente cliente) {
+        ClienteLectura lectura = new ClienteLectura();
+        lectura.copiarDe(cliente);
+        return lectura;
+    }
+    
+    public void copiarDe(Cliente cliente) {
+        this.id = cliente.getId();
+        this.clienteId = cliente.getClienteId();
+        this.nombre = cliente.getNombre();
+        this.genero = cliente.getGenero();
+        this.edad = cliente.getEdad();
+        this.identificacion = cliente.getIdentificacion();
+        this.direccion = cliente.getDireccion();
+        this.telefono = cliente.getTelefono();
+        this.estado = cliente.getEstado();
+    }
+    
+    // Getters y Setters
+    @Override
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return nueva;
+    }
+    
+    public Long getClienteId() {
+        return clienteId;
+    }
+    
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+    
+    public String getGenero() {
+        return genero;
+    }
+    
+    public void setGenero(String genero) {
+        this.genero = genero;
+    }
+    
+    public Integer getEdad() {
+        return edad;
+    }
+    
+    public void setEdad(Integer edad) {
+        this.edad = edad;
+    }
+    
+    public String getIdentificacion() {
+        return identificacion;
+    }
+    
+    public void setIdentificacion(String identificacion) {
+        this.identificacion = identificacion;
+    }
+    
+    public String getDireccion() {
+        return direccion;
+    }
+    
+    public void setDireccion(String direccion) {
+        this.direccion = direccion;
+    }
+    
+    public String getTelefono() {
+        return telefono;
+    }
+    
+    public void setTelefono(String telefono) {
+        this.telefono = telefono;
+    }
+    
+    public Boolean getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(Boolean estado) {
+        this.estado = estado;
+    }
+    
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+    
+    public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void marcarExistente() {
+        this.nueva = false;
+    }
+    
+    @PreUpdate
+    public void preUpdate() {
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+}
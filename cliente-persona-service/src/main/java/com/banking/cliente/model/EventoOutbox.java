@@ -0,0 +1,104 @@
+package com.banking.cliente.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Evento pendiente de publicar, escrito en la misma transacción que el cambio que lo origina
+@Entity
+@Table(name = "outbox_clientes")
+public class EventoOutbox {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    
+    @Column(name = "evento_id", nullable = false, length = 36)
+    private String eventoId;
+    
+    @Column(name = "topico", nullable = false, length = 100)
+    private String topico;
+    
+    @Column(name = "clave", nullable = false, length = 50)
+    private String clave;
+    
+    @Column(name = "tipo", nullable = false, length = 50)
+    private String tipo;
+    
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+    
+    // Constructores
+    public EventoOutbox() {
+        this.fechaCreacion = LocalDateTime.now();
+    }
+    
+    public EventoOutbox(String eventoId, String topico, String clave, String tipo, String payload) {
+        this();
+        this.eventoId = eventoId;
+        this.topico = topico;
+        this.clave = clave;
+        this.tipo = tipo;
+        this.payload = payload;
+    }
+    
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getEventoId() {
+        return eventoId;
+    }
+    
+    public void setEventoId(String eventoId) {
+        this.eventoId = eventoId;
+    }
+    
+    public String getTopico() {
+        return topico;
+    }
+    
+    public void setTopico(String topico) {
+        this.topico = topico;
+    }
+    
+    public String getClave() {
+        return clave;
+    }
+    
+    public void setClave(String clave) {
+        this.clave = clave;
+    }
+    
+    public String getTipo() {
+        return tipo;
+    }
+    
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+    
+    public String getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+    
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+}
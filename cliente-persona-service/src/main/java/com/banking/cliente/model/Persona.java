@@ -2,13 +2,21 @@ package com.banking.cliente.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
+// La región de segundo nivel se declara en la raíz de la jerarquía y la comparten las subclases:
+// un acierto evita el join entre personas y clientes (ver CacheSegundoNivelConfig)
 @Entity
 @Table(name = "personas")
 @Inheritance(strategy = InheritanceType.JOINED)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Persona.REGION_CACHE)
 public abstract class Persona {
     
+    public static final String REGION_CACHE = "entidad.personas";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "persona_id")
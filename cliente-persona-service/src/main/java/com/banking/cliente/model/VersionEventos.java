@@ -0,0 +1,67 @@
+package com.banking.cliente.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+// Último número de versión asignado a los eventos de un cliente. La fila se bloquea hasta el commit
+// de cada cambio, así las versiones de un cliente siguen el orden en que se confirman.
+@Entity
+@Table(name = "versiones_eventos_clientes")
+public class VersionEventos implements Persistable<Long> {
+    
+    @Id
+    @Column(name = "agregado_id")
+    private Long agregadoId;
+    
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    @Transient
+    private boolean nueva = true;
+    
+    // Constructores
+    public VersionEventos() {}
+    
+    public VersionEventos(Long agregadoId) {
+        this.agregadoId = agregadoId;
+        this.version = 0L;
+    }
+    
+    public long siguiente() {
+        version = version + 1;
+        return version;
+    }
+    
+    // Getters y Setters
+    @Override
+    public Long getId() {
+        return agregadoId;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+    
+    public Long getAgregadoId() {
+        return agregadoId;
+    }
+    
+    public void setAgregadoId(Long agregadoId) {
+        this.agregadoId = agregadoId;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    @PostLoad
+    @PostPersist
+    public void marcarExistente() {
+        this.nueva = false;
+    }
+}
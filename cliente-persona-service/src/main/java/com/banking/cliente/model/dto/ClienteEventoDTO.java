@@ -0,0 +1,107 @@
+package com.banking.cliente.model.dto;
+
+import com.banking.cliente.model.Cliente;
+
+// Datos del cliente que viajan en los eventos: nunca incluye la contraseña
+public class ClienteEventoDTO {
+    
+    private Long id;
+    private Long clienteId;
+    private String nombre;
+    private String genero;
+    private Integer edad;
+    private String identificacion;
+    private String direccion;
+    private String telefono;
+    private Boolean estado;
+    
+    // Constructores
+    public ClienteEventoDTO() {}
+    
+    public static ClienteEventoDTO desde(Cliente cliente) {
+        ClienteEventoDTO dto = new ClienteEventoDTO();
+        dto.setId(cliente.getId());
+        dto.setClienteId(cliente.getClienteId());
+        dto.setNombre(cliente.getNombre());
+        dto.setGenero(cliente.getGenero());
+        dto.setEdad(cliente.getEdad());
+        dto.setIdentificacion(cliente.getIdentificacion());
+        dto.setDireccion(cliente.getDireccion());
+        dto.setTelefono(cliente.getTelefono());
+        dto.setEstado(cliente.getEstado());
+        return dto;
+    }
+    
+    // Getters y Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getClienteId() {
+        return clienteId;
+    }
+    
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+    
+    public String getGenero() {
+        return genero;
+    }
+    
+    public void setGenero(String genero) {
+        this.genero = genero;
+    }
+    
+    public Integer getEdad() {
+        return edad;
+    }
+    
+    public void setEdad(Integer edad) {
+        this.edad = edad;
+    }
+    
+    public String getIdentificacion() {
+        return identificacion;
+    }
+    
+    public void setIdentificacion(String identificacion) {
+        this.identificacion = identificacion;
+    }
+    
+    public String getDireccion() {
+        return direccion;
+    }
+    
+    public void setDireccion(String direccion) {
+        this.direccion = direccion;
+    }
+    
+    public String getTelefono() {
+        return telefono;
+    }
+    
+    public void setTelefono(String telefono) {
+        this.telefono = telefono;
+    }
+    
+    public Boolean getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(Boolean estado) {
+        this.estado = estado;
+    }
+}
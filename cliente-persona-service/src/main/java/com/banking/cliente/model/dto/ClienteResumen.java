@@ -0,0 +1,21 @@
+package com.banking.cliente.model.dto;
+
+// Proyección de solo lectura para los listados de clientes (sin la contraseña)
+public interface ClienteResumen {
+    
+    Long getId();
+    
+    String getNombre();
+    
+    String getGenero();
+    
+    Integer getEdad();
+    
+    String getIdentificacion();
+    
+    String getDireccion();
+    
+    String getTelefono();
+    
+    Boolean getEstado();
+}
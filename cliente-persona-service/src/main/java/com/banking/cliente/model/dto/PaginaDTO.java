@@ -0,0 +1,35 @@
+package com.banking.cliente.model.dto;
+
+import java.util.List;
+
+public class PaginaDTO<T> {
+    
+    private List<T> contenido;
+    private String siguiente;
+    
+    // Constructores
+    public PaginaDTO() {}
+    
+    public PaginaDTO(List<T> contenido, String siguiente) {
+        this.contenido = contenido;
+        this.siguiente = siguiente;
+    }
+    
+    // Getters y Setters
+    public List<T> getContenido() {
+        return contenido;
+    }
+    
+    public void setContenido(List<T> contenido) {
+        this.contenido = contenido;
+    }
+    
+    // Cursor opaco para pedir la página siguiente; null cuando no hay más resultados
+    public String getSiguiente() {
+        return siguiente;
+    }
+    
+    public void setSiguiente(String siguiente) {
+        this.siguiente = siguiente;
+    }
+}
@@ -0,0 +1,51 @@
+package com.banking.cliente.repository;
+
+import com.banking.cliente.model.ClienteLectura;
+import com.banking.cliente.model.dto.ClienteResumen;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ClienteLecturaRepository extends JpaRepository<ClienteLectura, Long> {
+    
+    // Consulta cacheada: se guarda el id y el cliente sale de la región de la entidad
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ClienteLectura.REGION_CONSULTAS)
+    })
+    Optional<ClienteLectura> findByIdentificacion(String identificacion);
+    
+    List<ClienteLectura> findByEstado(Boolean estado);
+    
+    // Solo mientras el índice de búsqueda se carga: recorre la tabla entera
+    @Query("SELECT c FROM ClienteLectura c WHERE c.nombre LIKE %:nombre% ORDER BY c.id")
+    List<ClienteLectura> findByNombreContaining(@Param("nombre") String nombre, Limit limite);
+    
+    // Paginación por cursor sobre persona_id: la página continúa después del último cliente entregado
+    @Query("SELECT c.id AS id, c.nombre AS nombre, c.genero AS genero, c.edad AS edad, " +
+           "c.identificacion AS identificacion, c.direccion AS direccion, c.telefono AS telefono, c.estado AS estado " +
+           "FROM ClienteLectura c WHERE c.id > :id ORDER BY c.id")
+    List<ClienteResumen> findPaginaPosteriorA(@Param("id") Long id, Limit limite);
+    
+    // Copia los clientes que no tienen fila de lectura, como los que da de alta una instancia anterior a V3
+    // durante el despliegue. IGNORE: otra instancia puede estar completando los mismos al mismo tiempo.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO clientes_lectura (persona_id, cliente_id, nombre, genero, edad, identificacion, " +
+                   "direccion, telefono, estado, fecha_actualizacion) " +
+                   "SELECT p.persona_id, c.cliente_id, p.nombre, p.genero, p.edad, p.identificacion, p.direccion, " +
+                   "p.telefono, c.estado, p.fecha_actualizacion " +
+                   "FROM personas p JOIN clientes c ON c.persona_id = p.persona_id " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM clientes_lectura l WHERE l.persona_id = p.persona_id)",
+           nativeQuery = true)
+    int completarFaltantes();
+}
@@ -6,21 +6,17 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
+// Lado de escritura (herencia JOINED); las consultas de la API van por ClienteLecturaRepository
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     
-    Optional<Cliente> findByIdentificacion(String identificacion);
-    
-    List<Cliente> findByEstado(Boolean estado);
-    
-    @Query("SELECT c FROM Cliente c WHERE c.nombre LIKE %:nombre%")
-    List<Cliente> findByNombreContaining(@Param("nombre") String nombre);
-    
     boolean existsByIdentificacion(String identificacion);
     
+    // Solo cuando falta la fila de lectura del cliente
+    Optional<Cliente> findByIdentificacion(String identificacion);
+    
     @Query("SELECT c FROM Cliente c WHERE c.clienteId = :clienteId AND c.estado = true")
     Optional<Cliente> findActiveClienteById(@Param("clienteId") Long clienteId);
 }
@@ -0,0 +1,22 @@
+package com.banking.cliente.repository;
+
+import com.banking.cliente.model.EventoOutbox;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+    
+    // Sin SKIP LOCKED: una segunda instancia del relay espera en lugar de publicar eventos
+    // posteriores del mismo cliente antes que los del lote en curso. El id sigue el orden de
+    // inserción, no el de commit: lo que se cuele fuera de orden lo descarta la versión del evento.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EventoOutbox e ORDER BY e.id")
+    List<EventoOutbox> findPendientes(Limit limite);
+}
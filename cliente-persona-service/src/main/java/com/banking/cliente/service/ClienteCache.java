@@ -0,0 +1,53 @@
+package com.banking.cliente.service;
+
+import com.banking.cliente.model.Cliente;
+import com.banking.cliente.model.ClienteLectura;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// Invalidación entre instancias de la caché de segundo nivel de clientes. Cada instancia ve sus propias
+// escrituras; las de las demás llegan como eventos del outbox y se descartan aquí.
+@Component
+public class ClienteCache {
+    
+    private static final Logger log = LoggerFactory.getLogger(ClienteCache.class);
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Grupo propio por instancia y solo eventos nuevos: lo anterior ya no está en ninguna caché viva
+    @KafkaListener(topics = OutboxService.TOPICO_CLIENTES,
+                   groupId = "${spring.application.name}-cache-${random.uuid}",
+                   properties = "auto.offset.reset=latest")
+    public void recibirEvento(String mensaje) {
+        try {
+            JsonNode evento = objectMapper.readTree(mensaje);
+            if (!evento.hasNonNull("agregadoId")) {
+                throw new IllegalArgumentException("falta agregadoId");
+            }
+            descartar(evento.get("agregadoId").asLong());
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Evento de cliente ignorado por no ser válido: {}", e.getMessage());
+        }
+    }
+    
+    // Las consultas cacheadas se descartan enteras: un alta o un cambio de identificación
+    // invalida resultados que no contienen el id del cliente
+    private void descartar(Long id) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictEntityData(Cliente.class, id);
+        sessionFactory.getCache().evictEntityData(ClienteLectura.class, id);
+        sessionFactory.getCache().evictQueryRegion(ClienteLectura.REGION_CONSULTAS);
+    }
+}
@@ -1,14 +1,30 @@
 package com.banking.cliente.service;
 
 import com.banking.cliente.model.Cliente;
+import com.banking.cliente.model.ClienteLectura;
+import com.banking.cliente.model.dto.ClienteResumen;
+import com.banking.cliente.model.dto.PaginaDTO;
+import com.banking.cliente.repository.ClienteLecturaRepository;
 import com.banking.cliente.repository.ClienteRepository;
+import com.banking.cliente.util.Paginacion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+// Las consultas son readOnly: con réplica configurada se leen de ella y las escrituras van al principal.
+// Se resuelven sobre el modelo de lectura (clientes_lectura), que cada escritura actualiza en su transacción.
 @Service
 @Transactional
 public class ClienteService {
@@ -16,31 +32,83 @@ public class ClienteService {
     @Autowired
     private ClienteRepository clienteRepository;
     
-    public List<Cliente> findAll() {
-        return clienteRepository.findAll();
+    @Autowired
+    private ClienteLecturaRepository clienteLecturaRepository;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private IndiceClientes indiceClientes;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Transactional(readOnly = true)
+    public List<ClienteLectura> findAll() {
+        return clienteLecturaRepository.findAll();
     }
     
-    public Optional<Cliente> findById(Long id) {
-        return clienteRepository.findById(id);
+    @Transactional(readOnly = true)
+    public PaginaDTO<ClienteResumen> listar(String cursor, int limite) {
+        int tamano = Paginacion.limite(limite);
+        Long id = 0L;
+        if (cursor != null) {
+            try {
+                id = Long.valueOf(Paginacion.decodificar(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+        }
+        List<ClienteResumen> filas = clienteLecturaRepository.findPaginaPosteriorA(id, Paginacion.consulta(tamano));
+        return Paginacion.pagina(filas, tamano, cliente -> Paginacion.codificar(cliente.getId()));
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<ClienteLectura> findById(Long id) {
+        Optional<ClienteLectura> lectura = clienteLecturaRepository.findById(id);
+        return lectura.isPresent() ? lectura : completarLectura(clienteRepository.findById(id));
     }
     
-    public Optional<Cliente> findByIdentificacion(String identificacion) {
-        return clienteRepository.findByIdentificacion(identificacion);
+    @Transactional(readOnly = true)
+    public Optional<ClienteLectura> findByIdentificacion(String identificacion) {
+        Optional<ClienteLectura> lectura = clienteLecturaRepository.findByIdentificacion(identificacion);
+        return lectura.isPresent() ? lectura : completarLectura(clienteRepository.findByIdentificacion(identificacion));
     }
     
-    public List<Cliente> findByEstado(Boolean estado) {
-        return clienteRepository.findByEstado(estado);
+    @Transactional(readOnly = true)
+    public List<ClienteLectura> findByEstado(Boolean estado) {
+        return clienteLecturaRepository.findByEstado(estado);
     }
     
-    public List<Cliente> findByNombreContaining(String nombre) {
-        return clienteRepository.findByNombreContaining(nombre);
+    // Búsqueda por relevancia en el índice; los clientes de la página se leen por id y se devuelven en su orden.
+    // Mientras el índice se carga se devuelve una sola página buscada con LIKE sobre el nombre.
+    @Transactional(readOnly = true)
+    public PaginaDTO<ClienteLectura> buscar(String texto, String cursor, int limite) {
+        int tamano = Paginacion.limite(limite);
+        if (!indiceClientes.isListo()) {
+            return new PaginaDTO<>(clienteLecturaRepository.findByNombreContaining(texto, Limit.of(tamano)), null);
+        }
+        PaginaDTO<Long> ids = indiceClientes.buscar(texto, cursor, tamano);
+        Map<Long, ClienteLectura> porId = clienteLecturaRepository.findAllById(ids.getContenido()).stream()
+                .collect(Collectors.toMap(ClienteLectura::getId, Function.identity()));
+        // Un id sin fila es una baja que el índice todavía no refleja
+        List<ClienteLectura> contenido = ids.getContenido().stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PaginaDTO<>(contenido, ids.getSiguiente());
     }
     
     public Cliente save(Cliente cliente) {
         if (clienteRepository.existsByIdentificacion(cliente.getIdentificacion())) {
             throw new RuntimeException("Ya existe un cliente con la identificación: " + cliente.getIdentificacion());
         }
-        return clienteRepository.save(cliente);
+        Cliente nuevoCliente = clienteRepository.save(cliente);
+        ClienteLectura lectura = clienteLecturaRepository.save(ClienteLectura.desde(nuevoCliente));
+        indiceClientes.indexarAlConfirmar(lectura);
+        outboxService.registrarCliente(OutboxService.CLIENTE_CREADO, nuevoCliente);
+        return nuevoCliente;
     }
     
     public Cliente update(Long id, Cliente clienteActualizado) {
@@ -63,20 +131,51 @@ public class ClienteService {
         clienteExistente.setContrasena(clienteActualizado.getContrasena());
         clienteExistente.setEstado(clienteActualizado.getEstado());
         
-        return clienteRepository.save(clienteExistente);
+        Cliente clienteGuardado = clienteRepository.save(clienteExistente);
+        // Si la fila de lectura falta (cliente creado antes de la migración V3 y no copiado) se crea aquí
+        ClienteLectura lectura = clienteLecturaRepository.findById(id).orElseGet(ClienteLectura::new);
+        lectura.copiarDe(clienteGuardado);
+        indiceClientes.indexarAlConfirmar(clienteLecturaRepository.save(lectura));
+        outboxService.registrarCliente(OutboxService.CLIENTE_ACTUALIZADO, clienteGuardado);
+        return clienteGuardado;
     }
     
     public void deleteById(Long id) {
         if (!clienteRepository.existsById(id)) {
             throw new RuntimeException("Cliente no encontrado con ID: " + id);
         }
+        // La fila de lectura primero: después ya la habría borrado la cascada de la clave foránea en MySQL
+        clienteLecturaRepository.deleteById(id);
         clienteRepository.deleteById(id);
+        indiceClientes.eliminarAlConfirmar(id);
+        outboxService.registrarClienteEliminado(id);
+    }
+    
+    // Cliente dado de alta por una instancia anterior a clientes_lectura después de la última reconciliación:
+    // se responde desde el lado de escritura y se crea su fila de lectura en una transacción propia en el
+    // principal (la consulta puede estar en la réplica). Si otra petición la creó antes, se usa esa.
+    private Optional<ClienteLectura> completarLectura(Optional<Cliente> cliente) {
+        if (cliente.isEmpty()) {
+            return Optional.empty();
+        }
+        ClienteLectura lectura = ClienteLectura.desde(cliente.get());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transactionTemplate.executeWithoutResult(status -> clienteLecturaRepository.save(lectura));
+            indiceClientes.indexarAlConfirmar(lectura);
+        } catch (DataIntegrityViolationException e) {
+            // Ya existía: la creó otra petición o la reconciliación
+        }
+        return Optional.of(lectura);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsById(Long id) {
         return clienteRepository.existsById(id);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByIdentificacion(String identificacion) {
         return clienteRepository.existsByIdentificacion(identificacion);
     }
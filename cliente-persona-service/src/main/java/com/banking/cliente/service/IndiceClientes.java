@@ -0,0 +1,461 @@
+package com.banking.cliente.service;
+
+import com.banking.cliente.model.ClienteLectura;
+import com.banking.cliente.model.dto.ClienteResumen;
+import com.banking.cliente.model.dto.PaginaDTO;
+import com.banking.cliente.repository.ClienteLecturaRepository;
+import com.banking.cliente.util.Paginacion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Índice de búsqueda de clientes en memoria de la instancia (Lucene) sobre nombre, identificación y teléfono.
+// Se construye desde clientes_lectura al arrancar, en un directorio temporal propio, y luego se mantiene
+// documento a documento: tras el commit de cada alta, cambio o baja local y con los eventos de banking.clientes
+// de las demás instancias. Hasta terminar la carga inicial ClienteService busca con LIKE en la base.
+@Component
+public class IndiceClientes {
+    
+    private static final Logger log = LoggerFactory.getLogger(IndiceClientes.class);
+    
+    private static final String ID = "id";
+    private static final String ORDEN = "orden";
+    private static final String NOMBRE = "nombre";
+    private static final String NOMBRE_PREFIJO = "nombre_prefijo";
+    private static final String IDENTIFICACION = "identificacion";
+    private static final String IDENTIFICACION_PREFIJO = "identificacion_prefijo";
+    private static final String TELEFONO = "telefono";
+    private static final String TELEFONO_PREFIJO = "telefono_prefijo";
+    
+    // Prefijos indexados: desde 2 letras en el nombre y 3 caracteres en identificación y teléfono
+    private static final int MIN_PREFIJO = 2;
+    private static final int MAX_PREFIJO = 15;
+    private static final int MIN_PREFIJO_CLAVE = 3;
+    private static final int MAX_PREFIJO_CLAVE = 20;
+    
+    // Acota el costo de textos largos: las palabras de más no se usan
+    private static final int MAX_TERMINOS = 8;
+    
+    // Relevancia y, a igual puntaje, id: el orden total que necesita el cursor
+    private static final Sort ORDEN_RELEVANCIA = new Sort(SortField.FIELD_SCORE, new SortField(ORDEN, SortField.Type.LONG));
+    
+    @Autowired
+    private ClienteLecturaRepository clienteLecturaRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private final Path base;
+    private final long refrescoMs;
+    private final int tamanoLoteCarga;
+    private final Analyzer analizadorNombre = analizador(false);
+    
+    // Versión del último evento aplicado por cliente: uno atrasado no pisa un cambio posterior
+    private final Map<Long, Long> versiones = new ConcurrentHashMap<>();
+    
+    // Ids escritos antes de terminar la carga inicial: la carga no los pisa con lo que leyó antes
+    private final Set<Long> modificadosDuranteCarga = ConcurrentHashMap.newKeySet();
+    private final Object escritura = new Object();
+    
+    private Path carpeta;
+    private Directory directorio;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reapertura;
+    private volatile boolean listo;
+    
+    public IndiceClientes(@Value("${banking.busqueda.directorio:${java.io.tmpdir}/banking-clientes-indice}") String base,
+                          @Value("${banking.busqueda.refresco-ms:500}") long refrescoMs,
+                          @Value("${banking.busqueda.tamano-lote-carga:5000}") int tamanoLoteCarga) {
+        this.base = Path.of(base);
+        this.refrescoMs = refrescoMs;
+        this.tamanoLoteCarga = tamanoLoteCarga;
+    }
+    
+    // Un índice nuevo por arranque: lo que hubiera en disco de otra ejecución puede estar desactualizado
+    @PostConstruct
+    public void abrir() throws IOException {
+        Files.createDirectories(base);
+        carpeta = Files.createTempDirectory(base, "indice-");
+        directorio = FSDirectory.open(carpeta);
+        
+        Analyzer analizador = new PerFieldAnalyzerWrapper(analizadorNombre, Map.of(
+                NOMBRE_PREFIJO, analizador(true),
+                IDENTIFICACION_PREFIJO, analizadorClave(),
+                TELEFONO_PREFIJO, analizadorClave()));
+        writer = new IndexWriter(directorio, new IndexWriterConfig(analizador)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+        searcherManager = new SearcherManager(writer, null);
+        
+        // Los cambios se ven en las búsquedas a más tardar refrescoMs después de escribirse
+        double refresco = refrescoMs / 1000.0;
+        reapertura = new ControlledRealTimeReopenThread<>(writer, searcherManager, refresco, Math.min(refresco, 0.025));
+        reapertura.setName("indice-clientes-refresco");
+        reapertura.setDaemon(true);
+        reapertura.start();
+    }
+    
+    @PreDestroy
+    public void cerrar() throws IOException {
+        listo = false;
+        reapertura.close();
+        searcherManager.close();
+        // Sin commit: el índice no se reutiliza
+        writer.rollback();
+        directorio.close();
+        FileSystemUtils.deleteRecursively(carpeta);
+    }
+    
+    public boolean isListo() {
+        return listo;
+    }
+    
+    // La carga recorre toda la tabla: con millones de clientes no debe demorar el arranque
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarCarga() {
+        Thread.ofPlatform().name("indice-clientes-carga").daemon().start(this::cargar);
+    }
+    
+    public void cargar() {
+        long inicio = System.nanoTime();
+        long total = 0;
+        try {
+            Long ultimo = 0L;
+            List<ClienteResumen> pagina;
+            do {
+                pagina = clienteLecturaRepository.findPaginaPosteriorA(ultimo, Limit.of(tamanoLoteCarga));
+                synchronized (escritura) {
+                    for (ClienteResumen cliente : pagina) {
+                        if (!modificadosDuranteCarga.contains(cliente.getId())) {
+                            writer.addDocument(documento(cliente.getId(), cliente.getNombre(),
+                                    cliente.getIdentificacion(), cliente.getTelefono()));
+                        }
+                    }
+                }
+                total += pagina.size();
+                if (!pagina.isEmpty()) {
+                    ultimo = pagina.get(pagina.size() - 1).getId();
+                }
+            } while (pagina.size() == tamanoLoteCarga);
+            
+            synchronized (escritura) {
+                listo = true;
+                modificadosDuranteCarga.clear();
+            }
+            refrescar();
+            log.info("Índice de clientes cargado: {} clientes en {} ms", total, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("No se pudo cargar el índice de clientes; la búsqueda sigue sobre la base", e);
+        }
+    }
+    
+    // Alta o cambio hecho en esta instancia: se indexa al confirmarse la transacción, con los datos de ahora
+    public void indexarAlConfirmar(ClienteLectura cliente) {
+        Long id = cliente.getId();
+        String nombre = cliente.getNombre();
+        String identificacion = cliente.getIdentificacion();
+        String telefono = cliente.getTelefono();
+        alConfirmar(() -> indexar(id, nombre, identificacion, telefono));
+    }
+    
+    public void eliminarAlConfirmar(Long id) {
+        alConfirmar(() -> eliminar(id));
+    }
+    
+    public void indexar(Long id, String nombre, String identificacion, String telefono) {
+        try {
+            synchronized (escritura) {
+                if (!listo) {
+                    modificadosDuranteCarga.add(id);
+                }
+                writer.updateDocument(new Term(ID, String.valueOf(id)), documento(id, nombre, identificacion, telefono));
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo indexar el cliente {}: {}", id, e.getMessage());
+        }
+    }
+    
+    public void eliminar(Long id) {
+        try {
+            synchronized (escritura) {
+                if (!listo) {
+                    modificadosDuranteCarga.add(id);
+                }
+                writer.deleteDocuments(new Term(ID, String.valueOf(id)));
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo quitar del índice el cliente {}: {}", id, e.getMessage());
+        }
+    }
+    
+    // Hace visibles de inmediato las escrituras pendientes, sin esperar al hilo de refresco
+    public void refrescar() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // Ids de la página en orden de relevancia; el cursor lleva el puntaje y el id del último entregado
+    public PaginaDTO<Long> buscar(String texto, String cursor, int limite) {
+        Query consulta = construirConsulta(texto);
+        if (consulta == null) {
+            return new PaginaDTO<>(List.of(), null);
+        }
+        Object[] valoresCursor = null;
+        if (cursor != null) {
+            String[] partes = Paginacion.decodificar(cursor, 2);
+            try {
+                valoresCursor = new Object[]{Float.valueOf(partes[0]), Long.valueOf(partes[1])};
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+        }
+        
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // El id ya desempata, así que el número de documento solo decide frente al mismo cliente del
+                // cursor: con el último válido del lector ese cliente se descarta y los demás no se comparan
+                FieldDoc despues = valoresCursor == null ? null
+                        : new FieldDoc(searcher.getIndexReader().maxDoc() - 1, Float.NaN, valoresCursor);
+                TopDocs resultado = searcher.searchAfter(despues, consulta, limite + 1, ORDEN_RELEVANCIA, false);
+                List<FieldDoc> filas = new ArrayList<>(resultado.scoreDocs.length);
+                for (ScoreDoc fila : resultado.scoreDocs) {
+                    filas.add((FieldDoc) fila);
+                }
+                PaginaDTO<FieldDoc> pagina = Paginacion.pagina(filas, limite,
+                        fila -> Paginacion.codificar(fila.fields[0], fila.fields[1]));
+                List<Long> ids = pagina.getContenido().stream().map(fila -> (Long) fila.fields[1]).toList();
+                return new PaginaDTO<>(ids, pagina.getSiguiente());
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // Cambios hechos en otras instancias. Las propias también llegan y se vuelven a indexar con los mismos datos.
+    @KafkaListener(topics = OutboxService.TOPICO_CLIENTES,
+                   groupId = "${spring.application.name}-indice-${random.uuid}",
+                   properties = "auto.offset.reset=latest")
+    public void recibirEvento(String mensaje) {
+        try {
+            JsonNode evento = objectMapper.readTree(mensaje);
+            if (!evento.hasNonNull("agregadoId")) {
+                throw new IllegalArgumentException("falta agregadoId");
+            }
+            Long id = evento.get("agregadoId").asLong();
+            JsonNode datos = evento.path("datos");
+            if (evento.hasNonNull("version") && !esPosterior(id, evento.get("version").asLong())) {
+                return;
+            }
+            if (OutboxService.CLIENTE_ELIMINADO.equals(evento.path("tipo").asText())) {
+                eliminar(id);
+            } else if (datos.hasNonNull("nombre")) {
+                indexar(id, datos.get("nombre").asText(), datos.path("identificacion").asText(""),
+                        datos.path("telefono").asText(""));
+            } else {
+                throw new IllegalArgumentException("faltan los datos del cliente");
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Evento de cliente ignorado por no ser válido: {}", e.getMessage());
+        }
+    }
+    
+    // Un solo hilo consume el tópico; los eventos sin versión (anteriores a ella) se aplican siempre
+    private boolean esPosterior(Long id, long version) {
+        Long aplicada = versiones.get(id);
+        if (aplicada != null && aplicada >= version) {
+            return false;
+        }
+        versiones.put(id, version);
+        return true;
+    }
+    
+    // Cada palabra debe aparecer en el nombre: exacta, como prefijo o con hasta una o dos letras distintas.
+    // El texto completo también se prueba contra identificación y teléfono, exactos o como prefijo.
+    private Query construirConsulta(String texto) {
+        List<String> terminos = terminos(texto);
+        String clave = normalizarClave(texto);
+        String digitos = soloDigitos(texto);
+        if (terminos.isEmpty() && clave.isEmpty()) {
+            return null;
+        }
+        
+        BooleanQuery.Builder consulta = new BooleanQuery.Builder();
+        if (!terminos.isEmpty()) {
+            BooleanQuery.Builder porNombre = new BooleanQuery.Builder();
+            for (String termino : terminos) {
+                porNombre.add(consultaTermino(termino), Occur.MUST);
+            }
+            consulta.add(porNombre.build(), Occur.SHOULD);
+        }
+        if (clave.length() >= MIN_PREFIJO_CLAVE) {
+            consulta.add(new BoostQuery(new TermQuery(new Term(IDENTIFICACION, clave)), 8f), Occur.SHOULD);
+            consulta.add(new BoostQuery(new TermQuery(new Term(IDENTIFICACION_PREFIJO, clave)), 4f), Occur.SHOULD);
+        }
+        if (digitos.length() >= MIN_PREFIJO_CLAVE) {
+            consulta.add(new BoostQuery(new TermQuery(new Term(TELEFONO, digitos)), 8f), Occur.SHOULD);
+            consulta.add(new BoostQuery(new TermQuery(new Term(TELEFONO_PREFIJO, digitos)), 4f), Occur.SHOULD);
+        }
+        return consulta.setMinimumNumberShouldMatch(1).build();
+    }
+    
+    private Query consultaTermino(String termino) {
+        BooleanQuery.Builder variantes = new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(new Term(NOMBRE, termino)), 4f), Occur.SHOULD);
+        if (termino.length() >= MIN_PREFIJO) {
+            variantes.add(new BoostQuery(new TermQuery(new Term(NOMBRE_PREFIJO, termino)), 2f), Occur.SHOULD);
+        }
+        // Sin tolerancia en palabras cortas: casi todo estaría a una letra de distancia
+        int ediciones = termino.length() >= 8 ? 2 : termino.length() >= 4 ? 1 : 0;
+        if (ediciones > 0) {
+            variantes.add(new FuzzyQuery(new Term(NOMBRE, termino), ediciones, 1), Occur.SHOULD);
+        }
+        return variantes.build();
+    }
+    
+    private List<String> terminos(String texto) {
+        List<String> terminos = new ArrayList<>();
+        try (TokenStream flujo = analizadorNombre.tokenStream(NOMBRE, texto)) {
+            CharTermAttribute termino = flujo.addAttribute(CharTermAttribute.class);
+            flujo.reset();
+            while (flujo.incrementToken() && terminos.size() < MAX_TERMINOS) {
+                terminos.add(termino.toString());
+            }
+            flujo.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terminos;
+    }
+    
+    private Document documento(Long id, String nombre, String identificacion, String telefono) {
+        Document documento = new Document();
+        documento.add(new StringField(ID, String.valueOf(id), Field.Store.NO));
+        documento.add(new NumericDocValuesField(ORDEN, id));
+        documento.add(new TextField(NOMBRE, nombre, Field.Store.NO));
+        documento.add(new TextField(NOMBRE_PREFIJO, nombre, Field.Store.NO));
+        String clave = normalizarClave(identificacion);
+        if (!clave.isEmpty()) {
+            documento.add(new StringField(IDENTIFICACION, clave, Field.Store.NO));
+            documento.add(new TextField(IDENTIFICACION_PREFIJO, clave, Field.Store.NO));
+        }
+        String digitos = soloDigitos(telefono);
+        if (!digitos.isEmpty()) {
+            documento.add(new StringField(TELEFONO, digitos, Field.Store.NO));
+            documento.add(new TextField(TELEFONO_PREFIJO, digitos, Field.Store.NO));
+        }
+        return documento;
+    }
+    
+    // Minúsculas, sin tildes; con prefijos, además cada palabra se indexa por sus primeras letras
+    private static Analyzer analizador(boolean prefijos) {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String campo) {
+                Tokenizer tokenizer = new StandardTokenizer();
+                TokenStream flujo = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+                if (prefijos) {
+                    flujo = new EdgeNGramTokenFilter(flujo, MIN_PREFIJO, MAX_PREFIJO, true);
+                }
+                return new TokenStreamComponents(tokenizer, flujo);
+            }
+        };
+    }
+    
+    // Identificación y teléfono ya normalizados: un solo término y sus prefijos
+    private static Analyzer analizadorClave() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String campo) {
+                Tokenizer tokenizer = new KeywordTokenizer();
+                return new TokenStreamComponents(tokenizer,
+                        new EdgeNGramTokenFilter(tokenizer, MIN_PREFIJO_CLAVE, MAX_PREFIJO_CLAVE, true));
+            }
+        };
+    }
+    
+    private static String normalizarClave(String valor) {
+        return valor == null ? "" : valor.replaceAll("[\\s-]", "").toLowerCase(Locale.ROOT);
+    }
+    
+    private static String soloDigitos(String valor) {
+        return valor == null ? "" : valor.replaceAll("\\D", "");
+    }
+    
+    private static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.banking.cliente.service;
+
+import com.banking.cliente.model.Cliente;
+import com.banking.cliente.model.EventoOutbox;
+import com.banking.cliente.model.VersionEventos;
+import com.banking.cliente.model.dto.ClienteEventoDTO;
+import com.banking.cliente.model.dto.EventoDTO;
+import com.banking.cliente.repository.EventoOutboxRepository;
+import com.banking.cliente.repository.VersionEventosRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Registra los eventos en la tabla outbox; OutboxRelay los publica en Kafka después del commit.
+// Cada evento lleva la versión del cliente: el orden de publicación no está garantizado entre
+// transacciones concurrentes, así que los consumidores descartan lo que no supere la versión aplicada.
+@Service
+public class OutboxService {
+    
+    public static final String TOPICO_CLIENTES = "banking.clientes";
+    
+    public static final String CLIENTE_CREADO = "ClienteCreado";
+    public static final String CLIENTE_ACTUALIZADO = "ClienteActualizado";
+    public static final String CLIENTE_ELIMINADO = "ClienteEliminado";
+    
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+    
+    @Autowired
+    private VersionEventosRepository versionEventosRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCliente(String tipo, Cliente cliente) {
+        registrar(tipo, cliente.getId(), CLIENTE_CREADO.equals(tipo), ClienteEventoDTO.desde(cliente));
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarClienteEliminado(Long id) {
+        registrar(CLIENTE_ELIMINADO, id, false, null);
+    }
+    
+    // La clave es el id de persona, el mismo que las cuentas guardan como clienteId
+    private void registrar(String tipo, Long id, boolean alta, ClienteEventoDTO datos) {
+        String eventoId = UUID.randomUUID().toString();
+        EventoDTO evento = new EventoDTO(eventoId, tipo, id, siguienteVersion(id, alta), LocalDateTime.now(), datos);
+        try {
+            String payload = objectMapper.writeValueAsString(evento);
+            eventoOutboxRepository.save(new EventoOutbox(eventoId, TOPICO_CLIENTES, String.valueOf(id), tipo, payload));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("No se pudo serializar el evento " + tipo, e);
+        }
+    }
+    
+    // La fila del cliente queda bloqueada hasta el commit: dos cambios del mismo cliente se numeran en
+    // el orden en que se confirman. En un alta no se consulta antes de insertar, porque un SELECT FOR UPDATE
+    // sobre una fila inexistente bloquea el hueco y dos altas concurrentes podrían caer en deadlock.
+    private long siguienteVersion(Long id, boolean alta) {
+        VersionEventos version = alta
+                ? new VersionEventos(id)
+                : versionEventosRepository.findByIdForUpdate(id).orElseGet(() -> new VersionEventos(id));
+        long siguiente = version.siguiente();
+        versionEventosRepository.save(version);
+        return siguiente;
+    }
+}
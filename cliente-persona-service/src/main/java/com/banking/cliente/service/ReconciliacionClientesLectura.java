@@ -0,0 +1,39 @@
+package com.banking.cliente.service;
+
+import com.banking.cliente.repository.ClienteLecturaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// La copia de V3 corre una sola vez: los clientes que una instancia de la versión anterior dé de alta
+// después quedan sin fila en clientes_lectura. Cada arranque los completa al terminar de crear los beans,
+// antes de que arranque el servidor web y de que IndiceClientes cargue el índice (ApplicationReadyEvent).
+@Component
+public class ReconciliacionClientesLectura implements SmartInitializingSingleton {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReconciliacionClientesLectura.class);
+    
+    @Autowired
+    private ClienteLecturaRepository clienteLecturaRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            Integer copiados = new TransactionTemplate(transactionManager)
+                    .execute(status -> clienteLecturaRepository.completarFaltantes());
+            if (copiados != null && copiados > 0) {
+                log.info("Se completaron {} clientes sin fila en clientes_lectura", copiados);
+            }
+        } catch (RuntimeException e) {
+            // Las consultas igual completan la fila que falte al pedirla (ClienteService)
+            log.warn("No se pudo reconciliar clientes_lectura: {}", e.getMessage());
+        }
+    }
+}
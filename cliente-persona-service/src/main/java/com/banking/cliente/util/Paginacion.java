@@ -0,0 +1,65 @@
+package com.banking.cliente.util;
+
+import com.banking.cliente.model.dto.PaginaDTO;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Paginación por cursor (keyset): el cursor lleva los valores de la clave de orden
+ * de la última fila entregada, codificados en Base64 para que el cliente lo trate
+ * como un valor opaco.
+ */
+public final class Paginacion {
+    
+    public static final int LIMITE_MAXIMO = 500;
+    
+    private static final String SEPARADOR = "|";
+    
+    private Paginacion() {}
+    
+    public static int limite(int solicitado) {
+        return Math.min(Math.max(solicitado, 1), LIMITE_MAXIMO);
+    }
+    
+    // Se pide una fila de más para saber si existe una página siguiente sin contar el total
+    public static Limit consulta(int limite) {
+        return Limit.of(limite + 1);
+    }
+    
+    public static String codificar(Object... partes) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < partes.length; i++) {
+            if (i > 0) {
+                texto.append(SEPARADOR);
+            }
+            texto.append(partes[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(texto.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static String[] decodificar(String cursor, int numeroPartes) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = texto.split("\\" + SEPARADOR, -1);
+            if (partes.length != numeroPartes) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return partes;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+    
+    public static <T> PaginaDTO<T> pagina(List<T> filas, int limite, Function<T, String> cursor) {
+        if (filas.size() <= limite) {
+            return new PaginaDTO<>(filas, null);
+        }
+        List<T> contenido = filas.subList(0, limite);
+        return new PaginaDTO<>(contenido, cursor.apply(contenido.get(limite - 1)));
+    }
+}
@@ -0,0 +1,23 @@
+-- Esquema base de personas y clientes, equivalente al de BaseDatos.sql.
+-- Sobre una base ya creada con ese script no cambia nada.
+
+CREATE TABLE IF NOT EXISTS personas (
+    persona_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    genero VARCHAR(1) NOT NULL CHECK (genero IN ('M', 'F', 'O')),
+    edad INT NOT NULL CHECK (edad >= 0 AND edad <= 150),
+    identificacion VARCHAR(20) NOT NULL UNIQUE,
+    direccion VARCHAR(200) NOT NULL,
+    telefono VARCHAR(20) NOT NULL,
+    fecha_creacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_actualizacion DATETIME NULL
+);
+
+-- Cliente hereda de persona (herencia JOINED): comparten persona_id
+CREATE TABLE IF NOT EXISTS clientes (
+    persona_id BIGINT PRIMARY KEY,
+    cliente_id BIGINT NULL,
+    contrasena VARCHAR(100) NOT NULL,
+    estado BOOLEAN NOT NULL DEFAULT TRUE,
+    FOREIGN KEY (persona_id) REFERENCES personas(persona_id) ON DELETE CASCADE
+);
@@ -0,0 +1,12 @@
+-- Eventos pendientes de publicar en Kafka (patrón outbox). Se escriben en la misma transacción
+-- que el cambio del cliente y el relay los borra cuando el broker confirma la publicación.
+
+CREATE TABLE IF NOT EXISTS outbox_clientes (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    evento_id VARCHAR(36) NOT NULL,
+    topico VARCHAR(100) NOT NULL,
+    clave VARCHAR(50) NOT NULL,
+    tipo VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    fecha_creacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
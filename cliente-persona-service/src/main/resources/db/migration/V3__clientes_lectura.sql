@@ -0,0 +1,30 @@
+-- Modelo de lectura de clientes: personas y clientes aplanados en una sola tabla, sin la contraseña.
+-- ClienteService la mantiene en la misma transacción que cada alta, cambio o baja; las consultas de
+-- /api/clientes la leen por clave primaria, identificación o estado sin el join de la herencia JOINED.
+
+CREATE TABLE IF NOT EXISTS clientes_lectura (
+    persona_id BIGINT PRIMARY KEY,
+    cliente_id BIGINT NULL,
+    nombre VARCHAR(100) NOT NULL,
+    genero VARCHAR(1) NOT NULL,
+    edad INT NOT NULL,
+    identificacion VARCHAR(20) NOT NULL UNIQUE,
+    direccion VARCHAR(200) NOT NULL,
+    telefono VARCHAR(20) NOT NULL,
+    estado BOOLEAN NOT NULL,
+    fecha_actualizacion DATETIME NULL,
+    FOREIGN KEY (persona_id) REFERENCES personas(persona_id) ON DELETE CASCADE
+);
+
+-- GET /api/clientes/estado/{estado}
+CREATE INDEX idx_clientes_lectura_estado ON clientes_lectura (estado, persona_id);
+
+-- Copia de los clientes existentes. Es repetible: si una instancia de la versión anterior dio de alta
+-- clientes durante el despliegue, volver a ejecutar este INSERT completa solo los que faltan.
+INSERT INTO clientes_lectura (persona_id, cliente_id, nombre, genero, edad, identificacion, direccion,
+                              telefono, estado, fecha_actualizacion)
+SELECT p.persona_id, c.cliente_id, p.nombre, p.genero, p.edad, p.identificacion, p.direccion,
+       p.telefono, c.estado, p.fecha_actualizacion
+FROM personas p
+JOIN clientes c ON c.persona_id = p.persona_id
+WHERE NOT EXISTS (SELECT 1 FROM clientes_lectura l WHERE l.persona_id = p.persona_id);
@@ -0,0 +1,13 @@
+-- Versión por cliente de los eventos de banking.clientes: los consumidores descartan un evento cuya
+-- versión no supere la última aplicada, aunque el relay lo publique fuera de orden.
+
+CREATE TABLE IF NOT EXISTS versiones_eventos_clientes (
+    agregado_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+-- Los clientes existentes parten de 0: sus eventos anteriores no llevaban versión
+INSERT INTO versiones_eventos_clientes (agregado_id, version)
+SELECT c.persona_id, 0
+FROM clientes c
+WHERE NOT EXISTS (SELECT 1 FROM versiones_eventos_clientes v WHERE v.agregado_id = c.persona_id);
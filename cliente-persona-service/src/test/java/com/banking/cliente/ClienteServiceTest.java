@@ -1,19 +1,29 @@
 package com.banking.cliente;
 
 import com.banking.cliente.model.Cliente;
+import com.banking.cliente.model.ClienteLectura;
+import com.banking.cliente.model.dto.ClienteResumen;
+import com.banking.cliente.model.dto.PaginaDTO;
+import com.banking.cliente.repository.ClienteLecturaRepository;
 import com.banking.cliente.repository.ClienteRepository;
 import com.banking.cliente.service.ClienteService;
+import com.banking.cliente.service.IndiceClientes;
+import com.banking.cliente.service.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -23,6 +33,18 @@ class ClienteServiceTest {
     @Mock
     private ClienteRepository clienteRepository;
     
+    @Mock
+    private ClienteLecturaRepository clienteLecturaRepository;
+    
+    @Mock
+    private OutboxService outboxService;
+    
+    @Mock
+    private IndiceClientes indiceClientes;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
     @InjectMocks
     private ClienteService clienteService;
     
@@ -57,6 +79,10 @@ class ClienteServiceTest {
         assertEquals(cliente.getIdentificacion(), result.getIdentificacion());
         verify(clienteRepository, times(1)).existsByIdentificacion(cliente.getIdentificacion());
         verify(clienteRepository, times(1)).save(cliente);
+        verify(clienteLecturaRepository, times(1)).save(argThat(lectura ->
+                lectura.isNew() && cliente.getIdentificacion().equals(lectura.getIdentificacion())));
+        verify(outboxService, times(1)).registrarCliente(OutboxService.CLIENTE_CREADO, cliente);
+        verify(indiceClientes, times(1)).indexarAlConfirmar(any());
     }
     
     @Test
@@ -73,33 +99,54 @@ class ClienteServiceTest {
                     exception.getMessage());
         verify(clienteRepository, times(1)).existsByIdentificacion(cliente.getIdentificacion());
         verify(clienteRepository, never()).save(any(Cliente.class));
+        verifyNoInteractions(clienteLecturaRepository, outboxService, indiceClientes);
     }
     
     @Test
     void testFindById_Success() {
         // Given
-        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(clienteLecturaRepository.findById(1L)).thenReturn(Optional.of(ClienteLectura.desde(cliente)));
         
         // When
-        Optional<Cliente> result = clienteService.findById(1L);
+        Optional<ClienteLectura> result = clienteService.findById(1L);
         
-        // Then
+        // Then - se lee del modelo de lectura, sin pasar por la herencia JOINED
         assertTrue(result.isPresent());
         assertEquals(cliente.getClienteId(), result.get().getClienteId());
-        verify(clienteRepository, times(1)).findById(1L);
+        verify(clienteLecturaRepository, times(1)).findById(1L);
+        verifyNoInteractions(clienteRepository);
     }
     
     @Test
     void testFindById_NotFound() {
         // Given
-        when(clienteRepository.findById(999L)).thenReturn(Optional.empty());
+        when(clienteLecturaRepository.findById(999L)).thenReturn(Optional.empty());
         
         // When
-        Optional<Cliente> result = clienteService.findById(999L);
+        Optional<ClienteLectura> result = clienteService.findById(999L);
         
         // Then
         assertFalse(result.isPresent());
-        verify(clienteRepository, times(1)).findById(999L);
+        verify(clienteLecturaRepository, times(1)).findById(999L);
+        verify(clienteLecturaRepository, never()).save(any());
+    }
+    
+    @Test
+    void testFindById_SinFilaDeLecturaLaCompletaDesdeElLadoDeEscritura() {
+        // Given - cliente creado por una instancia anterior a clientes_lectura
+        cliente.setId(5L);
+        when(clienteLecturaRepository.findById(5L)).thenReturn(Optional.empty());
+        when(clienteRepository.findById(5L)).thenReturn(Optional.of(cliente));
+        
+        // When
+        Optional<ClienteLectura> result = clienteService.findById(5L);
+        
+        // Then - se responde y la fila de lectura queda creada para las próximas consultas
+        assertTrue(result.isPresent());
+        assertEquals(cliente.getIdentificacion(), result.get().getIdentificacion());
+        verify(clienteLecturaRepository, times(1)).save(argThat(lectura ->
+                lectura.isNew() && Long.valueOf(5L).equals(lectura.getId())));
+        verify(indiceClientes, times(1)).indexarAlConfirmar(result.get());
     }
     
     @Test
@@ -109,17 +156,23 @@ class ClienteServiceTest {
         clienteActualizado.setNombre("Juan Carlos Pérez");
         clienteActualizado.setIdentificacion("12345678");
         
+        ClienteLectura lectura = ClienteLectura.desde(cliente);
+        
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
-        when(clienteRepository.existsByIdentificacion(anyString())).thenReturn(false);
         when(clienteRepository.save(any(Cliente.class))).thenReturn(cliente);
+        when(clienteLecturaRepository.findById(1L)).thenReturn(Optional.of(lectura));
+        when(clienteLecturaRepository.save(lectura)).thenReturn(lectura);
         
         // When
         Cliente result = clienteService.update(1L, clienteActualizado);
         
-        // Then
+        // Then - la fila de lectura existente recibe los datos nuevos
         assertNotNull(result);
         verify(clienteRepository, times(1)).findById(1L);
         verify(clienteRepository, times(1)).save(any(Cliente.class));
+        verify(clienteLecturaRepository, times(1)).save(lectura);
+        verify(indiceClientes, times(1)).indexarAlConfirmar(lectura);
+        assertEquals("Juan Carlos Pérez", lectura.getNombre());
     }
     
     @Test
@@ -148,6 +201,9 @@ class ClienteServiceTest {
         // Then
         verify(clienteRepository, times(1)).existsById(1L);
         verify(clienteRepository, times(1)).deleteById(1L);
+        verify(clienteLecturaRepository, times(1)).deleteById(1L);
+        verify(outboxService, times(1)).registrarClienteEliminado(1L);
+        verify(indiceClientes, times(1)).eliminarAlConfirmar(1L);
     }
     
     @Test
@@ -163,5 +219,66 @@ class ClienteServiceTest {
         assertEquals("Cliente no encontrado con ID: 999", exception.getMessage());
         verify(clienteRepository, times(1)).existsById(999L);
         verify(clienteRepository, never()).deleteById(anyLong());
+        verify(clienteLecturaRepository, never()).deleteById(anyLong());
+        verify(indiceClientes, never()).eliminarAlConfirmar(anyLong());
+    }
+    
+    @Test
+    void testListar_DevuelveCursorCuandoHayMasResultados() {
+        // Given - el repositorio devuelve una fila de más: hay página siguiente
+        ClienteResumen primero = mock(ClienteResumen.class);
+        ClienteResumen segundo = mock(ClienteResumen.class);
+        ClienteResumen tercero = mock(ClienteResumen.class);
+        when(segundo.getId()).thenReturn(2L);
+        when(clienteLecturaRepository.findPaginaPosteriorA(eq(0L), any())).thenReturn(List.of(primero, segundo, tercero));
+        
+        // When
+        PaginaDTO<ClienteResumen> pagina = clienteService.listar(null, 2);
+        
+        // Then
+        assertEquals(2, pagina.getContenido().size());
+        assertNotNull(pagina.getSiguiente());
+        
+        // La página siguiente continúa después del último cliente entregado
+        when(clienteLecturaRepository.findPaginaPosteriorA(eq(2L), any())).thenReturn(List.of(tercero));
+        PaginaDTO<ClienteResumen> siguiente = clienteService.listar(pagina.getSiguiente(), 2);
+        assertEquals(1, siguiente.getContenido().size());
+        assertNull(siguiente.getSiguiente());
+    }
+    
+    @Test
+    void testBuscar_DevuelveLosClientesEnElOrdenDelIndice() {
+        // Given - el índice ordena por relevancia; findAllById no garantiza ningún orden
+        ClienteLectura primero = ClienteLectura.desde(cliente);
+        primero.setId(7L);
+        ClienteLectura segundo = ClienteLectura.desde(cliente);
+        segundo.setId(3L);
+        when(indiceClientes.isListo()).thenReturn(true);
+        when(indiceClientes.buscar("juan", null, 20)).thenReturn(new PaginaDTO<>(List.of(7L, 3L, 5L), "cursor"));
+        when(clienteLecturaRepository.findAllById(List.of(7L, 3L, 5L))).thenReturn(List.of(segundo, primero));
+        
+        // When
+        PaginaDTO<ClienteLectura> pagina = clienteService.buscar("juan", null, 20);
+        
+        // Then - el id 5 ya no existe en la base y se omite
+        assertEquals(List.of(primero, segundo), pagina.getContenido());
+        assertEquals("cursor", pagina.getSiguiente());
+        verify(clienteLecturaRepository, never()).findByNombreContaining(anyString(), any());
+    }
+    
+    @Test
+    void testBuscar_IndiceEnCargaBuscaEnLaBase() {
+        // Given
+        when(indiceClientes.isListo()).thenReturn(false);
+        when(clienteLecturaRepository.findByNombreContaining(eq("Juan"), any()))
+                .thenReturn(List.of(ClienteLectura.desde(cliente)));
+        
+        // When
+        PaginaDTO<ClienteLectura> pagina = clienteService.buscar("Juan", null, 20);
+        
+        // Then - una sola página, sin cursor
+        assertEquals(1, pagina.getContenido().size());
+        assertNull(pagina.getSiguiente());
+        verify(indiceClientes, never()).buscar(anyString(), any(), anyInt());
     }
 }
@@ -0,0 +1,145 @@
+package com.banking.cliente;
+
+import com.banking.cliente.model.dto.ClienteResumen;
+import com.banking.cliente.model.dto.PaginaDTO;
+import com.banking.cliente.repository.ClienteLecturaRepository;
+import com.banking.cliente.service.IndiceClientes;
+import com.banking.cliente.service.OutboxService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceClientesTest {
+    
+    @TempDir
+    Path directorio;
+    
+    private IndiceClientes indice;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        // Given - carga inicial de tres clientes y un alta posterior
+        List<ClienteResumen> clientes = List.of(
+                resumen(1L, "Juan Pérez", "12345678", "3001234567"),
+                resumen(2L, "María González", "87654321", "3109876543"),
+                resumen(3L, "María Fernanda López", "11223344", "(310) 555-0101"));
+        ClienteLecturaRepository repositorio = mock(ClienteLecturaRepository.class);
+        when(repositorio.findPaginaPosteriorA(eq(0L), any())).thenReturn(clientes);
+        
+        indice = new IndiceClientes(directorio.toString(), 500, 100);
+        ReflectionTestUtils.setField(indice, "clienteLecturaRepository", repositorio);
+        ReflectionTestUtils.setField(indice, "objectMapper", new ObjectMapper());
+        indice.abrir();
+        indice.cargar();
+        indice.indexar(4L, "Pedro Juanes", "99887766", "3205550000");
+        indice.refrescar();
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        indice.cerrar();
+    }
+    
+    @Test
+    void testCarga_DejaElIndiceListo() {
+        assertTrue(indice.isListo());
+        assertEquals(List.of(2L, 3L), indice.buscar("maría", null, 10).getContenido().stream().sorted().toList());
+    }
+    
+    @Test
+    void testBuscar_PorPrefijoSinTildesNiMayusculas() {
+        // "jua" es prefijo de Juan y de Juanes; las dos palabras de "maria lo" deben aparecer
+        assertEquals(List.of(1L, 4L), indice.buscar("JUA", null, 10).getContenido().stream().sorted().toList());
+        assertEquals(List.of(3L), indice.buscar("maria lo", null, 10).getContenido());
+    }
+    
+    @Test
+    void testBuscar_ToleraErroresDeTipeo() {
+        assertEquals(List.of(1L), indice.buscar("Peres", null, 10).getContenido());
+        assertEquals(List.of(2L), indice.buscar("Gonzales", null, 10).getContenido());
+    }
+    
+    @Test
+    void testBuscar_PorIdentificacionYTelefono() {
+        assertEquals(List.of(2L), indice.buscar("87654321", null, 10).getContenido());
+        assertEquals(List.of(1L), indice.buscar("1234", null, 10).getContenido());
+        // El teléfono se compara solo por sus dígitos
+        assertEquals(List.of(3L), indice.buscar("310 555", null, 10).getContenido());
+    }
+    
+    @Test
+    void testBuscar_CoincidenciaExactaPrimero() {
+        // Juan (exacto) antes que Juanes (prefijo)
+        assertEquals(List.of(1L, 4L), indice.buscar("juan", null, 10).getContenido());
+    }
+    
+    @Test
+    void testBuscar_PaginaConCursor() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        
+        // When - de a un resultado por página
+        PaginaDTO<Long> pagina = indice.buscar("maria", null, 1);
+        ids.addAll(pagina.getContenido());
+        assertNotNull(pagina.getSiguiente());
+        pagina = indice.buscar("maria", pagina.getSiguiente(), 1);
+        ids.addAll(pagina.getContenido());
+        
+        // Then
+        assertNull(pagina.getSiguiente());
+        assertEquals(List.of(2L, 3L), ids.stream().sorted().toList());
+        assertThrows(IllegalArgumentException.class, () -> indice.buscar("maria", "no-es-un-cursor", 1));
+    }
+    
+    @Test
+    void testActualizarYEliminar() {
+        // When
+        indice.indexar(1L, "Juan Carlos Pérez", "12345678", "3001234567");
+        indice.eliminar(2L);
+        indice.refrescar();
+        
+        // Then - la actualización reemplaza el documento y la baja lo quita
+        assertEquals(List.of(1L), indice.buscar("carlos", null, 10).getContenido());
+        assertEquals(List.of(1L), indice.buscar("12345678", null, 10).getContenido());
+        assertEquals(List.of(3L), indice.buscar("maria", null, 10).getContenido());
+    }
+    
+    @Test
+    void testEvento_AtrasadoNoPisaUnCambioPosterior() {
+        // When - la versión 3 del cliente llega antes que la 2
+        indice.recibirEvento(evento(1L, 3, "Juan Carlos Pérez"));
+        indice.recibirEvento(evento(1L, 2, "Juan Alberto Pérez"));
+        indice.refrescar();
+        
+        // Then
+        assertEquals(List.of(1L), indice.buscar("carlos", null, 10).getContenido());
+        assertTrue(indice.buscar("alberto", null, 10).getContenido().isEmpty());
+    }
+    
+    private static String evento(Long id, long version, String nombre) {
+        return "{\"eventoId\":\"e" + version + "\",\"tipo\":\"" + OutboxService.CLIENTE_ACTUALIZADO + "\",\"agregadoId\":" + id
+                + ",\"version\":" + version + ",\"datos\":{\"nombre\":\"" + nombre + "\",\"identificacion\":\"12345678\"}}";
+    }
+    
+    private static ClienteResumen resumen(Long id, String nombre, String identificacion, String telefono) {
+        ClienteResumen resumen = mock(ClienteResumen.class);
+        when(resumen.getId()).thenReturn(id);
+        when(resumen.getNombre()).thenReturn(nombre);
+        when(resumen.getIdentificacion()).thenReturn(identificacion);
+        when(resumen.getTelefono()).thenReturn(telefono);
+        return resumen;
+    }
+}
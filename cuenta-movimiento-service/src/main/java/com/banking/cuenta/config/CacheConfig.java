@@ -0,0 +1,10 @@
+package com.banking.cuenta.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Activa el CacheManager de Caffeine configurado en spring.cache y el registro de sus métricas
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
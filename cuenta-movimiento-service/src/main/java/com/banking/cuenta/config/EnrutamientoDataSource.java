@@ -0,0 +1,81 @@
+package com.banking.cuenta.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// DataSource que usan JPA y Flyway. Orden de decisión al pedir la conexión física:
+// 1. los hilos de reportes usan su propio pool y no compiten con los movimientos;
+// 2. un destino fijado en el hilo (lectura propia tras una escritura) se respeta;
+// 3. con réplica configurada, las transacciones readOnly leen de ella;
+// 4. todo lo demás va al pool principal.
+// Va detrás de un LazyConnectionDataSourceProxy: la conexión se pide en la primera sentencia,
+// cuando la marca readOnly de la transacción ya está puesta. Nada que pida la conexión física al
+// abrirla puede envolver a ese proxy (por eso las trazas JDBC instrumentan los pools, no este DataSource).
+public class EnrutamientoDataSource extends AbstractRoutingDataSource {
+    
+    public static final String PRINCIPAL = "principal";
+    public static final String REPORTES = "reportes";
+    public static final String REPLICA = "replica";
+    
+    private static final ThreadLocal<String> DESTINO = new ThreadLocal<>();
+    
+    private final boolean conReplica;
+    
+    public EnrutamientoDataSource(DataSource principal, DataSource reportes, DataSource replica) {
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(PRINCIPAL, principal);
+        destinos.put(REPORTES, reportes);
+        if (replica != null) {
+            destinos.put(REPLICA, replica);
+        }
+        this.conReplica = replica != null;
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(principal);
+    }
+    
+    // Toda transacción que la tarea abra en este hilo usa el pool de reportes
+    public static void enPoolDeReportes(Runnable tarea) {
+        String anterior = fijarDestino(REPORTES);
+        try {
+            tarea.run();
+        } finally {
+            restaurarDestino(anterior);
+        }
+    }
+    
+    // Devuelve el destino anterior, para restaurarlo con restaurarDestino en un finally
+    public static String fijarDestino(String destino) {
+        String anterior = DESTINO.get();
+        DESTINO.set(destino);
+        return anterior;
+    }
+    
+    public static void restaurarDestino(String anterior) {
+        if (anterior == null) {
+            DESTINO.remove();
+        } else {
+            DESTINO.set(anterior);
+        }
+    }
+    
+    public static String destinoActual() {
+        String destino = DESTINO.get();
+        return destino != null ? destino : PRINCIPAL;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String destino = DESTINO.get();
+        if (destino != null) {
+            return destino;
+        }
+        if (conReplica && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return REPLICA;
+        }
+        return PRINCIPAL;
+    }
+}
@@ -0,0 +1,59 @@
+package com.banking.cuenta.config;
+
+import com.banking.cuenta.service.IdempotenciaService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Caché propia para las claves de idempotencia: cada entrada vence cuando vence su fila, no el plazo de
+// spring.cache ni ttl-horas contados desde que se cargó (una clave leída de la tabla ya gastó parte del suyo)
+@Configuration
+@EnableScheduling
+public class IdempotenciaConfig {
+    
+    @Value("${banking.idempotencia.max-claves:100000}")
+    private long maxClaves;
+    
+    @Value("${banking.idempotencia.ttl-horas:24}")
+    private long ttlHoras;
+    
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> cacheIdempotencia() {
+        return cacheManager -> cacheManager.registerCustomCache(IdempotenciaService.CACHE,
+                Caffeine.newBuilder()
+                        .maximumSize(maxClaves)
+                        .expireAfter(new Expiry<Object, Object>() {
+                            @Override
+                            public long expireAfterCreate(Object clave, Object valor, long ahora) {
+                                return restante(valor);
+                            }
+                            
+                            @Override
+                            public long expireAfterUpdate(Object clave, Object valor, long ahora, long restante) {
+                                return restante(valor);
+                            }
+                            
+                            @Override
+                            public long expireAfterRead(Object clave, Object valor, long ahora, long restante) {
+                                return restante;
+                            }
+                        })
+                        .recordStats()
+                        .build());
+    }
+    
+    private long restante(Object valor) {
+        if (valor instanceof IdempotenciaService.ClaveRecordada recordada) {
+            return Math.max(0, Duration.between(LocalDateTime.now(), recordada.getFechaExpiracion()).toNanos());
+        }
+        return Duration.ofHours(ttlHoras).toNanos();
+    }
+}
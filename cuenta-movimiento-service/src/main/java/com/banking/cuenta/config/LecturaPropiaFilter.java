@@ -0,0 +1,80 @@
+package com.banking.cuenta.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Lectura de lo propio con réplica: quien acaba de escribir (por ejemplo, registrar un movimiento)
+// lee del pool principal durante la ventana, así no ve un saldo anterior por el retraso de la réplica.
+// El cliente se identifica como en el gateway: X-API-Key, si no X-Cliente-Id, si no la IP de origen.
+// La ventana es por instancia del servicio.
+@Component
+@ConditionalOnProperty(prefix = "banking.replica.datasource.hikari", name = "jdbc-url")
+public class LecturaPropiaFilter extends OncePerRequestFilter {
+    
+    public static final String CABECERA_API_KEY = "X-API-Key";
+    public static final String CABECERA_CLIENTE = "X-Cliente-Id";
+    
+    private final Cache<String, Boolean> escriturasRecientes;
+    
+    public LecturaPropiaFilter(@Value("${banking.replica.ventana-lectura-propia-ms:5000}") long ventanaMs,
+                               @Value("${banking.replica.max-clientes:100000}") long maxClientes) {
+        this.escriturasRecientes = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ventanaMs))
+                .maximumSize(maxClientes)
+                .build();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String cliente = cliente(request);
+        boolean escritura = !HttpMethod.GET.matches(request.getMethod())
+                && !HttpMethod.HEAD.matches(request.getMethod())
+                && !HttpMethod.OPTIONS.matches(request.getMethod());
+        
+        if (escritura || escriturasRecientes.getIfPresent(cliente) == null) {
+            chain.doFilter(request, response);
+        } else {
+            String anterior = EnrutamientoDataSource.fijarDestino(EnrutamientoDataSource.PRINCIPAL);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                EnrutamientoDataSource.restaurarDestino(anterior);
+            }
+        }
+        
+        // Cuenta desde que la escritura terminó, no desde que empezó
+        if (escritura && response.getStatus() < 400) {
+            escriturasRecientes.put(cliente, Boolean.TRUE);
+        }
+    }
+    
+    static String cliente(HttpServletRequest request) {
+        String apiKey = request.getHeader(CABECERA_API_KEY);
+        if (apiKey != null && !apiKey.isBlank()) {
+            return "key:" + apiKey;
+        }
+        String clienteId = request.getHeader(CABECERA_CLIENTE);
+        if (clienteId != null && !clienteId.isBlank()) {
+            return "cliente:" + clienteId;
+        }
+        // Detrás del gateway la IP del cliente llega en X-Forwarded-For
+        String reenviado = request.getHeader("X-Forwarded-For");
+        if (reenviado != null && !reenviado.isBlank()) {
+            return "ip:" + reenviado.split(",")[0].trim();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,16 @@
+package com.banking.cuenta.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Habilita @Timed en los servicios; las métricas HTTP, de Hikari y de repositorios las registra Spring Boot
+@Configuration
+public class MetricasConfig {
+    
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
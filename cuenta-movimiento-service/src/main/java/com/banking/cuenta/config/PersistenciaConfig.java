@@ -0,0 +1,72 @@
+package com.banking.cuenta.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+import javax.sql.DataSource;
+
+// JDBC/JPA y R2DBC conviven: las escrituras y el libro mayor siguen en JPA y solo la ruta de lectura
+// reactiva usa R2DBC. Spring Boot omite el DataSource cuando hay un ConnectionFactory de R2DBC y con
+// dos gestores de transacciones @Transactional no sabría cuál usar, por eso ambos se declaran aquí.
+// El DataSource principal enruta entre el pool de los movimientos, el de los reportes y, si está
+// configurada, la réplica de lectura (ver EnrutamientoDataSource).
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class PersistenciaConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource principalDataSource(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    // Pool aparte para los reportes, de solo lectura. Por defecto va a la misma base;
+    // banking.reportes.datasource.hikari.jdbc-url lo lleva a una réplica.
+    @Bean
+    @ConfigurationProperties("banking.reportes.datasource.hikari")
+    public HikariDataSource reportesDataSource(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    // Réplica de lectura opcional: solo existe si se define banking.replica.datasource.hikari.jdbc-url.
+    // Usuario y clave son los del datasource principal salvo que la réplica defina los suyos.
+    @Bean
+    @ConditionalOnProperty(prefix = "banking.replica.datasource.hikari", name = "jdbc-url")
+    @ConfigurationProperties("banking.replica.datasource.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("principalDataSource") DataSource principal,
+                                 @Qualifier("reportesDataSource") DataSource reportes,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica) {
+        EnrutamientoDataSource enrutamiento = new EnrutamientoDataSource(principal, reportes, replica.getIfAvailable());
+        enrutamiento.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(enrutamiento);
+    }
+    
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                    ObjectProvider<TransactionManagerCustomizers> personalizaciones) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        // Sobrecarga con TransactionManager: la de PlatformTransactionManager está deprecada
+        personalizaciones.ifAvailable(personalizacion -> personalizacion.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+}
@@ -1,7 +1,11 @@
 package com.banking.cuenta.controller;
 
 import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.SaldoCuenta;
+import com.banking.cuenta.model.dto.CuentaResumen;
+import com.banking.cuenta.model.dto.PaginaDTO;
 import com.banking.cuenta.service.CuentaService;
+import com.banking.cuenta.service.SaldoFranjaService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,11 +23,18 @@ public class CuentaController {
     @Autowired
     private CuentaService cuentaService;
     
+    @Autowired
+    private SaldoFranjaService saldoFranjaService;
+    
     @GetMapping
-    public ResponseEntity<List<Cuenta>> getAllCuentas() {
+    public ResponseEntity<PaginaDTO<CuentaResumen>> getAllCuentas(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limite", defaultValue = "50") int limite) {
         try {
-            List<Cuenta> cuentas = cuentaService.findAll();
+            PaginaDTO<CuentaResumen> cuentas = cuentaService.listar(cursor, limite);
             return ResponseEntity.ok(cuentas);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -97,6 +108,20 @@ public class CuentaController {
         }
     }
     
+    // Modo cuenta caliente: los depósitos se reparten entre "cantidad" franjas; 0 lo desactiva
+    @PutMapping("/{id}/franjas")
+    public ResponseEntity<?> configurarFranjas(@PathVariable Long id, @RequestParam int cantidad) {
+        try {
+            SaldoCuenta saldoCuenta = saldoFranjaService.configurar(id, cantidad);
+            return ResponseEntity.ok(saldoCuenta);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                               .body("Error interno del servidor");
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteCuenta(@PathVariable Long id) {
         try {
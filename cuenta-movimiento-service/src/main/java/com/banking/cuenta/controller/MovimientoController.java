@@ -1,16 +1,22 @@
 package com.banking.cuenta.controller;
 
 import com.banking.cuenta.model.Movimiento;
-import com.banking.cuenta.model.dto.EstadoCuentaDTO;
+import com.banking.cuenta.model.dto.MovimientoResumen;
+import com.banking.cuenta.model.dto.PaginaDTO;
+import com.banking.cuenta.model.dto.ResultadoLoteDTO;
+import com.banking.cuenta.service.IdempotenciaService;
+import com.banking.cuenta.service.MovimientoLoteService;
 import com.banking.cuenta.service.MovimientoService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,11 +28,21 @@ public class MovimientoController {
     @Autowired
     private MovimientoService movimientoService;
     
+    @Autowired
+    private MovimientoLoteService movimientoLoteService;
+    
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+    
     @GetMapping
-    public ResponseEntity<List<Movimiento>> getAllMovimientos() {
+    public ResponseEntity<PaginaDTO<MovimientoResumen>> getAllMovimientos(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limite", defaultValue = "50") int limite) {
         try {
-            List<Movimiento> movimientos = movimientoService.findAll();
+            PaginaDTO<MovimientoResumen> movimientos = movimientoService.listar(cursor, limite);
             return ResponseEntity.ok(movimientos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -44,30 +60,46 @@ public class MovimientoController {
     }
     
     @GetMapping("/cuenta/{cuentaId}")
-    public ResponseEntity<List<Movimiento>> getMovimientosByCuentaId(@PathVariable Long cuentaId) {
+    public ResponseEntity<PaginaDTO<MovimientoResumen>> getMovimientosByCuentaId(
+            @PathVariable Long cuentaId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limite", defaultValue = "50") int limite) {
         try {
-            List<Movimiento> movimientos = movimientoService.findByCuentaId(cuentaId);
+            PaginaDTO<MovimientoResumen> movimientos = movimientoService.listarPorCuenta(cuentaId, cursor, limite, false);
             return ResponseEntity.ok(movimientos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
     @GetMapping("/cuenta/{cuentaId}/ordenados")
-    public ResponseEntity<List<Movimiento>> getMovimientosByCuentaIdOrdered(@PathVariable Long cuentaId) {
+    public ResponseEntity<PaginaDTO<MovimientoResumen>> getMovimientosByCuentaIdOrdered(
+            @PathVariable Long cuentaId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limite", defaultValue = "50") int limite) {
         try {
-            List<Movimiento> movimientos = movimientoService.findByCuentaIdOrderByFechaDesc(cuentaId);
+            PaginaDTO<MovimientoResumen> movimientos = movimientoService.listarPorCuenta(cuentaId, cursor, limite, true);
             return ResponseEntity.ok(movimientos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    // Con Idempotency-Key los reintentos del cliente devuelven el movimiento original sin volver a aplicarlo
     @PostMapping
-    public ResponseEntity<?> createMovimiento(@Valid @RequestBody Movimiento movimiento) {
+    public ResponseEntity<?> createMovimiento(@Valid @RequestBody Movimiento movimiento,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia) {
         try {
-            Movimiento nuevoMovimiento = movimientoService.save(movimiento);
+            Movimiento nuevoMovimiento = claveIdempotencia != null
+                    ? idempotenciaService.registrar(claveIdempotencia, movimiento)
+                    : movimientoService.save(movimiento);
             return ResponseEntity.status(HttpStatus.CREATED).body(nuevoMovimiento);
+        } catch (IdempotenciaService.ClaveReutilizadaException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body("Error: " + e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         } catch (Exception e) {
@@ -76,11 +108,11 @@ public class MovimientoController {
         }
     }
     
-    @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteMovimiento(@PathVariable Long id) {
+    @PostMapping("/batch")
+    public ResponseEntity<?> createMovimientosBatch(@RequestBody List<Movimiento> movimientos) {
         try {
-            movimientoService.deleteById(id);
-            return ResponseEntity.ok().body("Movimiento eliminado exitosamente");
+            List<ResultadoLoteDTO> resultados = movimientoLoteService.procesar(movimientos);
+            return ResponseEntity.ok(resultados);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         } catch (Exception e) {
@@ -89,17 +121,23 @@ public class MovimientoController {
         }
     }
     
-    @GetMapping("/reportes")
-    public ResponseEntity<List<EstadoCuentaDTO>> generarEstadoCuenta(
-            @RequestParam("clienteId") Long clienteId,
-            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
-            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin) {
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createMovimientosBatchNdjson(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        movimientoLoteService.procesarNdjson(request.getInputStream(), response.getOutputStream());
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteMovimiento(@PathVariable Long id) {
         try {
-            List<EstadoCuentaDTO> estadosCuenta = movimientoService.generarEstadoCuenta(clienteId, fechaInicio, fechaFin);
-            return ResponseEntity.ok(estadosCuenta);
+            movimientoService.deleteById(id);
+            return ResponseEntity.ok().body("Movimiento eliminado exitosamente");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                               .body(null);
+                               .body("Error interno del servidor");
         }
     }
 }
@@ -0,0 +1,40 @@
+package com.banking.cuenta.controller;
+
+import com.banking.cuenta.model.dto.LineaEstadoCuentaDTO;
+import com.banking.cuenta.model.dto.MovimientoLecturaDTO;
+import com.banking.cuenta.service.MovimientoLecturaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+// Lecturas largas en NDJSON sobre R2DBC: cada elemento se escribe cuando el cliente lo puede recibir
+@RestController
+@RequestMapping("/api/movimientos/flujo")
+@CrossOrigin(origins = "*")
+public class MovimientoLecturaController {
+    
+    @Autowired
+    private MovimientoLecturaService movimientoLecturaService;
+    
+    @GetMapping(value = "/cuenta/{cuentaId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MovimientoLecturaDTO> getMovimientosByCuentaId(@PathVariable Long cuentaId) {
+        return movimientoLecturaService.findByCuentaId(cuentaId, false);
+    }
+    
+    @GetMapping(value = "/cuenta/{cuentaId}/ordenados", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MovimientoLecturaDTO> getMovimientosByCuentaIdOrderByFecha(@PathVariable Long cuentaId) {
+        return movimientoLecturaService.findByCuentaId(cuentaId, true);
+    }
+    
+    @GetMapping(value = "/reportes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<LineaEstadoCuentaDTO> generarEstadoCuenta(
+            @RequestParam("clienteId") Long clienteId,
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin) {
+        return movimientoLecturaService.generarEstadoCuenta(clienteId, fechaInicio, fechaFin);
+    }
+}
@@ -0,0 +1,139 @@
+package com.banking.cuenta.controller;
+
+import com.banking.cuenta.model.dto.TrabajoReporteDTO;
+import com.banking.cuenta.service.ReporteService;
+import com.banking.cuenta.service.ReportesEjecutor;
+import com.banking.cuenta.service.TrabajoReporteService;
+import com.banking.cuenta.util.EnvioArchivo;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+
+// Estado de cuenta en el pool de reportes: el hilo de Tomcat solo encola la tarea y el reporte se
+// escribe desde un hilo "reportes-" con conexiones del pool de reportes. Con el pool lleno se
+// responde 503 y el cliente reintenta más tarde. /api/movimientos/reportes queda por compatibilidad.
+// Los períodos largos van por /api/reportes/jobs, que no depende del timeout del gateway.
+@RestController
+@CrossOrigin(origins = "*")
+public class ReporteController {
+    
+    private static final int TAMANO_BLOQUE = 8192;
+    private static final String TIPO_GZIP = "application/gzip";
+    
+    @Autowired
+    private ReporteService reporteService;
+    
+    @Autowired
+    private ReportesEjecutor reportesEjecutor;
+    
+    @Autowired
+    private TrabajoReporteService trabajoReporteService;
+    
+    @Value("${banking.reportes.timeout-ms:120000}")
+    private long timeoutMs;
+    
+    @GetMapping({"/api/reportes", "/api/reportes/estado-cuenta", "/api/movimientos/reportes"})
+    public ResponseEntity<ResponseBodyEmitter> generarEstadoCuenta(
+            @RequestParam("clienteId") Long clienteId,
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin) {
+        ResponseBodyEmitter emisor = new ResponseBodyEmitter(timeoutMs);
+        try {
+            reportesEjecutor.ejecutar(() -> {
+                try (OutputStream salida = new BufferedOutputStream(new SalidaEmisor(emisor), TAMANO_BLOQUE)) {
+                    reporteService.escribirEstadoCuenta(clienteId, fechaInicio, fechaFin, salida);
+                    emisor.complete();
+                } catch (IOException | RuntimeException e) {
+                    emisor.completeWithError(e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                               .header(HttpHeaders.RETRY_AFTER, "5")
+                               .build();
+        }
+        return ResponseEntity.ok()
+                           .contentType(MediaType.APPLICATION_JSON)
+                           .body(emisor);
+    }
+    
+    // Períodos largos: el reporte se genera en segundo plano y se descarga cuando está listo
+    @PostMapping("/api/reportes/jobs")
+    public ResponseEntity<?> crearTrabajo(
+            @RequestParam("clienteId") Long clienteId,
+            @RequestParam("fechaInicio") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam("fechaFin") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(value = "formato", defaultValue = TrabajoReporteService.JSON) String formato) {
+        try {
+            TrabajoReporteDTO trabajo = trabajoReporteService.crear(clienteId, fechaInicio, fechaFin, formato);
+            return ResponseEntity.accepted()
+                               .location(URI.create("/api/reportes/jobs/" + trabajo.getId()))
+                               .body(trabajo);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                               .header(HttpHeaders.RETRY_AFTER, "5")
+                               .build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
+    // Terminado: el archivo gzip (admite Range para reanudar la descarga). Si no, el estado del trabajo.
+    @GetMapping("/api/reportes/jobs/{id}")
+    public ResponseEntity<TrabajoReporteDTO> descargarTrabajo(@PathVariable String id, HttpServletRequest request,
+                                                              HttpServletResponse response) throws IOException {
+        Optional<TrabajoReporteDTO> encontrado = trabajoReporteService.obtener(id);
+        if (encontrado.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        TrabajoReporteDTO trabajo = encontrado.get();
+        if (TrabajoReporteDTO.TERMINADO.equals(trabajo.getEstado())) {
+            EnvioArchivo.enviar(request, response, trabajoReporteService.archivo(trabajo), TIPO_GZIP,
+                    "estado-cuenta-" + trabajo.getId() + "." + trabajo.getFormato() + ".gz", "\"" + trabajo.getId() + "\"");
+            return null;
+        }
+        if (TrabajoReporteDTO.FALLIDO.equals(trabajo.getEstado())) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(trabajo);
+        }
+        return ResponseEntity.accepted()
+                           .header(HttpHeaders.RETRY_AFTER, "2")
+                           .body(trabajo);
+    }
+    
+    // Cada bloque que llena el BufferedOutputStream se envía al cliente tal cual
+    private static class SalidaEmisor extends OutputStream {
+        
+        private final ResponseBodyEmitter emisor;
+        
+        SalidaEmisor(ResponseBodyEmitter emisor) {
+            this.emisor = emisor;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            emisor.send(Arrays.copyOfRange(b, off, off + len), MediaType.APPLICATION_JSON);
+        }
+    }
+}
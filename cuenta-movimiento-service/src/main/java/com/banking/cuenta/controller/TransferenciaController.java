@@ -0,0 +1,32 @@
+package com.banking.cuenta.controller;
+
+import com.banking.cuenta.model.dto.ResultadoTransferenciaDTO;
+import com.banking.cuenta.model.dto.TransferenciaDTO;
+import com.banking.cuenta.service.TransferenciaService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/transferencias")
+@CrossOrigin(origins = "*")
+public class TransferenciaController {
+    
+    @Autowired
+    private TransferenciaService transferenciaService;
+    
+    @PostMapping
+    public ResponseEntity<?> createTransferencia(@Valid @RequestBody TransferenciaDTO transferencia) {
+        try {
+            ResultadoTransferenciaDTO resultado = transferenciaService.transferir(transferencia);
+            return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                               .body("Error interno del servidor");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.banking.cuenta.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Copia local de los datos del cliente que necesita este servicio, alimentada por los eventos de banking.clientes
+@Entity
+@Table(name = "clientes_replica")
+public class ClienteReplica {
+    
+    // Id de persona del servicio de clientes, el mismo que Cuenta.clienteId
+    @Id
+    @Column(name = "cliente_id")
+    private Long clienteId;
+    
+    @Column(name = "nombre", nullable = false, length = 100)
+    private String nombre;
+    
+    @Column(name = "estado", nullable = false)
+    private Boolean estado;
+    
+    // Las bajas se conservan para que un evento anterior reentregado no vuelva a crear el cliente
+    @Column(name = "eliminado", nullable = false)
+    private Boolean eliminado;
+    
+    @Column(name = "fecha_evento", nullable = false)
+    private LocalDateTime fechaEvento;
+    
+    // Versión del último evento aplicado; NULL si vino de la migración o de un evento sin versión
+    @Column(name = "version_evento")
+    private Long versionEvento;
+    
+    // Constructores
+    public ClienteReplica() {
+        this.estado = true;
+        this.eliminado = false;
+    }
+    
+    public ClienteReplica(Long clienteId) {
+        this();
+        this.clienteId = clienteId;
+    }
+    
+    // Getters y Setters
+    public Long getClienteId() {
+        return clienteId;
+    }
+    
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+    
+    public Boolean getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(Boolean estado) {
+        this.estado = estado;
+    }
+    
+    public Boolean getEliminado() {
+        return eliminado;
+    }
+    
+    public void setEliminado(Boolean eliminado) {
+        this.eliminado = eliminado;
+    }
+    
+    public LocalDateTime getFechaEvento() {
+        return fechaEvento;
+    }
+    
+    public void setFechaEvento(LocalDateTime fechaEvento) {
+        this.fechaEvento = fechaEvento;
+    }
+    
+    public Long getVersionEvento() {
+        return versionEvento;
+    }
+    
+    public void setVersionEvento(Long versionEvento) {
+        this.versionEvento = versionEvento;
+    }
+}
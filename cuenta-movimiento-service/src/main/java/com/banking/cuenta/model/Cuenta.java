@@ -2,13 +2,23 @@ package com.banking.cuenta.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Se lee mucho más de lo que se escribe: va a la caché de segundo nivel (ver CacheSegundoNivelConfig)
 @Entity
-@Table(name = "cuentas")
+@Table(name = "cuentas", indexes = {
+    @Index(name = "idx_cuentas_cliente_estado", columnList = "cliente_id, estado")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Cuenta.REGION_CACHE)
 public class Cuenta {
     
+    public static final String REGION_CACHE = "entidad.cuentas";
+    public static final String REGION_CONSULTAS = "consultas.cuentas";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "cuenta_id")
@@ -6,11 +6,17 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "movimientos")
+@Table(name = "movimientos", indexes = {
+    // Mismos índices que la migración V2: así el esquema de pruebas los tiene y el plan de consultas se puede verificar
+    @Index(name = "idx_movimientos_cuenta_fecha", columnList = "cuenta_id, fecha DESC, movimiento_id DESC"),
+    @Index(name = "idx_movimientos_fecha_id", columnList = "fecha DESC, movimiento_id DESC")
+})
 public class Movimiento {
     
+    // Secuencia con asignación por bloques: IDENTITY impide que Hibernate agrupe los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_seq")
+    @SequenceGenerator(name = "movimientos_seq", sequenceName = "movimientos_seq", allocationSize = 50)
     @Column(name = "movimiento_id")
     private Long movimientoId;
     
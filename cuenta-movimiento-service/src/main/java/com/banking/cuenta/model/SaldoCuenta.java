@@ -0,0 +1,90 @@
+package com.banking.cuenta.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Saldo vigente de la cuenta, actualizado en la misma transacción que cada movimiento.
+// En una cuenta caliente (franjas > 0) es la porción reservada para retiros y el saldo total
+// suma además sus franjas de depósito (SaldoFranja).
+@Entity
+@Table(name = "saldos_cuenta", indexes = {
+    @Index(name = "idx_saldos_cuenta_franjas", columnList = "franjas")
+})
+public class SaldoCuenta {
+    
+    @Id
+    @Column(name = "cuenta_id")
+    private Long cuentaId;
+    
+    @Column(name = "saldo", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldo;
+    
+    @Column(name = "activa", nullable = false)
+    private Boolean activa;
+    
+    @Column(name = "franjas", nullable = false)
+    private Integer franjas;
+    
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+    
+    // Constructores
+    public SaldoCuenta() {
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+    
+    public SaldoCuenta(Long cuentaId, BigDecimal saldo, Boolean activa) {
+        this();
+        this.cuentaId = cuentaId;
+        this.saldo = saldo;
+        this.activa = activa;
+        this.franjas = 0;
+    }
+    
+    // Getters y Setters
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+    
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+    
+    public BigDecimal getSaldo() {
+        return saldo;
+    }
+    
+    public void setSaldo(BigDecimal saldo) {
+        this.saldo = saldo;
+    }
+    
+    public Boolean getActiva() {
+        return activa;
+    }
+    
+    public void setActiva(Boolean activa) {
+        this.activa = activa;
+    }
+    
+    public Integer getFranjas() {
+        return franjas;
+    }
+    
+    public void setFranjas(Integer franjas) {
+        this.franjas = franjas;
+    }
+    
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+    
+    public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
+    
+    @PreUpdate
+    public void preUpdate() {
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+}
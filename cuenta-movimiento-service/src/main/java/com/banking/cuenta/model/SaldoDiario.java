@@ -0,0 +1,142 @@
+package com.banking.cuenta.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Resumen diario de la cuenta, mantenido en la misma transacción que cada movimiento.
+// Apertura y cierre son el saldo antes del primer y después del último movimiento registrado en el día.
+// Los depósitos de una cuenta caliente llevan el resumen de su franja; los totales del día son la suma.
+@Entity
+@Table(name = "saldos_diarios")
+@IdClass(SaldoDiarioId.class)
+public class SaldoDiario {
+    
+    public static final int FRANJA_PRINCIPAL = 0;
+    
+    @Id
+    @Column(name = "cuenta_id")
+    private Long cuentaId;
+    
+    @Id
+    @Column(name = "fecha")
+    private LocalDate fecha;
+    
+    @Id
+    @Column(name = "franja")
+    private Integer franja;
+    
+    @Column(name = "saldo_apertura", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldoApertura;
+    
+    @Column(name = "total_depositos", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalDepositos;
+    
+    @Column(name = "total_retiros", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalRetiros;
+    
+    @Column(name = "saldo_cierre", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldoCierre;
+    
+    @Column(name = "cantidad", nullable = false)
+    private Integer cantidad;
+    
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+    
+    // Constructores
+    public SaldoDiario() {
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+    
+    public SaldoDiario(Long cuentaId, LocalDate fecha, Integer franja, BigDecimal saldoApertura) {
+        this();
+        this.cuentaId = cuentaId;
+        this.fecha = fecha;
+        this.franja = franja;
+        this.saldoApertura = saldoApertura;
+        this.totalDepositos = BigDecimal.ZERO;
+        this.totalRetiros = BigDecimal.ZERO;
+        this.saldoCierre = saldoApertura;
+        this.cantidad = 0;
+    }
+    
+    // Getters y Setters
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+    
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+    
+    public LocalDate getFecha() {
+        return fecha;
+    }
+    
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+    
+    public Integer getFranja() {
+        return franja;
+    }
+    
+    public void setFranja(Integer franja) {
+        this.franja = franja;
+    }
+    
+    public BigDecimal getSaldoApertura() {
+        return saldoApertura;
+    }
+    
+    public void setSaldoApertura(BigDecimal saldoApertura) {
+        this.saldoApertura = saldoApertura;
+    }
+    
+    public BigDecimal getTotalDepositos() {
+        return totalDepositos;
+    }
+    
+    public void setTotalDepositos(BigDecimal totalDepositos) {
+        this.totalDepositos = totalDepositos;
+    }
+    
+    public BigDecimal getTotalRetiros() {
+        return totalRetiros;
+    }
+    
+    public void setTotalRetiros(BigDecimal totalRetiros) {
+        this.totalRetiros = totalRetiros;
+    }
+    
+    public BigDecimal getSaldoCierre() {
+        return saldoCierre;
+    }
+    
+    public void setSaldoCierre(BigDecimal saldoCierre) {
+        this.saldoCierre = saldoCierre;
+    }
+    
+    public Integer getCantidad() {
+        return cantidad;
+    }
+    
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+    
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+    
+    public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
+    
+    @PreUpdate
+    public void preUpdate() {
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+}
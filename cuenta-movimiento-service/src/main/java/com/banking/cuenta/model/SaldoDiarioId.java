@@ -0,0 +1,68 @@
+package com.banking.cuenta.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Clave compuesta de SaldoDiario: cuenta, día y franja (0 salvo en los depósitos de cuentas calientes)
+public class SaldoDiarioId implements Serializable {
+    
+    private Long cuentaId;
+    private LocalDate fecha;
+    private Integer franja;
+    
+    // Constructores
+    public SaldoDiarioId() {}
+    
+    public SaldoDiarioId(Long cuentaId, LocalDate fecha) {
+        this(cuentaId, fecha, SaldoDiario.FRANJA_PRINCIPAL);
+    }
+    
+    public SaldoDiarioId(Long cuentaId, LocalDate fecha, Integer franja) {
+        this.cuentaId = cuentaId;
+        this.fecha = fecha;
+        this.franja = franja;
+    }
+    
+    // Getters y Setters
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+    
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+    
+    public LocalDate getFecha() {
+        return fecha;
+    }
+    
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+    
+    public Integer getFranja() {
+        return franja;
+    }
+    
+    public void setFranja(Integer franja) {
+        this.franja = franja;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SaldoDiarioId otro = (SaldoDiarioId) o;
+        return Objects.equals(cuentaId, otro.cuentaId) && Objects.equals(fecha, otro.fecha) && Objects.equals(franja, otro.franja);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(cuentaId, fecha, franja);
+    }
+}
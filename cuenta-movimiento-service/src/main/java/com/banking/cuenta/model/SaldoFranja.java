@@ -0,0 +1,81 @@
+package com.banking.cuenta.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Franja de depósitos de una cuenta caliente. Solo recibe depósitos; su saldo pasa a la cabecera
+// (SaldoCuenta) cuando un retiro no alcanza con ella o cuando corre el rebalanceo.
+@Entity
+// Hibernate genera la clave de @IdClass con franja primero; el índice deja en el esquema de las pruebas
+// el mismo acceso por cuenta que en MySQL da la clave primaria (cuenta_id, franja) de V7
+@Table(name = "saldos_cuenta_franjas", indexes = {
+    @Index(name = "idx_saldos_cuenta_franjas_cuenta", columnList = "cuenta_id, franja")
+})
+@IdClass(SaldoFranjaId.class)
+public class SaldoFranja {
+    
+    @Id
+    @Column(name = "cuenta_id")
+    private Long cuentaId;
+    
+    @Id
+    @Column(name = "franja")
+    private Integer franja;
+    
+    @Column(name = "saldo", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldo;
+    
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+    
+    // Constructores
+    public SaldoFranja() {
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+    
+    public SaldoFranja(Long cuentaId, Integer franja) {
+        this();
+        this.cuentaId = cuentaId;
+        this.franja = franja;
+        this.saldo = BigDecimal.ZERO;
+    }
+    
+    // Getters y Setters
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+    
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+    
+    public Integer getFranja() {
+        return franja;
+    }
+    
+    public void setFranja(Integer franja) {
+        this.franja = franja;
+    }
+    
+    public BigDecimal getSaldo() {
+        return saldo;
+    }
+    
+    public void setSaldo(BigDecimal saldo) {
+        this.saldo = saldo;
+    }
+    
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+    
+    public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
+    
+    @PreUpdate
+    public void preUpdate() {
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,53 @@
+package com.banking.cuenta.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Clave compuesta de SaldoFranja: cuenta y número de franja
+public class SaldoFranjaId implements Serializable {
+    
+    private Long cuentaId;
+    private Integer franja;
+    
+    // Constructores
+    public SaldoFranjaId() {}
+    
+    public SaldoFranjaId(Long cuentaId, Integer franja) {
+        this.cuentaId = cuentaId;
+        this.franja = franja;
+    }
+    
+    // Getters y Setters
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+    
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+    
+    public Integer getFranja() {
+        return franja;
+    }
+    
+    public void setFranja(Integer franja) {
+        this.franja = franja;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SaldoFranjaId otro = (SaldoFranjaId) o;
+        return Objects.equals(cuentaId, otro.cuentaId) && Objects.equals(franja, otro.franja);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(cuentaId, franja);
+    }
+}
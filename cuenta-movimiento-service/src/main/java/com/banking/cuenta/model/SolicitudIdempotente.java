@@ -0,0 +1,92 @@
+package com.banking.cuenta.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Clave Idempotency-Key y el movimiento que creó. Solo se inserta: Persistable evita que
+// save() haga un SELECT previo por tener el identificador asignado
+@Entity
+@Table(name = "idempotencia_movimientos", indexes = {
+    @Index(name = "idx_idempotencia_expiracion", columnList = "fecha_expiracion")
+})
+public class SolicitudIdempotente implements Persistable<String> {
+    
+    @Id
+    @Column(name = "clave", length = 100)
+    private String clave;
+    
+    @Column(name = "movimiento_id", nullable = false)
+    private Long movimientoId;
+    
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+    
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+    
+    @Transient
+    private boolean nueva = true;
+    
+    // Constructores
+    public SolicitudIdempotente() {
+        this.fechaCreacion = LocalDateTime.now();
+    }
+    
+    public SolicitudIdempotente(String clave, Long movimientoId, LocalDateTime fechaExpiracion) {
+        this();
+        this.clave = clave;
+        this.movimientoId = movimientoId;
+        this.fechaExpiracion = fechaExpiracion;
+    }
+    
+    // Getters y Setters
+    @Override
+    public String getId() {
+        return clave;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+    
+    public String getClave() {
+        return clave;
+    }
+    
+    public void setClave(String clave) {
+        this.clave = clave;
+    }
+    
+    public Long getMovimientoId() {
+        return movimientoId;
+    }
+    
+    public void setMovimientoId(Long movimientoId) {
+        this.movimientoId = movimientoId;
+    }
+    
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+    
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+    
+    public LocalDateTime getFechaExpiracion() {
+        return fechaExpiracion;
+    }
+    
+    public void setFechaExpiracion(LocalDateTime fechaExpiracion) {
+        this.fechaExpiracion = fechaExpiracion;
+    }
+    
+    @PostLoad
+    @PostPersist
+    public void marcarExistente() {
+        this.nueva = false;
+    }
+}
@@ -0,0 +1,171 @@
+package com.banking.cuenta.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Trabajo de reporte en segundo plano, compartido por todas las instancias: cualquiera responde el
+// estado y descarga el archivo. claveActiva (cliente, período y formato) es única mientras el trabajo
+// está pendiente o en curso, así un pedido igual en otra instancia se une a él; al terminar queda en NULL.
+@Entity
+@Table(name = "trabajos_reporte", indexes = {
+    @Index(name = "idx_trabajos_reporte_terminado", columnList = "terminado, creado")
+})
+public class TrabajoReporte implements Persistable<String> {
+    
+    public static final int LARGO_ERROR = 500;
+    
+    @Id
+    @Column(name = "trabajo_id", length = 36)
+    private String id;
+    
+    @Column(name = "cliente_id", nullable = false)
+    private Long clienteId;
+    
+    @Column(name = "fecha_inicio", nullable = false)
+    private LocalDateTime fechaInicio;
+    
+    @Column(name = "fecha_fin", nullable = false)
+    private LocalDateTime fechaFin;
+    
+    @Column(name = "formato", nullable = false, length = 4)
+    private String formato;
+    
+    @Column(name = "estado", nullable = false, length = 10)
+    private String estado;
+    
+    @Column(name = "clave_activa", length = 100, unique = true)
+    private String claveActiva;
+    
+    @Column(name = "tamano")
+    private Long tamano;
+    
+    @Column(name = "error", length = LARGO_ERROR)
+    private String error;
+    
+    @Column(name = "creado", nullable = false)
+    private LocalDateTime creado;
+    
+    @Column(name = "terminado")
+    private LocalDateTime terminado;
+    
+    @Transient
+    private boolean nuevo = true;
+    
+    // Constructores
+    public TrabajoReporte() {}
+    
+    public TrabajoReporte(String id, Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                          String formato, String estado, String claveActiva) {
+        this.id = id;
+        this.clienteId = clienteId;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        this.formato = formato;
+        this.estado = estado;
+        this.claveActiva = claveActiva;
+        this.creado = LocalDateTime.now();
+    }
+    
+    // Getters y Setters
+    @Override
+    public String getId() {
+        return id;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return nuevo;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public Long getClienteId() {
+        return clienteId;
+    }
+    
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+    
+    public LocalDateTime getFechaInicio() {
+        return fechaInicio;
+    }
+    
+    public void setFechaInicio(LocalDateTime fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+    
+    public LocalDateTime getFechaFin() {
+        return fechaFin;
+    }
+    
+    public void setFechaFin(LocalDateTime fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+    
+    public String getFormato() {
+        return formato;
+    }
+    
+    public void setFormato(String formato) {
+        this.formato = formato;
+    }
+    
+    public String getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+    
+    public String getClaveActiva() {
+        return claveActiva;
+    }
+    
+    public void setClaveActiva(String claveActiva) {
+        this.claveActiva = claveActiva;
+    }
+    
+    public Long getTamano() {
+        return tamano;
+    }
+    
+    public void setTamano(Long tamano) {
+        this.tamano = tamano;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public LocalDateTime getCreado() {
+        return creado;
+    }
+    
+    public void setCreado(LocalDateTime creado) {
+        this.creado = creado;
+    }
+    
+    public LocalDateTime getTerminado() {
+        return terminado;
+    }
+    
+    public void setTerminado(LocalDateTime terminado) {
+        this.terminado = terminado;
+    }
+    
+    @PostLoad
+    @PostPersist
+    public void marcarExistente() {
+        this.nuevo = false;
+    }
+}
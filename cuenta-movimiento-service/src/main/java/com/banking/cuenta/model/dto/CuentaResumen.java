@@ -0,0 +1,19 @@
+package com.banking.cuenta.model.dto;
+
+import java.math.BigDecimal;
+
+// Proyección de solo lectura para los listados de cuentas
+public interface CuentaResumen {
+    
+    Long getCuentaId();
+    
+    String getNumeroCuenta();
+    
+    String getTipoCuenta();
+    
+    BigDecimal getSaldoInicial();
+    
+    Boolean getEstado();
+    
+    Long getClienteId();
+}
@@ -0,0 +1,76 @@
+package com.banking.cuenta.model.dto;
+
+import java.time.LocalDateTime;
+
+// Sobre común de los eventos publicados en Kafka; eventoId permite a los consumidores descartar duplicados
+// y version, que crece con cada evento del mismo agregado, los que lleguen fuera de orden
+public class EventoDTO {
+    
+    private String eventoId;
+    private String tipo;
+    private Long agregadoId;
+    private Long version;
+    private LocalDateTime fecha;
+    private Object datos;
+    
+    // Constructores
+    public EventoDTO() {}
+    
+    public EventoDTO(String eventoId, String tipo, Long agregadoId, Long version, LocalDateTime fecha, Object datos) {
+        this.eventoId = eventoId;
+        this.tipo = tipo;
+        this.agregadoId = agregadoId;
+        this.version = version;
+        this.fecha = fecha;
+        this.datos = datos;
+    }
+    
+    // Getters y Setters
+    public String getEventoId() {
+        return eventoId;
+    }
+    
+    public void setEventoId(String eventoId) {
+        this.eventoId = eventoId;
+    }
+    
+    public String getTipo() {
+        return tipo;
+    }
+    
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+    
+    public Long getAgregadoId() {
+        return agregadoId;
+    }
+    
+    public void setAgregadoId(Long agregadoId) {
+        this.agregadoId = agregadoId;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+    
+    public void setFecha(LocalDateTime fecha) {
+        this.fecha = fecha;
+    }
+    
+    public Object getDatos() {
+        return datos;
+    }
+    
+    public void setDatos(Object datos) {
+        this.datos = datos;
+    }
+}
@@ -0,0 +1,29 @@
+package com.banking.cuenta.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Una fila del reporte: datos de la cuenta repetidos en cada movimiento del período
+// (los campos del movimiento vienen en null si la cuenta no tuvo movimientos)
+public interface FilaEstadoCuenta {
+    
+    Long getCuentaId();
+    
+    String getNumeroCuenta();
+    
+    String getTipoCuenta();
+    
+    BigDecimal getSaldoInicial();
+    
+    Boolean getEstado();
+    
+    BigDecimal getSaldoDisponible();
+    
+    LocalDateTime getFecha();
+    
+    String getTipoMovimiento();
+    
+    BigDecimal getValor();
+    
+    BigDecimal getSaldo();
+}
@@ -0,0 +1,44 @@
+package com.banking.cuenta.model.dto;
+
+// Una línea del estado de cuenta en flujo: un movimiento apenas llega de la base, o el resumen
+// de la cuenta (sin la lista de movimientos) después del último de ellos
+public class LineaEstadoCuentaDTO {
+    
+    private String numeroCuenta;
+    private MovimientoDTO movimiento;
+    private EstadoCuentaDTO resumen;
+    
+    // Constructores
+    public LineaEstadoCuentaDTO() {}
+    
+    public LineaEstadoCuentaDTO(String numeroCuenta, MovimientoDTO movimiento, EstadoCuentaDTO resumen) {
+        this.numeroCuenta = numeroCuenta;
+        this.movimiento = movimiento;
+        this.resumen = resumen;
+    }
+    
+    // Getters y Setters
+    public String getNumeroCuenta() {
+        return numeroCuenta;
+    }
+    
+    public void setNumeroCuenta(String numeroCuenta) {
+        this.numeroCuenta = numeroCuenta;
+    }
+    
+    public MovimientoDTO getMovimiento() {
+        return movimiento;
+    }
+    
+    public void setMovimiento(MovimientoDTO movimiento) {
+        this.movimiento = movimiento;
+    }
+    
+    public EstadoCuentaDTO getResumen() {
+        return resumen;
+    }
+    
+    public void setResumen(EstadoCuentaDTO resumen) {
+        this.resumen = resumen;
+    }
+}
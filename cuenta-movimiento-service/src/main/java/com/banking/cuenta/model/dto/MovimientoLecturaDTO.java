@@ -0,0 +1,77 @@
+package com.banking.cuenta.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Movimiento tal como lo emite la ruta de lectura reactiva (una línea NDJSON por movimiento)
+public class MovimientoLecturaDTO {
+    
+    private Long movimientoId;
+    private LocalDateTime fecha;
+    private String tipoMovimiento;
+    private BigDecimal valor;
+    private BigDecimal saldo;
+    private Long cuentaId;
+    
+    // Constructores
+    public MovimientoLecturaDTO() {}
+    
+    public MovimientoLecturaDTO(Long movimientoId, LocalDateTime fecha, String tipoMovimiento,
+                                BigDecimal valor, BigDecimal saldo, Long cuentaId) {
+        this.movimientoId = movimientoId;
+        this.fecha = fecha;
+        this.tipoMovimiento = tipoMovimiento;
+        this.valor = valor;
+        this.saldo = saldo;
+        this.cuentaId = cuentaId;
+    }
+    
+    // Getters y Setters
+    public Long getMovimientoId() {
+        return movimientoId;
+    }
+    
+    public void setMovimientoId(Long movimientoId) {
+        this.movimientoId = movimientoId;
+    }
+    
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+    
+    public void setFecha(LocalDateTime fecha) {
+        this.fecha = fecha;
+    }
+    
+    public String getTipoMovimiento() {
+        return tipoMovimiento;
+    }
+    
+    public void setTipoMovimiento(String tipoMovimiento) {
+        this.tipoMovimiento = tipoMovimiento;
+    }
+    
+    public BigDecimal getValor() {
+        return valor;
+    }
+    
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+    
+    public BigDecimal getSaldo() {
+        return saldo;
+    }
+    
+    public void setSaldo(BigDecimal saldo) {
+        this.saldo = saldo;
+    }
+    
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+    
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+}
@@ -0,0 +1,20 @@
+package com.banking.cuenta.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Proyección de solo lectura para los listados de movimientos
+public interface MovimientoResumen {
+    
+    Long getMovimientoId();
+    
+    LocalDateTime getFecha();
+    
+    String getTipoMovimiento();
+    
+    BigDecimal getValor();
+    
+    BigDecimal getSaldo();
+    
+    Long getCuentaId();
+}
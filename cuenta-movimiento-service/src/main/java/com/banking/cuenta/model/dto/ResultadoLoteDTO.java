@@ -0,0 +1,85 @@
+package com.banking.cuenta.model.dto;
+
+import java.math.BigDecimal;
+
+public class ResultadoLoteDTO {
+    
+    public static final String ACEPTADO = "ACEPTADO";
+    public static final String RECHAZADO = "RECHAZADO";
+    
+    private int indice;
+    private String estado;
+    private Long cuentaId;
+    private Long movimientoId;
+    private BigDecimal saldo;
+    private String error;
+    
+    // Constructores
+    public ResultadoLoteDTO() {}
+    
+    public ResultadoLoteDTO(int indice, String estado, Long cuentaId, Long movimientoId, BigDecimal saldo, String error) {
+        this.indice = indice;
+        this.estado = estado;
+        this.cuentaId = cuentaId;
+        this.movimientoId = movimientoId;
+        this.saldo = saldo;
+        this.error = error;
+    }
+    
+    public static ResultadoLoteDTO aceptado(int indice, Long cuentaId, Long movimientoId, BigDecimal saldo) {
+        return new ResultadoLoteDTO(indice, ACEPTADO, cuentaId, movimientoId, saldo, null);
+    }
+    
+    public static ResultadoLoteDTO rechazado(int indice, Long cuentaId, String error) {
+        return new ResultadoLoteDTO(indice, RECHAZADO, cuentaId, null, null, error);
+    }
+    
+    // Getters y Setters
+    public int getIndice() {
+        return indice;
+    }
+    
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+    
+    public String getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+    
+    public Long getCuentaId() {
+        return cuentaId;
+    }
+    
+    public void setCuentaId(Long cuentaId) {
+        this.cuentaId = cuentaId;
+    }
+    
+    public Long getMovimientoId() {
+        return movimientoId;
+    }
+    
+    public void setMovimientoId(Long movimientoId) {
+        this.movimientoId = movimientoId;
+    }
+    
+    public BigDecimal getSaldo() {
+        return saldo;
+    }
+    
+    public void setSaldo(BigDecimal saldo) {
+        this.saldo = saldo;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,35 @@
+package com.banking.cuenta.model.dto;
+
+import com.banking.cuenta.model.Movimiento;
+
+// Los dos movimientos que registró la transferencia, confirmados juntos
+public class ResultadoTransferenciaDTO {
+    
+    private Movimiento retiro;
+    private Movimiento deposito;
+    
+    // Constructores
+    public ResultadoTransferenciaDTO() {}
+    
+    public ResultadoTransferenciaDTO(Movimiento retiro, Movimiento deposito) {
+        this.retiro = retiro;
+        this.deposito = deposito;
+    }
+    
+    // Getters y Setters
+    public Movimiento getRetiro() {
+        return retiro;
+    }
+    
+    public void setRetiro(Movimiento retiro) {
+        this.retiro = retiro;
+    }
+    
+    public Movimiento getDeposito() {
+        return deposito;
+    }
+    
+    public void setDeposito(Movimiento deposito) {
+        this.deposito = deposito;
+    }
+}
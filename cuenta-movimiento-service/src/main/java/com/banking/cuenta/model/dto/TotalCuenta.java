@@ -0,0 +1,11 @@
+package com.banking.cuenta.model.dto;
+
+import java.math.BigDecimal;
+
+// Total neto (depósitos menos retiros) de una cuenta en un rango de días
+public interface TotalCuenta {
+    
+    Long getCuentaId();
+    
+    BigDecimal getTotal();
+}
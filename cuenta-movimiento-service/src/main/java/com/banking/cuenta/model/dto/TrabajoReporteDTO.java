@@ -0,0 +1,129 @@
+package com.banking.cuenta.model.dto;
+
+import com.banking.cuenta.model.TrabajoReporte;
+
+import java.time.LocalDateTime;
+
+public class TrabajoReporteDTO {
+    
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String EN_CURSO = "EN_CURSO";
+    public static final String TERMINADO = "TERMINADO";
+    public static final String FALLIDO = "FALLIDO";
+    
+    private String id;
+    private String estado;
+    private Long clienteId;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    private String formato;
+    private Long tamano;
+    private String error;
+    private LocalDateTime creado;
+    private LocalDateTime terminado;
+    
+    // Constructores
+    public TrabajoReporteDTO() {}
+    
+    public TrabajoReporteDTO(String id, Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin, String formato) {
+        this.id = id;
+        this.estado = PENDIENTE;
+        this.clienteId = clienteId;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        this.formato = formato;
+        this.creado = LocalDateTime.now();
+    }
+    
+    public static TrabajoReporteDTO desde(TrabajoReporte trabajo) {
+        TrabajoReporteDTO dto = new TrabajoReporteDTO(trabajo.getId(), trabajo.getClienteId(),
+                trabajo.getFechaInicio(), trabajo.getFechaFin(), trabajo.getFormato());
+        dto.setEstado(trabajo.getEstado());
+        dto.setTamano(trabajo.getTamano());
+        dto.setError(trabajo.getError());
+        dto.setCreado(trabajo.getCreado());
+        dto.setTerminado(trabajo.getTerminado());
+        return dto;
+    }
+    
+    // Getters y Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+    
+    public Long getClienteId() {
+        return clienteId;
+    }
+    
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+    
+    public LocalDateTime getFechaInicio() {
+        return fechaInicio;
+    }
+    
+    public void setFechaInicio(LocalDateTime fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+    
+    public LocalDateTime getFechaFin() {
+        return fechaFin;
+    }
+    
+    public void setFechaFin(LocalDateTime fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+    
+    public String getFormato() {
+        return formato;
+    }
+    
+    public void setFormato(String formato) {
+        this.formato = formato;
+    }
+    
+    public Long getTamano() {
+        return tamano;
+    }
+    
+    public void setTamano(Long tamano) {
+        this.tamano = tamano;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public LocalDateTime getCreado() {
+        return creado;
+    }
+    
+    public void setCreado(LocalDateTime creado) {
+        this.creado = creado;
+    }
+    
+    public LocalDateTime getTerminado() {
+        return terminado;
+    }
+    
+    public void setTerminado(LocalDateTime terminado) {
+        this.terminado = terminado;
+    }
+}
@@ -0,0 +1,9 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.model.ClienteReplica;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ClienteReplicaRepository extends JpaRepository<ClienteReplica, Long> {
+}
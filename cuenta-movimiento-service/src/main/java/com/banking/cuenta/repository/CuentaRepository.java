@@ -1,8 +1,13 @@
 package com.banking.cuenta.repository;
 
 import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.dto.CuentaResumen;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +17,11 @@ import java.util.Optional;
 @Repository
 public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
     
+    // Consultas cacheadas: se guardan los ids y las cuentas salen de la región de la entidad
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Cuenta.REGION_CONSULTAS)
+    })
     Optional<Cuenta> findByNumeroCuenta(String numeroCuenta);
     
     List<Cuenta> findByClienteId(Long clienteId);
@@ -22,6 +32,15 @@ public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
     
     boolean existsByNumeroCuenta(String numeroCuenta);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Cuenta.REGION_CONSULTAS)
+    })
     @Query("SELECT c FROM Cuenta c WHERE c.clienteId = :clienteId AND c.estado = true")
     List<Cuenta> findActiveCuentasByClienteId(@Param("clienteId") Long clienteId);
+    
+    @Query("SELECT c.cuentaId AS cuentaId, c.numeroCuenta AS numeroCuenta, c.tipoCuenta AS tipoCuenta, " +
+           "c.saldoInicial AS saldoInicial, c.estado AS estado, c.clienteId AS clienteId " +
+           "FROM Cuenta c WHERE c.cuentaId > :cuentaId ORDER BY c.cuentaId")
+    List<CuentaResumen> findPaginaPosteriorA(@Param("cuentaId") Long cuentaId, Limit limite);
 }
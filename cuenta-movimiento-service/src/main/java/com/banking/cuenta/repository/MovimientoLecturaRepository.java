@@ -0,0 +1,176 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.model.dto.FilaEstadoCuenta;
+import com.banking.cuenta.model.dto.MovimientoLecturaDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Consultas de solo lectura sobre R2DBC: las filas se emiten según la demanda del suscriptor, sin
+// ocupar un hilo ni una conexión JDBC mientras el cliente consume la respuesta. Mismas consultas
+// e índices que las de MovimientoRepository.
+@Repository
+public class MovimientoLecturaRepository {
+    
+    private static final String MOVIMIENTOS_POR_CUENTA =
+            "SELECT movimiento_id, fecha, tipo_movimiento, valor, saldo, cuenta_id " +
+            "FROM movimientos WHERE cuenta_id = :cuentaId ";
+    
+    private static final String ESTADO_CUENTA =
+            "SELECT c.cuenta_id, c.numero_cuenta, c.tipo_cuenta, c.saldo_inicial, c.estado, " +
+            "COALESCE(s.saldo, c.saldo_inicial) AS saldo_disponible, " +
+            "m.fecha, m.tipo_movimiento, m.valor, m.saldo " +
+            "FROM cuentas c " +
+            "LEFT JOIN saldos_cuenta s ON s.cuenta_id = c.cuenta_id " +
+            "LEFT JOIN movimientos m ON m.cuenta_id = c.cuenta_id AND m.fecha BETWEEN :fechaInicio AND :fechaFin " +
+            "WHERE c.cliente_id = :clienteId AND c.estado = TRUE " +
+            "ORDER BY c.cuenta_id, m.fecha DESC, m.movimiento_id DESC";
+    
+    private static final String TOTALES_DIAS_COMPLETOS =
+            "SELECT s.cuenta_id, SUM(s.total_depositos) - SUM(s.total_retiros) AS total " +
+            "FROM saldos_diarios s " +
+            "JOIN cuentas c ON c.cuenta_id = s.cuenta_id " +
+            "WHERE c.cliente_id = :clienteId AND c.estado = TRUE AND s.fecha BETWEEN :desde AND :hasta " +
+            "GROUP BY s.cuenta_id";
+    
+    private static final String SALDOS_EN_FRANJAS =
+            "SELECT f.cuenta_id, SUM(f.saldo) AS total " +
+            "FROM saldos_cuenta_franjas f " +
+            "JOIN cuentas c ON c.cuenta_id = f.cuenta_id " +
+            "WHERE c.cliente_id = :clienteId AND c.estado = TRUE " +
+            "GROUP BY f.cuenta_id";
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    public Flux<MovimientoLecturaDTO> findByCuentaId(Long cuentaId, boolean descendente) {
+        String orden = descendente ? "ORDER BY fecha DESC, movimiento_id DESC" : "ORDER BY fecha, movimiento_id";
+        return databaseClient.sql(MOVIMIENTOS_POR_CUENTA + orden)
+                .bind("cuentaId", cuentaId)
+                .map(fila -> new MovimientoLecturaDTO(
+                        fila.get("movimiento_id", Long.class),
+                        fila.get("fecha", LocalDateTime.class),
+                        fila.get("tipo_movimiento", String.class),
+                        fila.get("valor", BigDecimal.class),
+                        fila.get("saldo", BigDecimal.class),
+                        fila.get("cuenta_id", Long.class)))
+                .all();
+    }
+    
+    public Flux<FilaEstadoCuenta> streamEstadoCuenta(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        return databaseClient.sql(ESTADO_CUENTA)
+                .bind("clienteId", clienteId)
+                .bind("fechaInicio", fechaInicio)
+                .bind("fechaFin", fechaFin)
+                .map(fila -> (FilaEstadoCuenta) new Fila(fila))
+                .all();
+    }
+    
+    // Mismo cálculo que SaldoDiarioService.totalesDiasCompletos; vacío si el período no cubre ningún día entero
+    public Mono<Map<Long, BigDecimal>> totalesDiasCompletos(Long clienteId, LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            return Mono.just(Map.of());
+        }
+        return databaseClient.sql(TOTALES_DIAS_COMPLETOS)
+                .bind("clienteId", clienteId)
+                .bind("desde", desde)
+                .bind("hasta", hasta)
+                .map(fila -> Map.entry(fila.get("cuenta_id", Long.class), fila.get("total", BigDecimal.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+    
+    // Mismo cálculo que SaldoFranjaService.totalesPorCliente; solo trae las cuentas calientes
+    public Mono<Map<Long, BigDecimal>> saldosEnFranjas(Long clienteId) {
+        return databaseClient.sql(SALDOS_EN_FRANJAS)
+                .bind("clienteId", clienteId)
+                .map(fila -> Map.entry(fila.get("cuenta_id", Long.class), fila.get("total", BigDecimal.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+    
+    private static final class Fila implements FilaEstadoCuenta {
+        
+        private final Long cuentaId;
+        private final String numeroCuenta;
+        private final String tipoCuenta;
+        private final BigDecimal saldoInicial;
+        private final Boolean estado;
+        private final BigDecimal saldoDisponible;
+        private final LocalDateTime fecha;
+        private final String tipoMovimiento;
+        private final BigDecimal valor;
+        private final BigDecimal saldo;
+        
+        Fila(Readable fila) {
+            this.cuentaId = fila.get("cuenta_id", Long.class);
+            this.numeroCuenta = fila.get("numero_cuenta", String.class);
+            this.tipoCuenta = fila.get("tipo_cuenta", String.class);
+            this.saldoInicial = fila.get("saldo_inicial", BigDecimal.class);
+            this.estado = fila.get("estado", Boolean.class);
+            this.saldoDisponible = fila.get("saldo_disponible", BigDecimal.class);
+            this.fecha = fila.get("fecha", LocalDateTime.class);
+            this.tipoMovimiento = fila.get("tipo_movimiento", String.class);
+            this.valor = fila.get("valor", BigDecimal.class);
+            this.saldo = fila.get("saldo", BigDecimal.class);
+        }
+        
+        @Override
+        public Long getCuentaId() {
+            return cuentaId;
+        }
+        
+        @Override
+        public String getNumeroCuenta() {
+            return numeroCuenta;
+        }
+        
+        @Override
+        public String getTipoCuenta() {
+            return tipoCuenta;
+        }
+        
+        @Override
+        public BigDecimal getSaldoInicial() {
+            return saldoInicial;
+        }
+        
+        @Override
+        public Boolean getEstado() {
+            return estado;
+        }
+        
+        @Override
+        public BigDecimal getSaldoDisponible() {
+            return saldoDisponible;
+        }
+        
+        @Override
+        public LocalDateTime getFecha() {
+            return fecha;
+        }
+        
+        @Override
+        public String getTipoMovimiento() {
+            return tipoMovimiento;
+        }
+        
+        @Override
+        public BigDecimal getValor() {
+            return valor;
+        }
+        
+        @Override
+        public BigDecimal getSaldo() {
+            return saldo;
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.banking.cuenta.repository;
 
 import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.dto.FilaEstadoCuenta;
+import com.banking.cuenta.model.dto.MovimientoResumen;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
@@ -16,6 +25,8 @@ public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
     
     List<Movimiento> findByCuentaIdOrderByFechaDesc(Long cuentaId);
     
+    boolean existsByCuentaId(Long cuentaId);
+    
     @Query("SELECT m FROM Movimiento m WHERE m.cuentaId = :cuentaId AND m.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY m.fecha DESC")
     List<Movimiento> findByCuentaIdAndFechaBetween(@Param("cuentaId") Long cuentaId, 
                                                    @Param("fechaInicio") LocalDateTime fechaInicio, 
@@ -28,4 +39,46 @@ public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
     
     @Query("SELECT m FROM Movimiento m WHERE m.cuentaId = :cuentaId ORDER BY m.fecha DESC LIMIT 1")
     Movimiento findLastMovimientoByCuentaId(@Param("cuentaId") Long cuentaId);
+    
+    // Paginación por cursor sobre (fecha, movimiento_id): la página continúa después de la última fila entregada
+    @Query("SELECT m.movimientoId AS movimientoId, m.fecha AS fecha, m.tipoMovimiento AS tipoMovimiento, " +
+           "m.valor AS valor, m.saldo AS saldo, m.cuentaId AS cuentaId FROM Movimiento m " +
+           "WHERE m.fecha < :fecha OR (m.fecha = :fecha AND m.movimientoId < :movimientoId) " +
+           "ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<MovimientoResumen> findPaginaAnteriorA(@Param("fecha") LocalDateTime fecha,
+                                                @Param("movimientoId") Long movimientoId,
+                                                Limit limite);
+    
+    @Query("SELECT m.movimientoId AS movimientoId, m.fecha AS fecha, m.tipoMovimiento AS tipoMovimiento, " +
+           "m.valor AS valor, m.saldo AS saldo, m.cuentaId AS cuentaId FROM Movimiento m " +
+           "WHERE m.cuentaId = :cuentaId AND (m.fecha > :fecha OR (m.fecha = :fecha AND m.movimientoId > :movimientoId)) " +
+           "ORDER BY m.fecha ASC, m.movimientoId ASC")
+    List<MovimientoResumen> findPaginaPorCuentaPosteriorA(@Param("cuentaId") Long cuentaId,
+                                                          @Param("fecha") LocalDateTime fecha,
+                                                          @Param("movimientoId") Long movimientoId,
+                                                          Limit limite);
+    
+    @Query("SELECT m.movimientoId AS movimientoId, m.fecha AS fecha, m.tipoMovimiento AS tipoMovimiento, " +
+           "m.valor AS valor, m.saldo AS saldo, m.cuentaId AS cuentaId FROM Movimiento m " +
+           "WHERE m.cuentaId = :cuentaId AND (m.fecha < :fecha OR (m.fecha = :fecha AND m.movimientoId < :movimientoId)) " +
+           "ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<MovimientoResumen> findPaginaPorCuentaAnteriorA(@Param("cuentaId") Long cuentaId,
+                                                         @Param("fecha") LocalDateTime fecha,
+                                                         @Param("movimientoId") Long movimientoId,
+                                                         Limit limite);
+    
+    // Estado de cuenta de todas las cuentas activas del cliente en una sola consulta, ordenada por cuenta
+    // para poder agrupar al vuelo; debe consumirse dentro de una transacción y cerrarse al terminar
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT c.cuentaId AS cuentaId, c.numeroCuenta AS numeroCuenta, c.tipoCuenta AS tipoCuenta, " +
+           "c.saldoInicial AS saldoInicial, c.estado AS estado, COALESCE(s.saldo, c.saldoInicial) AS saldoDisponible, " +
+           "m.fecha AS fecha, m.tipoMovimiento AS tipoMovimiento, m.valor AS valor, m.saldo AS saldo " +
+           "FROM Cuenta c " +
+           "LEFT JOIN SaldoCuenta s ON s.cuentaId = c.cuentaId " +
+           "LEFT JOIN Movimiento m ON m.cuentaId = c.cuentaId AND m.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "WHERE c.clienteId = :clienteId AND c.estado = true " +
+           "ORDER BY c.cuentaId, m.fecha DESC, m.movimientoId DESC")
+    Stream<FilaEstadoCuenta> streamEstadoCuenta(@Param("clienteId") Long clienteId,
+                                                @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                @Param("fechaFin") LocalDateTime fechaFin);
 }
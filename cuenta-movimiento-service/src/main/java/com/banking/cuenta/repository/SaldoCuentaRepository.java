@@ -0,0 +1,22 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.model.SaldoCuenta;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SaldoCuentaRepository extends JpaRepository<SaldoCuenta, Long> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SaldoCuenta s WHERE s.cuentaId = :cuentaId")
+    Optional<SaldoCuenta> findByIdForUpdate(@Param("cuentaId") Long cuentaId);
+    
+    List<SaldoCuenta> findByFranjasGreaterThan(Integer franjas);
+}
@@ -0,0 +1,28 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.model.SaldoDiario;
+import com.banking.cuenta.model.SaldoDiarioId;
+import com.banking.cuenta.model.dto.TotalCuenta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SaldoDiarioRepository extends JpaRepository<SaldoDiario, SaldoDiarioId> {
+    
+    List<SaldoDiario> findByCuentaIdAndFechaOrderByFranja(Long cuentaId, LocalDate fecha);
+    
+    // Una fila por día y cuenta activa del cliente, recorridas por la clave primaria (cuenta_id, fecha)
+    @Query("SELECT s.cuentaId AS cuentaId, SUM(s.totalDepositos) - SUM(s.totalRetiros) AS total " +
+           "FROM SaldoDiario s, Cuenta c " +
+           "WHERE c.cuentaId = s.cuentaId AND c.clienteId = :clienteId AND c.estado = true " +
+           "AND s.fecha BETWEEN :desde AND :hasta " +
+           "GROUP BY s.cuentaId")
+    List<TotalCuenta> sumarPorCliente(@Param("clienteId") Long clienteId,
+                                      @Param("desde") LocalDate desde,
+                                      @Param("hasta") LocalDate hasta);
+}
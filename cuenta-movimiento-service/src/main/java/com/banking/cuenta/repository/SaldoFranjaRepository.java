@@ -0,0 +1,39 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.model.SaldoFranja;
+import com.banking.cuenta.model.SaldoFranjaId;
+import com.banking.cuenta.model.dto.TotalCuenta;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SaldoFranjaRepository extends JpaRepository<SaldoFranja, SaldoFranjaId> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM SaldoFranja f WHERE f.cuentaId = :cuentaId AND f.franja = :franja")
+    Optional<SaldoFranja> findByIdForUpdate(@Param("cuentaId") Long cuentaId, @Param("franja") Integer franja);
+    
+    // Siempre en orden de franja: dos consolidaciones de la misma cuenta no se interbloquean
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM SaldoFranja f WHERE f.cuentaId = :cuentaId ORDER BY f.franja")
+    List<SaldoFranja> findByCuentaIdForUpdate(@Param("cuentaId") Long cuentaId);
+    
+    @Query("SELECT COALESCE(SUM(f.saldo), 0) FROM SaldoFranja f WHERE f.cuentaId = :cuentaId")
+    BigDecimal sumarSaldos(@Param("cuentaId") Long cuentaId);
+    
+    // Solo devuelve las cuentas calientes del cliente; las demás no tienen franjas. Parte de las cuentas
+    // del cliente (idx_cuentas_cliente_estado) y entra a las franjas por cuenta_id
+    @Query("SELECT f.cuentaId AS cuentaId, SUM(f.saldo) AS total " +
+           "FROM Cuenta c JOIN SaldoFranja f ON f.cuentaId = c.cuentaId " +
+           "WHERE c.clienteId = :clienteId AND c.estado = true " +
+           "GROUP BY f.cuentaId")
+    List<TotalCuenta> sumarPorCliente(@Param("clienteId") Long clienteId);
+}
@@ -0,0 +1,18 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.model.SolicitudIdempotente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SolicitudIdempotenteRepository extends JpaRepository<SolicitudIdempotente, String> {
+    
+    @Modifying
+    @Query("DELETE FROM SolicitudIdempotente s WHERE s.fechaExpiracion < :fecha")
+    int deleteVencidas(@Param("fecha") LocalDateTime fecha);
+}
@@ -0,0 +1,28 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.model.TrabajoReporte;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface TrabajoReporteRepository extends JpaRepository<TrabajoReporte, String> {
+    
+    Optional<TrabajoReporte> findByClaveActiva(String claveActiva);
+    
+    // Trabajos sin terminar desde hace demasiado: la instancia que los tenía se detuvo
+    @Modifying
+    @Query("UPDATE TrabajoReporte t SET t.estado = :estado, t.error = :error, t.terminado = :ahora, t.claveActiva = NULL " +
+           "WHERE t.terminado IS NULL AND t.creado < :limite")
+    int marcarAbandonados(@Param("limite") LocalDateTime limite, @Param("ahora") LocalDateTime ahora,
+                          @Param("estado") String estado, @Param("error") String error);
+    
+    @Modifying
+    @Query("DELETE FROM TrabajoReporte t WHERE t.terminado < :limite")
+    int deleteTerminadosAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,19 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.model.VersionEventos;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface VersionEventosRepository extends JpaRepository<VersionEventos, Long> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM VersionEventos v WHERE v.agregadoId = :agregadoId")
+    Optional<VersionEventos> findByIdForUpdate(@Param("agregadoId") Long agregadoId);
+}
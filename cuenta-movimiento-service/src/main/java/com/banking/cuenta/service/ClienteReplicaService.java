@@ -0,0 +1,141 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.ClienteReplica;
+import com.banking.cuenta.repository.ClienteReplicaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Réplica de clientes para los encabezados de reporte y la validación del titular de una cuenta,
+// sin llamar por HTTP al servicio de clientes. La tabla sobrevive a los reinicios; el mapa evita
+// ir a la base en cada consulta.
+@Service
+public class ClienteReplicaService {
+    
+    public static final String TOPICO_CLIENTES = "banking.clientes";
+    public static final String CLIENTE_ELIMINADO = "ClienteEliminado";
+    
+    private static final Logger log = LoggerFactory.getLogger(ClienteReplicaService.class);
+    
+    private final Map<Long, ClienteReplica> clientes = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private ClienteReplicaRepository clienteReplicaRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${banking.clientes.validar-titular:true}")
+    private boolean validarTitular;
+    
+    @PostConstruct
+    void cargar() {
+        clienteReplicaRepository.findAll().forEach(cliente -> clientes.put(cliente.getClienteId(), cliente));
+    }
+    
+    public String nombre(Long clienteId) {
+        return buscar(clienteId)
+                .map(ClienteReplica::getNombre)
+                .orElse("Cliente " + clienteId);
+    }
+    
+    public void validarTitular(Long clienteId) {
+        if (!validarTitular) {
+            return;
+        }
+        ClienteReplica cliente = buscar(clienteId)
+                .filter(replica -> !replica.getEliminado())
+                .orElseThrow(() -> new RuntimeException("Cliente no encontrado con ID: " + clienteId));
+        if (!cliente.getEstado()) {
+            throw new RuntimeException("El cliente está inactivo");
+        }
+    }
+    
+    // Grupo propio por instancia: cada instancia mantiene su mapa con todos los eventos, no con
+    // las particiones que le toquen. El tópico es compactado, así que releerlo al arrancar es barato.
+    @KafkaListener(topics = TOPICO_CLIENTES, groupId = "${spring.application.name}-clientes-${random.uuid}")
+    public void recibirEvento(String mensaje) {
+        try {
+            aplicar(objectMapper.readTree(mensaje));
+        } catch (JsonProcessingException | DateTimeParseException | IllegalArgumentException e) {
+            log.warn("Evento de cliente ignorado por no ser válido: {}", e.getMessage());
+        }
+    }
+    
+    private void aplicar(JsonNode evento) {
+        if (!evento.hasNonNull("agregadoId") || !evento.hasNonNull("fecha") || !evento.hasNonNull("tipo")) {
+            throw new IllegalArgumentException("faltan agregadoId, fecha o tipo");
+        }
+        Long clienteId = evento.get("agregadoId").asLong();
+        LocalDateTime fecha = LocalDateTime.parse(evento.get("fecha").asText());
+        Long version = evento.hasNonNull("version") ? evento.get("version").asLong() : null;
+        
+        try {
+            aplicar(clienteId, evento, fecha, version);
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia dio de alta el mismo cliente entre la lectura y el guardado: se compara con su fila
+            aplicar(clienteId, evento, fecha, version);
+        }
+    }
+    
+    private void aplicar(Long clienteId, JsonNode evento, LocalDateTime fecha, Long version) {
+        Optional<ClienteReplica> guardado = clienteReplicaRepository.findById(clienteId);
+        ClienteReplica cliente = guardado.orElseGet(() -> new ClienteReplica(clienteId));
+        // La entrega es al menos una vez y sin orden garantizado: se descarta lo que no sea posterior a lo
+        // aplicado, por versión del cliente o por fecha si alguno de los dos eventos no trae versión.
+        // Todas las instancias reciben cada evento y comparten la tabla: si otra ya lo guardó, el mapa
+        // se actualiza con la fila leída
+        boolean aplicado = version != null && cliente.getVersionEvento() != null
+                ? version <= cliente.getVersionEvento()
+                : cliente.getFechaEvento() != null && cliente.getFechaEvento().isAfter(fecha);
+        if (aplicado) {
+            guardado.ifPresent(fila -> clientes.put(clienteId, fila));
+            return;
+        }
+        
+        if (CLIENTE_ELIMINADO.equals(evento.get("tipo").asText())) {
+            cliente.setEliminado(true);
+            if (cliente.getNombre() == null) {
+                cliente.setNombre("Cliente " + clienteId);
+            }
+        } else {
+            JsonNode datos = evento.path("datos");
+            if (!datos.hasNonNull("nombre") || !datos.hasNonNull("estado")) {
+                throw new IllegalArgumentException("faltan los datos del cliente");
+            }
+            cliente.setNombre(datos.get("nombre").asText());
+            cliente.setEstado(datos.get("estado").asBoolean());
+            cliente.setEliminado(false);
+        }
+        cliente.setFechaEvento(fecha);
+        if (version != null) {
+            cliente.setVersionEvento(version);
+        }
+        clientes.put(clienteId, clienteReplicaRepository.save(cliente));
+    }
+    
+    // Sin entrada en el mapa se consulta la tabla: clientes cargados por la migración o por otra instancia
+    private Optional<ClienteReplica> buscar(Long clienteId) {
+        ClienteReplica cliente = clientes.get(clienteId);
+        if (cliente != null) {
+            return Optional.of(cliente);
+        }
+        Optional<ClienteReplica> replica = clienteReplicaRepository.findById(clienteId);
+        replica.ifPresent(encontrado -> clientes.put(clienteId, encontrado));
+        return replica;
+    }
+}
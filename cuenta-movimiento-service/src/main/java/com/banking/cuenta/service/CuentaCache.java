@@ -0,0 +1,162 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Caché de lectura de cuentas. Solo "cuentas" guarda la cuenta; por número y por cliente se guardan
+// identificadores que se comprueban contra ella al leer, así un cambio de número o de titular nunca
+// devuelve una cuenta ajena aunque la entrada secundaria haya quedado vieja.
+@Component
+public class CuentaCache {
+    
+    public static final String CUENTAS = "cuentas";
+    public static final String CUENTAS_POR_NUMERO = "cuentasPorNumero";
+    public static final String CUENTAS_POR_CLIENTE = "cuentasPorCliente";
+    
+    private static final Logger log = LoggerFactory.getLogger(CuentaCache.class);
+    
+    private final Cache cuentas;
+    private final Cache cuentasPorNumero;
+    private final Cache cuentasPorCliente;
+    
+    @Autowired
+    private CuentaRepository cuentaRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    public CuentaCache(CacheManager cacheManager) {
+        this.cuentas = cacheManager.getCache(CUENTAS);
+        this.cuentasPorNumero = cacheManager.getCache(CUENTAS_POR_NUMERO);
+        this.cuentasPorCliente = cacheManager.getCache(CUENTAS_POR_CLIENTE);
+    }
+    
+    public Optional<Cuenta> porId(Long cuentaId) {
+        Cuenta cuenta = cuentas.get(cuentaId, Cuenta.class);
+        if (cuenta != null) {
+            return Optional.of(cuenta);
+        }
+        return cuentaRepository.findById(cuentaId).map(this::guardar);
+    }
+    
+    public Optional<Cuenta> porNumero(String numeroCuenta) {
+        Long cuentaId = cuentasPorNumero.get(numeroCuenta, Long.class);
+        if (cuentaId != null) {
+            Optional<Cuenta> cuenta = porId(cuentaId).filter(c -> numeroCuenta.equals(c.getNumeroCuenta()));
+            if (cuenta.isPresent()) {
+                return cuenta;
+            }
+            cuentasPorNumero.evict(numeroCuenta);
+        }
+        Optional<Cuenta> cuenta = cuentaRepository.findByNumeroCuenta(numeroCuenta).map(this::guardar);
+        cuenta.ifPresent(c -> cuentasPorNumero.put(numeroCuenta, c.getCuentaId()));
+        return cuenta;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public List<Cuenta> porCliente(Long clienteId) {
+        List<Long> cuentaIds = cuentasPorCliente.get(clienteId, List.class);
+        if (cuentaIds != null) {
+            List<Cuenta> resultado = new ArrayList<>(cuentaIds.size());
+            for (Long cuentaId : cuentaIds) {
+                Optional<Cuenta> cuenta = porId(cuentaId).filter(c -> clienteId.equals(c.getClienteId()));
+                if (cuenta.isEmpty()) {
+                    break;
+                }
+                resultado.add(cuenta.get());
+            }
+            if (resultado.size() == cuentaIds.size()) {
+                return resultado;
+            }
+        }
+        List<Cuenta> resultado = cuentaRepository.findByClienteId(clienteId).stream().map(this::guardar).toList();
+        cuentasPorCliente.put(clienteId, resultado.stream().map(Cuenta::getCuentaId).toList());
+        return resultado;
+    }
+    
+    // Se descarta ya y otra vez al terminar la transacción: una lectura concurrente que recargue
+    // la versión anterior antes del commit no queda en la caché hasta el vencimiento
+    public void invalidar(Long cuentaId, Long clienteId) {
+        descartar(cuentaId, clienteId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    descartar(cuentaId, clienteId);
+                }
+            });
+        }
+    }
+    
+    // Invalidación entre instancias a partir de los eventos de cuentas publicados por el outbox.
+    // Grupo propio por instancia y solo eventos nuevos: lo anterior ya no está en ninguna caché viva.
+    @KafkaListener(topics = OutboxService.TOPICO_CUENTAS,
+                   groupId = "${spring.application.name}-cache-${random.uuid}",
+                   properties = "auto.offset.reset=latest")
+    public void recibirEvento(String mensaje) {
+        try {
+            JsonNode evento = objectMapper.readTree(mensaje);
+            if (!evento.hasNonNull("agregadoId")) {
+                throw new IllegalArgumentException("falta agregadoId");
+            }
+            JsonNode clienteId = evento.path("datos").path("clienteId");
+            Long cuentaId = evento.get("agregadoId").asLong();
+            descartar(cuentaId, clienteId.isNumber() ? clienteId.asLong() : null);
+            descartarSegundoNivel(cuentaId);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Evento de cuenta ignorado por no ser válido: {}", e.getMessage());
+        }
+    }
+    
+    private void descartar(Long cuentaId, Long clienteId) {
+        cuentas.evict(cuentaId);
+        if (clienteId != null) {
+            cuentasPorCliente.evict(clienteId);
+        }
+    }
+    
+    // La caché de segundo nivel de esta instancia no ve las escrituras de las demás. Las consultas
+    // cacheadas se descartan enteras: una cuenta nueva puede cambiar un resultado vacío o una lista.
+    private void descartarSegundoNivel(Long cuentaId) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictEntityData(Cuenta.class, cuentaId);
+        sessionFactory.getCache().evictQueryRegion(Cuenta.REGION_CONSULTAS);
+    }
+    
+    // Copia desligada del contexto de persistencia: la instancia en caché se comparte entre hilos
+    // y no debe reflejar cambios sin confirmar de la transacción que la leyó
+    private Cuenta guardar(Cuenta cuenta) {
+        Cuenta copia = new Cuenta();
+        copia.setCuentaId(cuenta.getCuentaId());
+        copia.setNumeroCuenta(cuenta.getNumeroCuenta());
+        copia.setTipoCuenta(cuenta.getTipoCuenta());
+        copia.setSaldoInicial(cuenta.getSaldoInicial());
+        copia.setEstado(cuenta.getEstado());
+        copia.setClienteId(cuenta.getClienteId());
+        copia.setFechaCreacion(cuenta.getFechaCreacion());
+        copia.setFechaActualizacion(cuenta.getFechaActualizacion());
+        cuentas.put(copia.getCuentaId(), copia);
+        return copia;
+    }
+}
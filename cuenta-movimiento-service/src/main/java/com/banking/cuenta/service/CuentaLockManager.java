@@ -0,0 +1,69 @@
+package com.banking.cuenta.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloqueos por cuenta repartidos en un número fijo de franjas. Cada bloqueo se
+ * mantiene hasta que termina la transacción actual, de modo que los hilos de esta
+ * instancia esperan aquí y no sobre el bloqueo de fila de la base de datos.
+ */
+@Component
+public class CuentaLockManager {
+    
+    private final ReentrantLock[] franjas;
+    private final long timeoutMs;
+    
+    public CuentaLockManager(@Value("${banking.ledger.lock-stripes:256}") int numeroFranjas,
+                             @Value("${banking.ledger.lock-timeout-ms:5000}") long timeoutMs) {
+        this.franjas = new ReentrantLock[numeroFranjas];
+        for (int i = 0; i < numeroFranjas; i++) {
+            this.franjas[i] = new ReentrantLock();
+        }
+        this.timeoutMs = timeoutMs;
+    }
+    
+    public void lock(Long cuentaId) {
+        adquirir(franja(cuentaId));
+    }
+    
+    // Adquiere las franjas en orden ascendente para que dos operaciones sobre las mismas cuentas no se bloqueen mutuamente
+    public void lockAll(Collection<Long> cuentaIds) {
+        cuentaIds.stream()
+                .mapToInt(this::franja)
+                .distinct()
+                .sorted()
+                .forEach(this::adquirir);
+    }
+    
+    private int franja(Long cuentaId) {
+        return Math.floorMod(Long.hashCode(cuentaId), franjas.length);
+    }
+    
+    private void adquirir(int indice) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("El bloqueo de cuenta requiere una transacción activa");
+        }
+        ReentrantLock lock = franjas[indice];
+        try {
+            if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("La cuenta está ocupada, intente nuevamente");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Operación interrumpida");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
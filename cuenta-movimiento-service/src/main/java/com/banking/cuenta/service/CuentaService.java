@@ -1,7 +1,13 @@
 package com.banking.cuenta.service;
 
 import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.SaldoCuenta;
+import com.banking.cuenta.model.dto.CuentaResumen;
+import com.banking.cuenta.model.dto.PaginaDTO;
 import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SaldoCuentaRepository;
+import com.banking.cuenta.util.Paginacion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
+// Las consultas son readOnly: con réplica configurada se leen de ella y las escrituras van al principal
 @Service
 @Transactional
 public class CuentaService {
@@ -16,26 +23,65 @@ public class CuentaService {
     @Autowired
     private CuentaRepository cuentaRepository;
     
+    @Autowired
+    private SaldoCuentaRepository saldoCuentaRepository;
+    
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+    
+    @Autowired
+    private CuentaLockManager cuentaLockManager;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private ClienteReplicaService clienteReplicaService;
+    
+    @Autowired
+    private CuentaCache cuentaCache;
+    
+    @Transactional(readOnly = true)
     public List<Cuenta> findAll() {
         return cuentaRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public PaginaDTO<CuentaResumen> listar(String cursor, int limite) {
+        int tamano = Paginacion.limite(limite);
+        Long cuentaId = 0L;
+        if (cursor != null) {
+            try {
+                cuentaId = Long.valueOf(Paginacion.decodificar(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+        }
+        List<CuentaResumen> filas = cuentaRepository.findPaginaPosteriorA(cuentaId, Paginacion.consulta(tamano));
+        return Paginacion.pagina(filas, tamano, cuenta -> Paginacion.codificar(cuenta.getCuentaId()));
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Cuenta> findById(Long id) {
-        return cuentaRepository.findById(id);
+        return cuentaCache.porId(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Cuenta> findByNumeroCuenta(String numeroCuenta) {
-        return cuentaRepository.findByNumeroCuenta(numeroCuenta);
+        return cuentaCache.porNumero(numeroCuenta);
     }
     
+    @Transactional(readOnly = true)
     public List<Cuenta> findByClienteId(Long clienteId) {
-        return cuentaRepository.findByClienteId(clienteId);
+        return cuentaCache.porCliente(clienteId);
     }
     
+    @Transactional(readOnly = true)
     public List<Cuenta> findByEstado(Boolean estado) {
         return cuentaRepository.findByEstado(estado);
     }
     
+    @Transactional(readOnly = true)
     public List<Cuenta> findActiveCuentasByClienteId(Long clienteId) {
         return cuentaRepository.findActiveCuentasByClienteId(clienteId);
     }
@@ -44,7 +90,12 @@ public class CuentaService {
         if (cuentaRepository.existsByNumeroCuenta(cuenta.getNumeroCuenta())) {
             throw new RuntimeException("Ya existe una cuenta con el número: " + cuenta.getNumeroCuenta());
         }
-        return cuentaRepository.save(cuenta);
+        clienteReplicaService.validarTitular(cuenta.getClienteId());
+        Cuenta nuevaCuenta = cuentaRepository.save(cuenta);
+        saldoCuentaRepository.save(new SaldoCuenta(nuevaCuenta.getCuentaId(), nuevaCuenta.getSaldoInicial(), nuevaCuenta.getEstado()));
+        outboxService.registrarCuenta(OutboxService.CUENTA_CREADA, nuevaCuenta);
+        cuentaCache.invalidar(nuevaCuenta.getCuentaId(), nuevaCuenta.getClienteId());
+        return nuevaCuenta;
     }
     
     public Cuenta update(Long id, Cuenta cuentaActualizada) {
@@ -56,6 +107,9 @@ public class CuentaService {
             cuentaRepository.existsByNumeroCuenta(cuentaActualizada.getNumeroCuenta())) {
             throw new RuntimeException("Ya existe una cuenta con el número: " + cuentaActualizada.getNumeroCuenta());
         }
+        if (!cuentaExistente.getClienteId().equals(cuentaActualizada.getClienteId())) {
+            clienteReplicaService.validarTitular(cuentaActualizada.getClienteId());
+        }
         
         // Actualizar campos
         cuentaExistente.setNumeroCuenta(cuentaActualizada.getNumeroCuenta());
@@ -64,20 +118,37 @@ public class CuentaService {
         cuentaExistente.setEstado(cuentaActualizada.getEstado());
         cuentaExistente.setClienteId(cuentaActualizada.getClienteId());
         
-        return cuentaRepository.save(cuentaExistente);
+        // Mantener la cabecera del saldo alineada con la cuenta
+        cuentaLockManager.lock(id);
+        saldoCuentaRepository.findByIdForUpdate(id).ifPresent(saldoCuenta -> {
+            saldoCuenta.setActiva(cuentaExistente.getEstado());
+            if (!movimientoRepository.existsByCuentaId(id)) {
+                saldoCuenta.setSaldo(cuentaExistente.getSaldoInicial());
+            }
+        });
+        
+        Cuenta cuentaGuardada = cuentaRepository.save(cuentaExistente);
+        outboxService.registrarCuenta(OutboxService.CUENTA_ACTUALIZADA, cuentaGuardada);
+        cuentaCache.invalidar(id, cuentaGuardada.getClienteId());
+        return cuentaGuardada;
     }
     
     public void deleteById(Long id) {
         if (!cuentaRepository.existsById(id)) {
             throw new RuntimeException("Cuenta no encontrada con ID: " + id);
         }
+        saldoCuentaRepository.findById(id).ifPresent(saldoCuentaRepository::delete);
         cuentaRepository.deleteById(id);
+        outboxService.registrarCuentaEliminada(id);
+        cuentaCache.invalidar(id, null);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsById(Long id) {
         return cuentaRepository.existsById(id);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByNumeroCuenta(String numeroCuenta) {
         return cuentaRepository.existsByNumeroCuenta(numeroCuenta);
     }
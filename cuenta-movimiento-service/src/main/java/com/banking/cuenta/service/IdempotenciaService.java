@@ -0,0 +1,167 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.SolicitudIdempotente;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SolicitudIdempotenteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// POST /api/movimientos con Idempotency-Key. La clave se guarda en la misma transacción que el
+// movimiento, así que existe si y solo si el movimiento se aplicó. Las repeticiones se responden
+// desde la caché local sin ir a la base; si la clave no está en memoria se busca en la tabla.
+// Cada entrada de la caché vence con la fila (fechaExpiracion), no un plazo fijo después de cargarla.
+@Service
+public class IdempotenciaService {
+    
+    public static final String CACHE = "idempotencia";
+    
+    private static final int LONGITUD_MAXIMA = 100;
+    
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaService.class);
+    
+    private final Cache cache;
+    
+    @Autowired
+    private MovimientoService movimientoService;
+    
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+    
+    @Autowired
+    private SolicitudIdempotenteRepository solicitudIdempotenteRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${banking.idempotencia.ttl-horas:24}")
+    private long ttlHoras;
+    
+    public IdempotenciaService(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE);
+    }
+    
+    public Movimiento registrar(String clave, Movimiento movimiento) {
+        if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA) {
+            throw new IllegalArgumentException("La clave de idempotencia debe tener entre 1 y " + LONGITUD_MAXIMA + " caracteres");
+        }
+        
+        ClaveRecordada recordada = cache.get(clave, ClaveRecordada.class);
+        if (recordada != null) {
+            return repeticion(recordada.getMovimiento(), movimiento);
+        }
+        
+        Optional<SolicitudIdempotente> solicitud = solicitudIdempotenteRepository.findById(clave);
+        boolean vencida = solicitud.isPresent() && solicitud.get().getFechaExpiracion().isBefore(LocalDateTime.now());
+        if (solicitud.isPresent() && !vencida) {
+            return repeticion(recordar(solicitud.get(), movimientoOriginal(solicitud.get())), movimiento);
+        }
+        
+        LocalDateTime fechaExpiracion = LocalDateTime.now().plusHours(ttlHoras);
+        try {
+            Movimiento nuevo = new TransactionTemplate(transactionManager).execute(status -> {
+                if (vencida) {
+                    // Hibernate ejecuta los INSERT antes que los DELETE: la clave vieja se borra ya
+                    solicitudIdempotenteRepository.deleteById(clave);
+                    solicitudIdempotenteRepository.flush();
+                }
+                Movimiento guardado = movimientoService.save(movimiento);
+                solicitudIdempotenteRepository.save(new SolicitudIdempotente(clave, guardado.getMovimientoId(),
+                        fechaExpiracion));
+                return guardado;
+            });
+            return recordar(clave, nuevo, fechaExpiracion);
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición con la misma clave confirmó primero: esta se deshizo entera y responde con aquella
+            SolicitudIdempotente ganadora = solicitudIdempotenteRepository.findById(clave).orElseThrow(() -> e);
+            return repeticion(recordar(ganadora, movimientoOriginal(ganadora)), movimiento);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${banking.idempotencia.purga-ms:3600000}")
+    public void purgarVencidas() {
+        Integer purgadas = new TransactionTemplate(transactionManager)
+                .execute(status -> solicitudIdempotenteRepository.deleteVencidas(LocalDateTime.now()));
+        if (purgadas != null && purgadas > 0) {
+            log.info("Claves de idempotencia vencidas purgadas: {}", purgadas);
+        }
+    }
+    
+    // La misma clave con otro movimiento es un error del cliente, no una repetición
+    private Movimiento repeticion(Movimiento original, Movimiento solicitado) {
+        boolean mismoMovimiento = original.getCuentaId().equals(solicitado.getCuentaId())
+                && original.getTipoMovimiento().equals(solicitado.getTipoMovimiento())
+                && original.getValor().compareTo(solicitado.getValor()) == 0;
+        if (!mismoMovimiento) {
+            throw new ClaveReutilizadaException("La clave de idempotencia ya se usó con otro movimiento");
+        }
+        return original;
+    }
+    
+    private Movimiento movimientoOriginal(SolicitudIdempotente solicitud) {
+        return movimientoRepository.findById(solicitud.getMovimientoId())
+                .orElseThrow(() -> new RuntimeException("El movimiento de esta clave de idempotencia fue eliminado"));
+    }
+    
+    // Solo se recuerda lo confirmado: dentro de una transacción externa se espera a su commit
+    private Movimiento recordar(SolicitudIdempotente solicitud, Movimiento movimiento) {
+        return recordar(solicitud.getClave(), movimiento, solicitud.getFechaExpiracion());
+    }
+    
+    private Movimiento recordar(String clave, Movimiento movimiento, LocalDateTime fechaExpiracion) {
+        ClaveRecordada recordada = new ClaveRecordada(movimiento, fechaExpiracion);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(clave, recordada);
+                }
+            });
+        } else {
+            cache.put(clave, recordada);
+        }
+        return movimiento;
+    }
+    
+    // Entrada de la caché: el movimiento original y el vencimiento de su fila (ver IdempotenciaConfig)
+    public static class ClaveRecordada {
+        
+        private final Movimiento movimiento;
+        private final LocalDateTime fechaExpiracion;
+        
+        public ClaveRecordada(Movimiento movimiento, LocalDateTime fechaExpiracion) {
+            this.movimiento = movimiento;
+            this.fechaExpiracion = fechaExpiracion;
+        }
+        
+        public Movimiento getMovimiento() {
+            return movimiento;
+        }
+        
+        public LocalDateTime getFechaExpiracion() {
+            return fechaExpiracion;
+        }
+    }
+    
+    // El controlador la responde con 422: el pedido es válido pero contradice el de la misma clave
+    public static class ClaveReutilizadaException extends RuntimeException {
+        
+        public ClaveReutilizadaException(String mensaje) {
+            super(mensaje);
+        }
+    }
+}
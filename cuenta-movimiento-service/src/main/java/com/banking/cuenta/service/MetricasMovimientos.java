@@ -0,0 +1,38 @@
+package com.banking.cuenta.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Contador banking.movimientos.rechazados con una etiqueta "motivo" por cada causa de rechazo del libro mayor
+@Component
+public class MetricasMovimientos {
+    
+    public static final String SALDO_NO_DISPONIBLE = "saldo_no_disponible";
+    public static final String CUENTA_INACTIVA = "cuenta_inactiva";
+    public static final String TIPO_INVALIDO = "tipo_invalido";
+    
+    private final Map<String, Counter> rechazos;
+    
+    public MetricasMovimientos(MeterRegistry meterRegistry) {
+        // Se registran al arrancar para que la serie exista en cero antes del primer rechazo
+        this.rechazos = Map.of(
+                SALDO_NO_DISPONIBLE, contador(meterRegistry, SALDO_NO_DISPONIBLE),
+                CUENTA_INACTIVA, contador(meterRegistry, CUENTA_INACTIVA),
+                TIPO_INVALIDO, contador(meterRegistry, TIPO_INVALIDO));
+    }
+    
+    public RuntimeException rechazo(String motivo, String mensaje) {
+        rechazos.get(motivo).increment();
+        return new RuntimeException(mensaje);
+    }
+    
+    private static Counter contador(MeterRegistry meterRegistry, String motivo) {
+        return Counter.builder("banking.movimientos.rechazados")
+                .description("Movimientos rechazados por el libro mayor")
+                .tag("motivo", motivo)
+                .register(meterRegistry);
+    }
+}
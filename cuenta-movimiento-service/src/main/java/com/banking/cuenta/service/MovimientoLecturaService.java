@@ -0,0 +1,109 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.dto.EstadoCuentaDTO;
+import com.banking.cuenta.model.dto.FilaEstadoCuenta;
+import com.banking.cuenta.model.dto.LineaEstadoCuentaDTO;
+import com.banking.cuenta.model.dto.MovimientoDTO;
+import com.banking.cuenta.model.dto.MovimientoLecturaDTO;
+import com.banking.cuenta.repository.MovimientoLecturaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Ruta de lectura reactiva. Sin @Transactional: las escrituras siguen en JPA y estas consultas
+// de una sola sentencia no necesitan transacción
+@Service
+public class MovimientoLecturaService {
+    
+    @Autowired
+    private MovimientoLecturaRepository movimientoLecturaRepository;
+    
+    @Autowired
+    private ClienteReplicaService clienteReplicaService;
+    
+    public Flux<MovimientoLecturaDTO> findByCuentaId(Long cuentaId, boolean descendente) {
+        return movimientoLecturaRepository.findByCuentaId(cuentaId, descendente);
+    }
+    
+    // Cada movimiento sale apenas llega la fila y el resumen de la cuenta cuando empieza la siguiente
+    // (o termina el flujo): en memoria solo queda el total acumulado de la cuenta en curso
+    public Flux<LineaEstadoCuentaDTO> generarEstadoCuenta(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        String fecha = ReporteService.fechaReporte();
+        // La réplica puede leer por JPA si el cliente no está en memoria: se resuelve fuera de los hilos de R2DBC
+        return Mono.zip(Mono.fromCallable(() -> clienteReplicaService.nombre(clienteId)).subscribeOn(Schedulers.boundedElastic()),
+                        movimientoLecturaRepository.totalesDiasCompletos(clienteId,
+                                SaldoDiarioService.primerDiaCompleto(fechaInicio), SaldoDiarioService.ultimoDiaCompleto(fechaFin)),
+                        movimientoLecturaRepository.saldosEnFranjas(clienteId))
+                .flatMapMany(datos -> {
+                    // Un acumulador por suscripción; concatMapIterable entrega las filas de a una y en orden
+                    EstadoEnCurso estado = new EstadoEnCurso(fecha, datos.getT1(), datos.getT2(), datos.getT3(), fechaInicio, fechaFin);
+                    return movimientoLecturaRepository.streamEstadoCuenta(clienteId, fechaInicio, fechaFin)
+                            .concatMapIterable(estado::agregar)
+                            .concatWith(Flux.defer(() -> Flux.fromIterable(estado.cerrar())));
+                });
+    }
+    
+    // Mismo recorrido que ReporteService.recorrer, con las líneas como resultado en lugar de un receptor
+    private static class EstadoEnCurso {
+        
+        private final String fecha;
+        private final String cliente;
+        private final Map<Long, BigDecimal> totalesDiarios;
+        private final Map<Long, BigDecimal> saldosEnFranjas;
+        private final LocalDateTime fechaInicio;
+        private final LocalDateTime fechaFin;
+        private FilaEstadoCuenta cuentaActual;
+        private BigDecimal totalMovimientos = BigDecimal.ZERO;
+        
+        EstadoEnCurso(String fecha, String cliente, Map<Long, BigDecimal> totalesDiarios, Map<Long, BigDecimal> saldosEnFranjas,
+                      LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+            this.fecha = fecha;
+            this.cliente = cliente;
+            this.totalesDiarios = totalesDiarios;
+            this.saldosEnFranjas = saldosEnFranjas;
+            this.fechaInicio = fechaInicio;
+            this.fechaFin = fechaFin;
+        }
+        
+        List<LineaEstadoCuentaDTO> agregar(FilaEstadoCuenta fila) {
+            List<LineaEstadoCuentaDTO> lineas = new ArrayList<>(2);
+            if (cuentaActual == null || !cuentaActual.getCuentaId().equals(fila.getCuentaId())) {
+                lineas.addAll(cerrar());
+                cuentaActual = fila;
+                totalMovimientos = totalesDiarios.getOrDefault(fila.getCuentaId(), BigDecimal.ZERO);
+            }
+            
+            // Cuenta sin movimientos en el período: el LEFT JOIN devuelve una sola fila sin movimiento
+            if (fila.getTipoMovimiento() != null) {
+                if (!SaldoDiarioService.enDiaCompleto(fila.getFecha(), fechaInicio, fechaFin)) {
+                    BigDecimal valor = "Deposito".equals(fila.getTipoMovimiento()) ? fila.getValor() : fila.getValor().negate();
+                    totalMovimientos = totalMovimientos.add(valor);
+                }
+                lineas.add(new LineaEstadoCuentaDTO(fila.getNumeroCuenta(),
+                        new MovimientoDTO(fila.getFecha(), fila.getTipoMovimiento(), fila.getValor(), fila.getSaldo()), null));
+            }
+            return lineas;
+        }
+        
+        // El resumen de la cuenta en curso, si hay una
+        List<LineaEstadoCuentaDTO> cerrar() {
+            if (cuentaActual == null) {
+                return List.of();
+            }
+            FilaEstadoCuenta cuenta = cuentaActual;
+            cuentaActual = null;
+            EstadoCuentaDTO resumen = new EstadoCuentaDTO(fecha, cliente, cuenta.getNumeroCuenta(), cuenta.getTipoCuenta(),
+                    cuenta.getSaldoInicial(), cuenta.getEstado(), totalMovimientos,
+                    ReporteService.saldoDisponible(cuenta, saldosEnFranjas), null);
+            return List.of(new LineaEstadoCuentaDTO(cuenta.getNumeroCuenta(), null, resumen));
+        }
+    }
+}
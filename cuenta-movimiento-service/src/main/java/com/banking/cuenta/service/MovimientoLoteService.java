@@ -0,0 +1,189 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.SaldoCuenta;
+import com.banking.cuenta.model.dto.ResultadoLoteDTO;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Ingesta masiva: agrupa por cuenta y confirma cada cuenta en su propia transacción
+@Service
+public class MovimientoLoteService {
+    
+    @Autowired
+    private SaldoCuentaService saldoCuentaService;
+    
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+    
+    @Autowired
+    private SaldoDiarioService saldoDiarioService;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${banking.lote.max-items:10000}")
+    private int maxItems;
+    
+    @Value("${banking.lote.tamano-bloque:1000}")
+    private int tamanoBloque;
+    
+    public List<ResultadoLoteDTO> procesar(List<Movimiento> movimientos) {
+        if (movimientos.size() > maxItems) {
+            throw new RuntimeException("El lote excede el máximo de " + maxItems + " movimientos");
+        }
+        return procesar(movimientos, 0);
+    }
+    
+    // Variante NDJSON: un movimiento por línea, procesado y respondido por bloques para no acumular el lote en memoria
+    public void procesarNdjson(InputStream entrada, OutputStream salida) throws IOException {
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        List<Movimiento> bloque = new ArrayList<>(tamanoBloque);
+        int desplazamiento = 0;
+        String linea;
+        
+        while ((linea = lector.readLine()) != null) {
+            if (linea.isBlank()) {
+                continue;
+            }
+            bloque.add(leerLinea(linea));
+            if (bloque.size() == tamanoBloque) {
+                escribirResultados(procesar(bloque, desplazamiento), salida);
+                desplazamiento += bloque.size();
+                bloque.clear();
+            }
+        }
+        if (!bloque.isEmpty()) {
+            escribirResultados(procesar(bloque, desplazamiento), salida);
+        }
+    }
+    
+    private List<ResultadoLoteDTO> procesar(List<Movimiento> movimientos, int desplazamiento) {
+        ResultadoLoteDTO[] resultados = new ResultadoLoteDTO[movimientos.size()];
+        Map<Long, List<Integer>> posicionesPorCuenta = new LinkedHashMap<>();
+        
+        for (int i = 0; i < movimientos.size(); i++) {
+            Movimiento movimiento = movimientos.get(i);
+            String error = validar(movimiento);
+            if (error != null) {
+                Long cuentaId = movimiento != null ? movimiento.getCuentaId() : null;
+                resultados[i] = ResultadoLoteDTO.rechazado(desplazamiento + i, cuentaId, error);
+            } else {
+                posicionesPorCuenta.computeIfAbsent(movimiento.getCuentaId(), k -> new ArrayList<>()).add(i);
+            }
+        }
+        
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        posicionesPorCuenta.forEach((cuentaId, posiciones) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        procesarCuenta(cuentaId, posiciones, movimientos, resultados, desplazamiento));
+            } catch (RuntimeException e) {
+                // Un fallo al nivel de la cuenta (inexistente, bloqueo agotado) rechaza todos sus movimientos
+                for (Integer posicion : posiciones) {
+                    resultados[posicion] = ResultadoLoteDTO.rechazado(desplazamiento + posicion, cuentaId, e.getMessage());
+                }
+            }
+        });
+        
+        return Arrays.asList(resultados);
+    }
+    
+    private void procesarCuenta(Long cuentaId, List<Integer> posiciones, List<Movimiento> movimientos,
+                                ResultadoLoteDTO[] resultados, int desplazamiento) {
+        SaldoCuenta saldoCuenta = saldoCuentaService.bloquearSaldo(cuentaId);
+        List<Integer> aceptados = new ArrayList<>();
+        
+        // Cadena de saldos calculada en memoria sobre el saldo bloqueado
+        for (Integer posicion : posiciones) {
+            Movimiento movimiento = movimientos.get(posicion);
+            try {
+                BigDecimal nuevoSaldo = saldoCuentaService.aplicarMovimiento(saldoCuenta, movimiento);
+                movimiento.setSaldo(nuevoSaldo);
+                aceptados.add(posicion);
+            } catch (RuntimeException e) {
+                resultados[posicion] = ResultadoLoteDTO.rechazado(desplazamiento + posicion, cuentaId, e.getMessage());
+            }
+        }
+        
+        List<Movimiento> nuevos = aceptados.stream().map(movimientos::get).collect(Collectors.toList());
+        movimientoRepository.saveAll(nuevos);
+        saldoDiarioService.registrar(nuevos);
+        for (Movimiento movimiento : nuevos) {
+            outboxService.registrarMovimiento(OutboxService.MOVIMIENTO_REGISTRADO, movimiento);
+        }
+        entityManager.flush();
+        
+        for (Integer posicion : aceptados) {
+            Movimiento movimiento = movimientos.get(posicion);
+            resultados[posicion] = ResultadoLoteDTO.aceptado(desplazamiento + posicion, cuentaId,
+                    movimiento.getMovimientoId(), movimiento.getSaldo());
+        }
+        entityManager.clear();
+    }
+    
+    private String validar(Movimiento movimiento) {
+        if (movimiento == null) {
+            return "Línea NDJSON inválida";
+        }
+        // El saldo lo calcula el servicio y el identificador lo asigna la secuencia
+        movimiento.setMovimientoId(null);
+        String errores = validator.validate(movimiento).stream()
+                .filter(violacion -> !"saldo".equals(violacion.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        return errores.isEmpty() ? null : errores;
+    }
+    
+    private Movimiento leerLinea(String linea) {
+        try {
+            return objectMapper.readValue(linea, Movimiento.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    private void escribirResultados(List<ResultadoLoteDTO> resultados, OutputStream salida) throws IOException {
+        for (ResultadoLoteDTO resultado : resultados) {
+            salida.write(objectMapper.writeValueAsBytes(resultado));
+            salida.write('\n');
+        }
+        salida.flush();
+    }
+}
@@ -1,143 +1,176 @@
 package com.banking.cuenta.service;
 
-import com.banking.cuenta.model.Cuenta;
 import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.SaldoCuenta;
 import com.banking.cuenta.model.dto.EstadoCuentaDTO;
-import com.banking.cuenta.model.dto.MovimientoDTO;
+import com.banking.cuenta.model.dto.MovimientoResumen;
+import com.banking.cuenta.model.dto.PaginaDTO;
 import com.banking.cuenta.repository.CuentaRepository;
 import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.util.Paginacion;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.OptionalInt;
 
+// Las consultas son readOnly: con réplica configurada se leen de ella y las escrituras van al principal
 @Service
 @Transactional
 public class MovimientoService {
     
+    // Valores de arranque del cursor para la primera página (dentro del rango de DATETIME de MySQL)
+    private static final LocalDateTime FECHA_MINIMA = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime FECHA_MAXIMA = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    
     @Autowired
     private MovimientoRepository movimientoRepository;
     
     @Autowired
     private CuentaRepository cuentaRepository;
     
+    @Autowired
+    private SaldoCuentaService saldoCuentaService;
+    
+    @Autowired
+    private ReporteService reporteService;
+    
+    @Autowired
+    private SaldoFranjaService saldoFranjaService;
+    
+    @Autowired
+    private SaldoDiarioService saldoDiarioService;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Transactional(readOnly = true)
     public List<Movimiento> findAll() {
         return movimientoRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public PaginaDTO<MovimientoResumen> listar(String cursor, int limite) {
+        int tamano = Paginacion.limite(limite);
+        LocalDateTime fecha = FECHA_MAXIMA;
+        Long movimientoId = Long.MAX_VALUE;
+        if (cursor != null) {
+            String[] partes = Paginacion.decodificar(cursor, 2);
+            fecha = leerFecha(partes[0]);
+            movimientoId = leerId(partes[1]);
+        }
+        List<MovimientoResumen> filas = movimientoRepository.findPaginaAnteriorA(fecha, movimientoId, Paginacion.consulta(tamano));
+        return Paginacion.pagina(filas, tamano, this::cursor);
+    }
+    
+    @Transactional(readOnly = true)
+    public PaginaDTO<MovimientoResumen> listarPorCuenta(Long cuentaId, String cursor, int limite, boolean descendente) {
+        int tamano = Paginacion.limite(limite);
+        LocalDateTime fecha = descendente ? FECHA_MAXIMA : FECHA_MINIMA;
+        Long movimientoId = descendente ? Long.MAX_VALUE : 0L;
+        if (cursor != null) {
+            String[] partes = Paginacion.decodificar(cursor, 2);
+            fecha = leerFecha(partes[0]);
+            movimientoId = leerId(partes[1]);
+        }
+        List<MovimientoResumen> filas = descendente
+                ? movimientoRepository.findPaginaPorCuentaAnteriorA(cuentaId, fecha, movimientoId, Paginacion.consulta(tamano))
+                : movimientoRepository.findPaginaPorCuentaPosteriorA(cuentaId, fecha, movimientoId, Paginacion.consulta(tamano));
+        return Paginacion.pagina(filas, tamano, this::cursor);
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Movimiento> findById(Long id) {
         return movimientoRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public List<Movimiento> findByCuentaId(Long cuentaId) {
         return movimientoRepository.findByCuentaId(cuentaId);
     }
     
+    @Transactional(readOnly = true)
     public List<Movimiento> findByCuentaIdOrderByFechaDesc(Long cuentaId) {
         return movimientoRepository.findByCuentaIdOrderByFechaDesc(cuentaId);
     }
     
+    @Transactional(readOnly = true)
     public List<Movimiento> findByCuentaIdAndFechaBetween(Long cuentaId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         return movimientoRepository.findByCuentaIdAndFechaBetween(cuentaId, fechaInicio, fechaFin);
     }
     
+    @Transactional(readOnly = true)
     public List<Movimiento> findByClienteIdAndFechaBetween(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         return movimientoRepository.findByClienteIdAndFechaBetween(clienteId, fechaInicio, fechaFin);
     }
     
+    @Timed(value = "banking.movimientos.registro", histogram = true, percentiles = {0.5, 0.95, 0.99})
     public Movimiento save(Movimiento movimiento) {
-        // Validar que la cuenta existe
-        Cuenta cuenta = cuentaRepository.findById(movimiento.getCuentaId())
-                .orElseThrow(() -> new RuntimeException("Cuenta no encontrada con ID: " + movimiento.getCuentaId()));
+        // Los depósitos de una cuenta caliente van a una franja y no esperan por la cabecera
+        OptionalInt franja = "Deposito".equals(movimiento.getTipoMovimiento())
+                ? saldoFranjaService.depositar(movimiento)
+                : OptionalInt.empty();
         
-        if (!cuenta.getEstado()) {
-            throw new RuntimeException("La cuenta está inactiva");
+        if (franja.isEmpty()) {
+            SaldoCuenta saldoCuenta = saldoCuentaService.bloquearSaldo(movimiento.getCuentaId());
+            BigDecimal nuevoSaldo = saldoCuentaService.aplicarMovimiento(saldoCuenta, movimiento);
+            movimiento.setSaldo(nuevoSaldo);
         }
         
-        // Calcular el saldo actual
-        BigDecimal saldoActual = calcularSaldoActual(movimiento.getCuentaId());
-        BigDecimal nuevoSaldo;
-        
-        if ("Deposito".equals(movimiento.getTipoMovimiento())) {
-            nuevoSaldo = saldoActual.add(movimiento.getValor());
-        } else if ("Retiro".equals(movimiento.getTipoMovimiento())) {
-            if (saldoActual.compareTo(movimiento.getValor()) < 0) {
-                throw new RuntimeException("Saldo no disponible");
-            }
-            nuevoSaldo = saldoActual.subtract(movimiento.getValor());
+        Movimiento nuevoMovimiento = movimientoRepository.save(movimiento);
+        if (franja.isPresent()) {
+            saldoDiarioService.registrar(nuevoMovimiento, franja.getAsInt());
         } else {
-            throw new RuntimeException("Tipo de movimiento no válido");
+            saldoDiarioService.registrar(nuevoMovimiento);
         }
-        
-        movimiento.setSaldo(nuevoSaldo);
-        return movimientoRepository.save(movimiento);
+        outboxService.registrarMovimiento(OutboxService.MOVIMIENTO_REGISTRADO, nuevoMovimiento);
+        return nuevoMovimiento;
     }
     
     public void deleteById(Long id) {
-        if (!movimientoRepository.existsById(id)) {
-            throw new RuntimeException("Movimiento no encontrado con ID: " + id);
-        }
-        movimientoRepository.deleteById(id);
+        Movimiento movimiento = movimientoRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Movimiento no encontrado con ID: " + id));
+        
+        movimientoRepository.delete(movimiento);
+        movimientoRepository.flush();
+        saldoCuentaService.recalcularSaldo(movimiento);
+        saldoDiarioService.descontar(movimiento);
+        outboxService.registrarMovimiento(OutboxService.MOVIMIENTO_ELIMINADO, movimiento);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsById(Long id) {
         return movimientoRepository.existsById(id);
     }
     
-    private BigDecimal calcularSaldoActual(Long cuentaId) {
-        Movimiento ultimoMovimiento = movimientoRepository.findLastMovimientoByCuentaId(cuentaId);
-        if (ultimoMovimiento != null) {
-            return ultimoMovimiento.getSaldo();
-        } else {
-            // Si no hay movimientos, usar el saldo inicial de la cuenta
-            Cuenta cuenta = cuentaRepository.findById(cuentaId)
-                    .orElseThrow(() -> new RuntimeException("Cuenta no encontrada"));
-            return cuenta.getSaldoInicial();
+    @Transactional(readOnly = true)
+    public List<EstadoCuentaDTO> generarEstadoCuenta(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        return reporteService.generarEstadoCuenta(clienteId, fechaInicio, fechaFin);
+    }
+    
+    private String cursor(MovimientoResumen movimiento) {
+        return Paginacion.codificar(movimiento.getFecha(), movimiento.getMovimientoId());
+    }
+    
+    private LocalDateTime leerFecha(String valor) {
+        try {
+            return LocalDateTime.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido");
         }
     }
     
-    public List<EstadoCuentaDTO> generarEstadoCuenta(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        List<Cuenta> cuentas = cuentaRepository.findActiveCuentasByClienteId(clienteId);
-        List<EstadoCuentaDTO> estadosCuenta = new ArrayList<>();
-        
-        for (Cuenta cuenta : cuentas) {
-            List<Movimiento> movimientos = findByCuentaIdAndFechaBetween(cuenta.getCuentaId(), fechaInicio, fechaFin);
-            
-            // Calcular total de movimientos en el período
-            BigDecimal totalMovimientos = movimientos.stream()
-                    .map(mov -> "Deposito".equals(mov.getTipoMovimiento()) ? mov.getValor() : mov.getValor().negate())
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-            // Obtener saldo actual
-            BigDecimal saldoActual = calcularSaldoActual(cuenta.getCuentaId());
-            
-            // Convertir movimientos a DTOs
-            List<MovimientoDTO> movimientosDTO = movimientos.stream()
-                    .map(mov -> new MovimientoDTO(mov.getFecha(), mov.getTipoMovimiento(), mov.getValor(), mov.getSaldo()))
-                    .collect(Collectors.toList());
-            
-            EstadoCuentaDTO estadoCuenta = new EstadoCuentaDTO(
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
-                    "Cliente " + clienteId, // En un caso real, se obtendría del servicio de clientes
-                    cuenta.getNumeroCuenta(),
-                    cuenta.getTipoCuenta(),
-                    cuenta.getSaldoInicial(),
-                    cuenta.getEstado(),
-                    totalMovimientos,
-                    saldoActual,
-                    movimientosDTO
-            );
-            
-            estadosCuenta.add(estadoCuenta);
+    private Long leerId(String valor) {
+        try {
+            return Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
         }
-        
-        return estadosCuenta;
     }
 }
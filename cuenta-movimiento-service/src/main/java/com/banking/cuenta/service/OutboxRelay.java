@@ -0,0 +1,96 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.EventoOutbox;
+import com.banking.cuenta.repository.EventoOutboxRepository;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Publica los eventos del outbox por lotes y los borra solo cuando Kafka confirmó todo el lote.
+// Si algo falla el lote se reintenta entero: la entrega es al menos una vez.
+@Component
+@ConditionalOnProperty(prefix = "banking.outbox", name = "relay-habilitado", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+    
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${banking.outbox.tamano-lote:500}")
+    private int tamanoLote;
+    
+    @Value("${banking.outbox.timeout-envio-ms:10000}")
+    private long timeoutEnvioMs;
+    
+    @Scheduled(fixedDelayString = "${banking.outbox.intervalo-ms:500}")
+    public void publicarPendientes() {
+        try {
+            // Lotes llenos indican que hay más pendientes: se vacía la cola sin esperar al siguiente intervalo
+            while (publicarLote() == tamanoLote) {
+                log.debug("Outbox con más eventos pendientes, publicando el siguiente lote");
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo publicar el outbox, se reintentará: {}", e.getMessage());
+        }
+    }
+    
+    int publicarLote() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer publicados = transactionTemplate.execute(status -> {
+            List<EventoOutbox> lote = eventoOutboxRepository.findPendientes(Limit.of(tamanoLote));
+            if (lote.isEmpty()) {
+                return 0;
+            }
+            
+            List<CompletableFuture<SendResult<String, String>>> envios = new ArrayList<>(lote.size());
+            for (EventoOutbox evento : lote) {
+                ProducerRecord<String, String> registro =
+                        new ProducerRecord<>(evento.getTopico(), evento.getClave(), evento.getPayload());
+                registro.headers().add("tipo", evento.getTipo().getBytes(StandardCharsets.UTF_8));
+                envios.add(kafkaTemplate.send(registro));
+            }
+            esperarConfirmacion(envios);
+            
+            eventoOutboxRepository.deleteAllInBatch(lote);
+            return lote.size();
+        });
+        return publicados != null ? publicados : 0;
+    }
+    
+    private void esperarConfirmacion(List<CompletableFuture<SendResult<String, String>>> envios) {
+        try {
+            CompletableFuture.allOf(envios.toArray(new CompletableFuture[0]))
+                    .get(timeoutEnvioMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Publicación del outbox interrumpida", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Kafka no confirmó el lote del outbox", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.EventoOutbox;
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.VersionEventos;
+import com.banking.cuenta.model.dto.EventoDTO;
+import com.banking.cuenta.repository.EventoOutboxRepository;
+import com.banking.cuenta.repository.VersionEventosRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Registra los eventos en la tabla outbox; OutboxRelay los publica en Kafka después del commit.
+// Cada evento lleva la versión de su agregado: el orden de publicación no está garantizado entre
+// transacciones concurrentes, así que los consumidores descartan lo que no supere la versión aplicada.
+@Service
+public class OutboxService {
+    
+    public static final String TOPICO_MOVIMIENTOS = "banking.movimientos";
+    public static final String TOPICO_CUENTAS = "banking.cuentas";
+    
+    public static final String MOVIMIENTO_REGISTRADO = "MovimientoRegistrado";
+    public static final String MOVIMIENTO_ELIMINADO = "MovimientoEliminado";
+    public static final String CUENTA_CREADA = "CuentaCreada";
+    public static final String CUENTA_ACTUALIZADA = "CuentaActualizada";
+    public static final String CUENTA_ELIMINADA = "CuentaEliminada";
+    
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+    
+    @Autowired
+    private VersionEventosRepository versionEventosRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // La clave es la cuenta, así sus eventos caen en la misma partición. El agregado es el movimiento,
+    // que solo se registra (versión 1) y se elimina (versión 2): no hace falta bloquear nada para
+    // numerarlo, y los depósitos concurrentes de una cuenta caliente siguen sin esperarse entre sí.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarMovimiento(String tipo, Movimiento movimiento) {
+        long version = MOVIMIENTO_ELIMINADO.equals(tipo) ? 2 : 1;
+        registrar(TOPICO_MOVIMIENTOS, movimiento.getCuentaId(), tipo, movimiento.getMovimientoId(), version, movimiento);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCuenta(String tipo, Cuenta cuenta) {
+        Long cuentaId = cuenta.getCuentaId();
+        registrar(TOPICO_CUENTAS, cuentaId, tipo, cuentaId, siguienteVersion(cuentaId, CUENTA_CREADA.equals(tipo)), cuenta);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCuentaEliminada(Long cuentaId) {
+        registrar(TOPICO_CUENTAS, cuentaId, CUENTA_ELIMINADA, cuentaId, siguienteVersion(cuentaId, false), null);
+    }
+    
+    // La fila de la cuenta queda bloqueada hasta el commit: dos cambios de la misma cuenta se numeran en
+    // el orden en que se confirman. En un alta no se consulta antes de insertar, porque un SELECT FOR UPDATE
+    // sobre una fila inexistente bloquea el hueco y dos altas concurrentes podrían caer en deadlock.
+    private long siguienteVersion(Long agregadoId, boolean alta) {
+        VersionEventos version = alta
+                ? new VersionEventos(agregadoId)
+                : versionEventosRepository.findByIdForUpdate(agregadoId).orElseGet(() -> new VersionEventos(agregadoId));
+        long siguiente = version.siguiente();
+        versionEventosRepository.save(version);
+        return siguiente;
+    }
+    
+    private void registrar(String topico, Long clave, String tipo, Long agregadoId, long version, Object datos) {
+        String eventoId = UUID.randomUUID().toString();
+        EventoDTO evento = new EventoDTO(eventoId, tipo, agregadoId, version, LocalDateTime.now(), datos);
+        try {
+            String payload = objectMapper.writeValueAsString(evento);
+            eventoOutboxRepository.save(new EventoOutbox(eventoId, topico, String.valueOf(clave), tipo, payload));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("No se pudo serializar el evento " + tipo, e);
+        }
+    }
+}
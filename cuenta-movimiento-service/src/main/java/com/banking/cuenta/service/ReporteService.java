@@ -0,0 +1,244 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.dto.EstadoCuentaDTO;
+import com.banking.cuenta.model.dto.FilaEstadoCuenta;
+import com.banking.cuenta.model.dto.MovimientoDTO;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Estado de cuenta a partir de una única consulta ordenada por cuenta: las filas se agrupan
+// al vuelo y se escriben a medida que llegan, sin cargar el período completo en memoria.
+// El total del período sale de los resumenes diarios; los movimientos solo se listan.
+@Service
+@Transactional(readOnly = true)
+public class ReporteService {
+    
+    private static final String CABECERA_CSV = "fecha,cliente,numeroCuenta,tipo,saldoInicial,estado,"
+            + "fechaMovimiento,tipoMovimiento,valor,saldo,movimiento,saldoDisponible\n";
+    
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ClienteReplicaService clienteReplicaService;
+    
+    @Autowired
+    private SaldoDiarioService saldoDiarioService;
+    
+    @Autowired
+    private SaldoFranjaService saldoFranjaService;
+    
+    @Timed(value = "banking.reportes.estado.cuenta", extraTags = {"formato", "streaming"},
+           histogram = true, percentiles = {0.5, 0.95, 0.99})
+    public void escribirEstadoCuenta(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                     OutputStream salida) throws IOException {
+        String fecha = fechaReporte();
+        String cliente = clienteReplicaService.nombre(clienteId);
+        
+        try (JsonGenerator generador = objectMapper.createGenerator(salida)) {
+            generador.writeStartArray();
+            recorrer(clienteId, fechaInicio, fechaFin, new ReceptorEstadoCuenta() {
+                @Override
+                public void abrirCuenta(FilaEstadoCuenta cuenta) throws IOException {
+                    // El total del período solo se conoce al final, por eso "movimientos" va antes que los totales
+                    generador.writeStartObject();
+                    generador.writeStringField("fecha", fecha);
+                    generador.writeStringField("cliente", cliente);
+                    generador.writeStringField("numeroCuenta", cuenta.getNumeroCuenta());
+                    generador.writeStringField("tipo", cuenta.getTipoCuenta());
+                    generador.writeNumberField("saldoInicial", cuenta.getSaldoInicial());
+                    generador.writeBooleanField("estado", cuenta.getEstado());
+                    generador.writeArrayFieldStart("movimientos");
+                }
+                
+                @Override
+                public void movimiento(MovimientoDTO movimiento) throws IOException {
+                    generador.writeObject(movimiento);
+                }
+                
+                @Override
+                public void cerrarCuenta(FilaEstadoCuenta cuenta, BigDecimal totalMovimientos, BigDecimal saldoDisponible)
+                        throws IOException {
+                    generador.writeEndArray();
+                    generador.writeNumberField("movimiento", totalMovimientos);
+                    generador.writeNumberField("saldoDisponible", saldoDisponible);
+                    generador.writeEndObject();
+                    generador.flush();
+                }
+            });
+            generador.writeEndArray();
+        }
+    }
+    
+    // Mismo recorrido en CSV: una fila por movimiento y una fila de cierre por cuenta con el total
+    // del período y el saldo disponible (las columnas que no aplican quedan vacías)
+    @Timed(value = "banking.reportes.estado.cuenta", extraTags = {"formato", "csv"},
+           histogram = true, percentiles = {0.5, 0.95, 0.99})
+    public void escribirEstadoCuentaCsv(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                        OutputStream salida) throws IOException {
+        String fecha = fechaReporte();
+        String cliente = csv(clienteReplicaService.nombre(clienteId));
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        escritor.write(CABECERA_CSV);
+        
+        recorrer(clienteId, fechaInicio, fechaFin, new ReceptorEstadoCuenta() {
+            private String columnasCuenta;
+            
+            @Override
+            public void abrirCuenta(FilaEstadoCuenta cuenta) {
+                columnasCuenta = String.join(",", fecha, cliente, csv(cuenta.getNumeroCuenta()), csv(cuenta.getTipoCuenta()),
+                        cuenta.getSaldoInicial().toPlainString(), String.valueOf(cuenta.getEstado()));
+            }
+            
+            @Override
+            public void movimiento(MovimientoDTO movimiento) throws IOException {
+                escritor.write(String.join(",", columnasCuenta, movimiento.getFecha().toString(),
+                        csv(movimiento.getTipoMovimiento()), movimiento.getValor().toPlainString(),
+                        movimiento.getSaldo().toPlainString(), "", ""));
+                escritor.write('\n');
+            }
+            
+            @Override
+            public void cerrarCuenta(FilaEstadoCuenta cuenta, BigDecimal totalMovimientos, BigDecimal saldoDisponible)
+                    throws IOException {
+                escritor.write(String.join(",", columnasCuenta, "", "", "", "",
+                        totalMovimientos.toPlainString(), saldoDisponible.toPlainString()));
+                escritor.write('\n');
+            }
+        });
+        escritor.flush();
+    }
+    
+    @Timed(value = "banking.reportes.estado.cuenta", extraTags = {"formato", "lista"},
+           histogram = true, percentiles = {0.5, 0.95, 0.99})
+    public List<EstadoCuentaDTO> generarEstadoCuenta(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        String fecha = fechaReporte();
+        String cliente = clienteReplicaService.nombre(clienteId);
+        List<EstadoCuentaDTO> estadosCuenta = new ArrayList<>();
+        
+        try {
+            recorrer(clienteId, fechaInicio, fechaFin, new ReceptorEstadoCuenta() {
+                private List<MovimientoDTO> movimientos;
+                
+                @Override
+                public void abrirCuenta(FilaEstadoCuenta cuenta) {
+                    movimientos = new ArrayList<>();
+                }
+                
+                @Override
+                public void movimiento(MovimientoDTO movimiento) {
+                    movimientos.add(movimiento);
+                }
+                
+                @Override
+                public void cerrarCuenta(FilaEstadoCuenta cuenta, BigDecimal totalMovimientos, BigDecimal saldoDisponible) {
+                    estadosCuenta.add(new EstadoCuentaDTO(
+                            fecha,
+                            cliente,
+                            cuenta.getNumeroCuenta(),
+                            cuenta.getTipoCuenta(),
+                            cuenta.getSaldoInicial(),
+                            cuenta.getEstado(),
+                            totalMovimientos,
+                            saldoDisponible,
+                            movimientos
+                    ));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        return estadosCuenta;
+    }
+    
+    private void recorrer(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                          ReceptorEstadoCuenta receptor) throws IOException {
+        Map<Long, BigDecimal> totalesDiarios = saldoDiarioService.totalesDiasCompletos(clienteId, fechaInicio, fechaFin);
+        Map<Long, BigDecimal> saldosEnFranjas = saldoFranjaService.totalesPorCliente(clienteId);
+        
+        try (Stream<FilaEstadoCuenta> filas = movimientoRepository.streamEstadoCuenta(clienteId, fechaInicio, fechaFin)) {
+            Iterator<FilaEstadoCuenta> iterador = filas.iterator();
+            FilaEstadoCuenta cuentaActual = null;
+            BigDecimal totalMovimientos = BigDecimal.ZERO;
+            
+            while (iterador.hasNext()) {
+                FilaEstadoCuenta fila = iterador.next();
+                if (cuentaActual == null || !cuentaActual.getCuentaId().equals(fila.getCuentaId())) {
+                    if (cuentaActual != null) {
+                        receptor.cerrarCuenta(cuentaActual, totalMovimientos, saldoDisponible(cuentaActual, saldosEnFranjas));
+                    }
+                    cuentaActual = fila;
+                    totalMovimientos = totalesDiarios.getOrDefault(fila.getCuentaId(), BigDecimal.ZERO);
+                    receptor.abrirCuenta(fila);
+                }
+                
+                // Cuenta sin movimientos en el período: el LEFT JOIN devuelve una sola fila sin movimiento
+                if (fila.getTipoMovimiento() != null) {
+                    if (!SaldoDiarioService.enDiaCompleto(fila.getFecha(), fechaInicio, fechaFin)) {
+                        BigDecimal valor = "Deposito".equals(fila.getTipoMovimiento()) ? fila.getValor() : fila.getValor().negate();
+                        totalMovimientos = totalMovimientos.add(valor);
+                    }
+                    receptor.movimiento(new MovimientoDTO(fila.getFecha(), fila.getTipoMovimiento(), fila.getValor(), fila.getSaldo()));
+                }
+            }
+            
+            if (cuentaActual != null) {
+                receptor.cerrarCuenta(cuentaActual, totalMovimientos, saldoDisponible(cuentaActual, saldosEnFranjas));
+            }
+        }
+    }
+    
+    // En una cuenta caliente el saldo de la cabecera no incluye lo depositado en sus franjas
+    static BigDecimal saldoDisponible(FilaEstadoCuenta cuenta, Map<Long, BigDecimal> saldosEnFranjas) {
+        BigDecimal enFranjas = saldosEnFranjas.get(cuenta.getCuentaId());
+        return enFranjas != null ? cuenta.getSaldoDisponible().add(enFranjas) : cuenta.getSaldoDisponible();
+    }
+    
+    private static String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+    
+    static String fechaReporte() {
+        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+    }
+    
+    private interface ReceptorEstadoCuenta {
+        
+        void abrirCuenta(FilaEstadoCuenta cuenta) throws IOException;
+        
+        void movimiento(MovimientoDTO movimiento) throws IOException;
+        
+        void cerrarCuenta(FilaEstadoCuenta cuenta, BigDecimal totalMovimientos, BigDecimal saldoDisponible) throws IOException;
+    }
+}
@@ -0,0 +1,76 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.config.EnrutamientoDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Pool acotado para los reportes: hilos y cola propios, y cada tarea toma sus conexiones del pool
+// de Hikari de reportes. Si la cola está llena el reporte se rechaza en lugar de esperar.
+// No se expone como bean Executor para no reemplazar el applicationTaskExecutor de Spring Boot.
+@Component
+public class ReportesEjecutor {
+    
+    public static final String PREFIJO_HILOS = "reportes-";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${banking.reportes.hilos:8}")
+    private int hilos;
+    
+    @Value("${banking.reportes.cola:50}")
+    private int cola;
+    
+    private ThreadPoolTaskExecutor ejecutor;
+    
+    @PostConstruct
+    void iniciar() {
+        // Tiempo desde que el reporte entra en la cola hasta que un hilo lo empieza
+        Timer espera = Timer.builder("banking.reportes.espera")
+                .description("Espera en cola de los reportes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        ContextPropagatingTaskDecorator contexto = new ContextPropagatingTaskDecorator();
+        
+        ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setCorePoolSize(hilos);
+        ejecutor.setMaxPoolSize(hilos);
+        ejecutor.setQueueCapacity(cola);
+        ejecutor.setThreadNamePrefix(PREFIJO_HILOS);
+        ejecutor.setWaitForTasksToCompleteOnShutdown(true);
+        ejecutor.setAwaitTerminationSeconds(30);
+        ejecutor.setTaskDecorator(tarea -> {
+            long encolado = System.nanoTime();
+            Runnable conContexto = contexto.decorate(tarea);
+            return () -> {
+                espera.record(System.nanoTime() - encolado, TimeUnit.NANOSECONDS);
+                EnrutamientoDataSource.enPoolDeReportes(conContexto);
+            };
+        });
+        ejecutor.initialize();
+        
+        // executor.queued, executor.active, executor.pool.size... con name=reportes
+        new ExecutorServiceMetrics(ejecutor.getThreadPoolExecutor(), "reportes", Tags.empty()).bindTo(meterRegistry);
+    }
+    
+    @PreDestroy
+    void detener() {
+        ejecutor.shutdown();
+    }
+    
+    public void ejecutar(Runnable tarea) throws TaskRejectedException {
+        ejecutor.execute(tarea);
+    }
+}
@@ -0,0 +1,174 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.SaldoCuenta;
+import com.banking.cuenta.model.SaldoFranja;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SaldoCuentaRepository;
+import com.banking.cuenta.repository.SaldoFranjaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Sin @Transactional a nivel de clase: un rechazo en aplicarMovimiento no debe marcar
+// para rollback la transacción de quien llama (la ingesta por lotes sigue con el resto)
+@Service
+public class SaldoCuentaService {
+    
+    @Autowired
+    private SaldoCuentaRepository saldoCuentaRepository;
+    
+    @Autowired
+    private SaldoFranjaRepository saldoFranjaRepository;
+    
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+    
+    @Autowired
+    private CuentaRepository cuentaRepository;
+    
+    @Autowired
+    private CuentaLockManager cuentaLockManager;
+    
+    @Autowired
+    private MetricasMovimientos metricasMovimientos;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Serializa los movimientos de la cuenta: primero en memoria, luego con bloqueo de fila
+    @Transactional(propagation = Propagation.MANDATORY)
+    public SaldoCuenta bloquearSaldo(Long cuentaId) {
+        cuentaLockManager.lock(cuentaId);
+        return saldoCuentaRepository.findByIdForUpdate(cuentaId)
+                .orElseGet(() -> inicializarSaldo(cuentaId));
+    }
+    
+    // Valida el movimiento contra el saldo bloqueado y deja el nuevo saldo en la cabecera
+    public BigDecimal aplicarMovimiento(SaldoCuenta saldoCuenta, Movimiento movimiento) {
+        if (!saldoCuenta.getActiva()) {
+            throw metricasMovimientos.rechazo(MetricasMovimientos.CUENTA_INACTIVA, "La cuenta está inactiva");
+        }
+        
+        BigDecimal saldoActual = saldoCuenta.getSaldo();
+        BigDecimal nuevoSaldo;
+        
+        if ("Deposito".equals(movimiento.getTipoMovimiento())) {
+            nuevoSaldo = saldoActual.add(movimiento.getValor());
+        } else if ("Retiro".equals(movimiento.getTipoMovimiento())) {
+            // Cuenta caliente: si la porción reservada no alcanza se le suman todas las franjas,
+            // así el rechazo por saldo se decide sobre el saldo completo
+            if (saldoActual.compareTo(movimiento.getValor()) < 0 && saldoCuenta.getFranjas() > 0) {
+                consolidarFranjas(saldoCuenta);
+                saldoActual = saldoCuenta.getSaldo();
+            }
+            if (saldoActual.compareTo(movimiento.getValor()) < 0) {
+                throw metricasMovimientos.rechazo(MetricasMovimientos.SALDO_NO_DISPONIBLE, "Saldo no disponible");
+            }
+            nuevoSaldo = saldoActual.subtract(movimiento.getValor());
+        } else {
+            throw metricasMovimientos.rechazo(MetricasMovimientos.TIPO_INVALIDO, "Tipo de movimiento no válido");
+        }
+        
+        saldoCuenta.setSaldo(nuevoSaldo);
+        return nuevoSaldo;
+    }
+    
+    @Transactional(readOnly = true)
+    public BigDecimal calcularSaldoActual(Long cuentaId) {
+        return saldoCuentaRepository.findById(cuentaId)
+                .map(saldoCuenta -> saldoCuenta.getFranjas() > 0
+                        ? saldoCuenta.getSaldo().add(saldoFranjaRepository.sumarSaldos(cuentaId))
+                        : saldoCuenta.getSaldo())
+                .orElseGet(() -> calcularSaldoDesdeMovimientos(cuentaId));
+    }
+    
+    // Se revierte el movimiento eliminado sobre la cabecera bloqueada. El saldo del último movimiento
+    // restante no sirve: si la cuenta fue caliente alguna vez, los saldos de sus movimientos no forman una cadena.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recalcularSaldo(Movimiento eliminado) {
+        Long cuentaId = eliminado.getCuentaId();
+        cuentaLockManager.lock(cuentaId);
+        saldoCuentaRepository.findByIdForUpdate(cuentaId).ifPresent(saldoCuenta -> {
+            if (saldoCuenta.getFranjas() > 0) {
+                consolidarFranjas(saldoCuenta);
+            }
+            BigDecimal valor = "Deposito".equals(eliminado.getTipoMovimiento())
+                    ? eliminado.getValor() : eliminado.getValor().negate();
+            saldoCuenta.setSaldo(saldoCuenta.getSaldo().subtract(valor));
+        });
+    }
+    
+    // Pasa el saldo de todas las franjas a la cabecera. Requiere la cabecera ya bloqueada;
+    // las franjas se bloquean en orden y esperan a los depósitos en curso sobre ellas.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<SaldoFranja> consolidarFranjas(SaldoCuenta saldoCuenta) {
+        List<SaldoFranja> franjas = saldoFranjaRepository.findByCuentaIdForUpdate(saldoCuenta.getCuentaId());
+        BigDecimal total = saldoCuenta.getSaldo();
+        for (SaldoFranja franja : franjas) {
+            if (franja.getSaldo().signum() != 0) {
+                total = total.add(franja.getSaldo());
+                franja.setSaldo(BigDecimal.ZERO);
+            }
+        }
+        saldoCuenta.setSaldo(total);
+        return franjas;
+    }
+    
+    // Activa (cantidad > 0), cambia o desactiva (0) el modo caliente. Las franjas existentes se
+    // consolidan antes, así ningún saldo queda en una franja que deja de existir.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public SaldoCuenta configurarFranjas(Long cuentaId, int cantidad) {
+        SaldoCuenta saldoCuenta = bloquearSaldo(cuentaId);
+        List<SaldoFranja> existentes = consolidarFranjas(saldoCuenta);
+        int ultima = 0;
+        for (SaldoFranja franja : existentes) {
+            if (franja.getFranja() > cantidad) {
+                saldoFranjaRepository.delete(franja);
+            }
+            ultima = Math.max(ultima, franja.getFranja());
+        }
+        for (int numero = ultima + 1; numero <= cantidad; numero++) {
+            saldoFranjaRepository.save(new SaldoFranja(cuentaId, numero));
+        }
+        saldoCuenta.setFranjas(cantidad);
+        return saldoCuenta;
+    }
+    
+    private BigDecimal calcularSaldoDesdeMovimientos(Long cuentaId) {
+        Movimiento ultimoMovimiento = movimientoRepository.findLastMovimientoByCuentaId(cuentaId);
+        if (ultimoMovimiento != null) {
+            return ultimoMovimiento.getSaldo();
+        } else {
+            // Si no hay movimientos, usar el saldo inicial de la cuenta
+            Cuenta cuenta = cuentaRepository.findById(cuentaId)
+                    .orElseThrow(() -> new RuntimeException("Cuenta no encontrada"));
+            return cuenta.getSaldoInicial();
+        }
+    }
+    
+    // Cuentas creadas antes de existir saldos_cuenta: se crea la cabecera a partir del historial.
+    // Otra instancia puede estar creándola a la vez; el INSERT va por JDBC para que la clave duplicada
+    // deshaga solo esa sentencia y no la transacción JPA de quien llama, y después se bloquea la fila que quedó.
+    private SaldoCuenta inicializarSaldo(Long cuentaId) {
+        Cuenta cuenta = cuentaRepository.findById(cuentaId)
+                .orElseThrow(() -> new RuntimeException("Cuenta no encontrada con ID: " + cuentaId));
+        try {
+            jdbcTemplate.update("INSERT INTO saldos_cuenta (cuenta_id, saldo, activa, franjas, fecha_actualizacion) " +
+                    "VALUES (?, ?, ?, 0, ?)", cuentaId, calcularSaldoDesdeMovimientos(cuentaId), cuenta.getEstado(), LocalDateTime.now());
+        } catch (DuplicateKeyException e) {
+            // La creó otra instancia a partir del mismo historial
+        }
+        return saldoCuentaRepository.findByIdForUpdate(cuentaId)
+                .orElseThrow(() -> new RuntimeException("No se pudo inicializar el saldo de la cuenta " + cuentaId));
+    }
+}
@@ -0,0 +1,127 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.SaldoDiario;
+import com.banking.cuenta.model.SaldoDiarioId;
+import com.banking.cuenta.model.dto.TotalCuenta;
+import com.banking.cuenta.repository.SaldoDiarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Resúmenes diarios por cuenta. Se actualizan con el saldo de la cuenta ya bloqueado por
+// SaldoCuentaService, así que las filas del día no necesitan un bloqueo propio.
+@Service
+public class SaldoDiarioService {
+    
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Movimiento movimiento) {
+        registrar(List.of(movimiento), SaldoDiario.FRANJA_PRINCIPAL);
+    }
+    
+    // Depósito de una cuenta caliente: se resume en la fila de su franja, bloqueada junto con la franja
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Movimiento movimiento, int franja) {
+        registrar(List.of(movimiento), franja);
+    }
+    
+    // Movimientos ya aplicados y con su saldo, en el orden en que se encadenaron
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(List<Movimiento> movimientos) {
+        registrar(movimientos, SaldoDiario.FRANJA_PRINCIPAL);
+    }
+    
+    private void registrar(List<Movimiento> movimientos, int franja) {
+        Map<SaldoDiarioId, SaldoDiario> resumenes = new LinkedHashMap<>();
+        
+        for (Movimiento movimiento : movimientos) {
+            SaldoDiarioId id = new SaldoDiarioId(movimiento.getCuentaId(), movimiento.getFecha().toLocalDate(), franja);
+            SaldoDiario resumen = resumenes.computeIfAbsent(id, clave -> saldoDiarioRepository.findById(clave)
+                    .orElseGet(() -> new SaldoDiario(clave.getCuentaId(), clave.getFecha(), clave.getFranja(),
+                            movimiento.getSaldo().subtract(valorNeto(movimiento)))));
+            
+            if ("Deposito".equals(movimiento.getTipoMovimiento())) {
+                resumen.setTotalDepositos(resumen.getTotalDepositos().add(movimiento.getValor()));
+            } else {
+                resumen.setTotalRetiros(resumen.getTotalRetiros().add(movimiento.getValor()));
+            }
+            resumen.setSaldoCierre(movimiento.getSaldo());
+            resumen.setCantidad(resumen.getCantidad() + 1);
+        }
+        
+        saldoDiarioRepository.saveAll(resumenes.values());
+    }
+    
+    // Al eliminar un movimiento solo se corrigen los totales del día; apertura y cierre quedan
+    // como estaban, igual que los saldos encadenados de los demás movimientos. El movimiento no
+    // guarda su franja: se descuenta de la primera fila del día que lo contiene.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void descontar(Movimiento movimiento) {
+        boolean deposito = "Deposito".equals(movimiento.getTipoMovimiento());
+        saldoDiarioRepository.findByCuentaIdAndFechaOrderByFranja(movimiento.getCuentaId(), movimiento.getFecha().toLocalDate())
+                .stream()
+                .filter(resumen -> (deposito ? resumen.getTotalDepositos() : resumen.getTotalRetiros())
+                        .compareTo(movimiento.getValor()) >= 0)
+                .findFirst()
+                .ifPresent(resumen -> {
+                    if (resumen.getCantidad() <= 1) {
+                        saldoDiarioRepository.delete(resumen);
+                        return;
+                    }
+                    if (deposito) {
+                        resumen.setTotalDepositos(resumen.getTotalDepositos().subtract(movimiento.getValor()));
+                    } else {
+                        resumen.setTotalRetiros(resumen.getTotalRetiros().subtract(movimiento.getValor()));
+                    }
+                    resumen.setCantidad(resumen.getCantidad() - 1);
+                });
+    }
+    
+    // Total neto por cuenta de los días completos del período, a razón de una fila por día
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> totalesDiasCompletos(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        Map<Long, BigDecimal> totales = new HashMap<>();
+        LocalDate desde = primerDiaCompleto(fechaInicio);
+        LocalDate hasta = ultimoDiaCompleto(fechaFin);
+        if (desde.isAfter(hasta)) {
+            return totales;
+        }
+        for (TotalCuenta total : saldoDiarioRepository.sumarPorCliente(clienteId, desde, hasta)) {
+            totales.put(total.getCuentaId(), total.getTotal());
+        }
+        return totales;
+    }
+    
+    // Los días de los extremos que el período cubre solo en parte se suman desde los movimientos listados
+    public static boolean enDiaCompleto(LocalDateTime fecha, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        LocalDate dia = fecha.toLocalDate();
+        return !dia.isBefore(primerDiaCompleto(fechaInicio)) && !dia.isAfter(ultimoDiaCompleto(fechaFin));
+    }
+    
+    public static LocalDate primerDiaCompleto(LocalDateTime fechaInicio) {
+        LocalDate dia = fechaInicio.toLocalDate();
+        return fechaInicio.toLocalTime().equals(LocalTime.MIDNIGHT) ? dia : dia.plusDays(1);
+    }
+    
+    public static LocalDate ultimoDiaCompleto(LocalDateTime fechaFin) {
+        LocalDate dia = fechaFin.toLocalDate();
+        return fechaFin.toLocalTime().equals(LocalTime.MAX) ? dia : dia.minusDays(1);
+    }
+    
+    private static BigDecimal valorNeto(Movimiento movimiento) {
+        return "Deposito".equals(movimiento.getTipoMovimiento()) ? movimiento.getValor() : movimiento.getValor().negate();
+    }
+}
@@ -0,0 +1,142 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.SaldoCuenta;
+import com.banking.cuenta.model.SaldoFranja;
+import com.banking.cuenta.model.dto.TotalCuenta;
+import com.banking.cuenta.repository.SaldoCuentaRepository;
+import com.banking.cuenta.repository.SaldoFranjaRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Cuentas calientes (liquidación de comercios, origen de nóminas): los depósitos se reparten al azar
+// entre N franjas y cada uno bloquea solo la suya, no la cabecera. Los retiros siguen contra la
+// cabecera; el rebalanceo periódico le pasa el saldo de las franjas para que casi nunca tengan que
+// consolidarlas ellos.
+@Service
+public class SaldoFranjaService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SaldoFranjaService.class);
+    
+    // Cuentas en modo caliente según esta instancia. Si queda desactualizado el depósito va por la
+    // cabecera, que siempre es correcto; el rebalanceo lo vuelve a leer de la base.
+    private final Set<Long> cuentasCalientes = ConcurrentHashMap.newKeySet();
+    
+    @Autowired
+    private SaldoCuentaService saldoCuentaService;
+    
+    @Autowired
+    private SaldoCuentaRepository saldoCuentaRepository;
+    
+    @Autowired
+    private SaldoFranjaRepository saldoFranjaRepository;
+    
+    @Autowired
+    private MetricasMovimientos metricasMovimientos;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${banking.cuentas-calientes.max-franjas:64}")
+    private int maxFranjas;
+    
+    @PostConstruct
+    void cargar() {
+        refrescar();
+    }
+    
+    @Transactional
+    public SaldoCuenta configurar(Long cuentaId, int cantidad) {
+        if (cantidad < 0 || cantidad > maxFranjas) {
+            throw new IllegalArgumentException("La cantidad de franjas debe estar entre 0 y " + maxFranjas);
+        }
+        SaldoCuenta saldoCuenta = saldoCuentaService.configurarFranjas(cuentaId, cantidad);
+        if (cantidad > 0) {
+            cuentasCalientes.add(cuentaId);
+        } else {
+            cuentasCalientes.remove(cuentaId);
+        }
+        return saldoCuenta;
+    }
+    
+    // Devuelve la franja usada, o vacío si la cuenta no está en modo caliente y el depósito debe ir por la cabecera
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OptionalInt depositar(Movimiento movimiento) {
+        Long cuentaId = movimiento.getCuentaId();
+        if (!cuentasCalientes.contains(cuentaId)) {
+            return OptionalInt.empty();
+        }
+        
+        // Lectura sin bloqueo: un retiro puede tener la cabecera bloqueada sin frenar los depósitos
+        SaldoCuenta cabecera = saldoCuentaRepository.findById(cuentaId).orElse(null);
+        if (cabecera == null || cabecera.getFranjas() == 0) {
+            return OptionalInt.empty();
+        }
+        if (!cabecera.getActiva()) {
+            throw metricasMovimientos.rechazo(MetricasMovimientos.CUENTA_INACTIVA, "La cuenta está inactiva");
+        }
+        
+        int numero = 1 + ThreadLocalRandom.current().nextInt(cabecera.getFranjas());
+        Optional<SaldoFranja> franja = saldoFranjaRepository.findByIdForUpdate(cuentaId, numero);
+        if (franja.isEmpty()) {
+            return OptionalInt.empty();
+        }
+        franja.get().setSaldo(franja.get().getSaldo().add(movimiento.getValor()));
+        
+        // Saldo observado por el depósito: no encadena con los depósitos concurrentes de otras franjas
+        movimiento.setSaldo(cabecera.getSaldo().add(saldoFranjaRepository.sumarSaldos(cuentaId)));
+        return OptionalInt.of(numero);
+    }
+    
+    // Saldo en franjas de las cuentas calientes del cliente, para sumarlo al de la cabecera en los reportes
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> totalesPorCliente(Long clienteId) {
+        Map<Long, BigDecimal> totales = new HashMap<>();
+        for (TotalCuenta total : saldoFranjaRepository.sumarPorCliente(clienteId)) {
+            totales.put(total.getCuentaId(), total.getTotal());
+        }
+        return totales;
+    }
+    
+    // Cada cuenta en su propia transacción: la cabecera queda bloqueada solo lo que dura su consolidación
+    @Scheduled(fixedDelayString = "${banking.cuentas-calientes.intervalo-rebalanceo-ms:1000}")
+    public void rebalancear() {
+        refrescar();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (Long cuentaId : cuentasCalientes) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        saldoCuentaService.consolidarFranjas(saldoCuentaService.bloquearSaldo(cuentaId)));
+            } catch (RuntimeException e) {
+                log.warn("No se pudo rebalancear la cuenta {}: {}", cuentaId, e.getMessage());
+            }
+        }
+    }
+    
+    private void refrescar() {
+        Set<Long> actuales = saldoCuentaRepository.findByFranjasGreaterThan(0).stream()
+                .map(SaldoCuenta::getCuentaId)
+                .collect(Collectors.toSet());
+        cuentasCalientes.retainAll(actuales);
+        cuentasCalientes.addAll(actuales);
+    }
+}
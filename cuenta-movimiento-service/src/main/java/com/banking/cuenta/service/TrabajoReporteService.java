@@ -0,0 +1,192 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.TrabajoReporte;
+import com.banking.cuenta.model.dto.TrabajoReporteDTO;
+import com.banking.cuenta.repository.TrabajoReporteRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+// Estados de cuenta en segundo plano para períodos largos: el resultado se escribe comprimido y se
+// descarga después. El estado de cada trabajo está en trabajos_reporte y los archivos en un directorio
+// compartido por todas las instancias (banking.reportes.trabajos.directorio), así cualquier instancia
+// responde la consulta y la descarga. Pedidos iguales mientras uno está pendiente o en curso se unen a
+// ese mismo trabajo, aunque lleguen a instancias distintas.
+@Service
+public class TrabajoReporteService {
+    
+    public static final String JSON = "json";
+    public static final String CSV = "csv";
+    
+    private static final Logger log = LoggerFactory.getLogger(TrabajoReporteService.class);
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final int INTENTOS_ALTA = 3;
+    
+    @Autowired
+    private ReporteService reporteService;
+    
+    @Autowired
+    private ReportesEjecutor reportesEjecutor;
+    
+    @Autowired
+    private TrabajoReporteRepository trabajoReporteRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${banking.reportes.trabajos.directorio:${java.io.tmpdir}/banking-reportes}")
+    private String rutaDirectorio;
+    
+    @Value("${banking.reportes.trabajos.retencion-minutos:60}")
+    private long retencionMinutos;
+    
+    @Value("${banking.reportes.trabajos.maximo-minutos:60}")
+    private long maximoMinutos;
+    
+    private Path directorio;
+    
+    @PostConstruct
+    void iniciar() throws IOException {
+        directorio = Files.createDirectories(Path.of(rutaDirectorio));
+    }
+    
+    public TrabajoReporteDTO crear(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin, String formato)
+            throws TaskRejectedException {
+        if (!JSON.equals(formato) && !CSV.equals(formato)) {
+            throw new RuntimeException("Formato de reporte no válido: " + formato);
+        }
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new RuntimeException("La fecha de inicio es posterior a la fecha de fin");
+        }
+        
+        String clave = clienteId + "|" + fechaInicio + "|" + fechaFin + "|" + formato;
+        for (int intento = 1; ; intento++) {
+            Optional<TrabajoReporte> activo = trabajoReporteRepository.findByClaveActiva(clave);
+            if (activo.isPresent()) {
+                return TrabajoReporteDTO.desde(activo.get());
+            }
+            TrabajoReporte trabajo = new TrabajoReporte(UUID.randomUUID().toString(), clienteId, fechaInicio,
+                    fechaFin, formato, TrabajoReporteDTO.PENDIENTE, clave);
+            try {
+                trabajoReporteRepository.saveAndFlush(trabajo);
+            } catch (DataIntegrityViolationException e) {
+                // Otra instancia registró el mismo pedido entre la consulta y el alta: se vuelve a buscar
+                if (intento == INTENTOS_ALTA) {
+                    throw new RuntimeException("No se pudo registrar el trabajo de reporte", e);
+                }
+                continue;
+            }
+            // Si el pool lo rechaza el trabajo no queda registrado
+            try {
+                reportesEjecutor.ejecutar(() -> generar(trabajo.getId()));
+            } catch (TaskRejectedException e) {
+                trabajoReporteRepository.deleteById(trabajo.getId());
+                throw e;
+            }
+            return TrabajoReporteDTO.desde(trabajo);
+        }
+    }
+    
+    public Optional<TrabajoReporteDTO> obtener(String id) {
+        return trabajoReporteRepository.findById(id).map(TrabajoReporteDTO::desde);
+    }
+    
+    public Path archivo(TrabajoReporteDTO trabajo) {
+        return directorio.resolve(trabajo.getId() + "." + trabajo.getFormato() + ".gz");
+    }
+    
+    // Cada instancia purga lo mismo: los trabajos sin terminar pasado el máximo quedan fallidos (su instancia
+    // se detuvo y un pedido igual debe poder crear otro), y se borran los terminados y archivos pasada la retención
+    @Scheduled(fixedDelayString = "${banking.reportes.trabajos.purga-ms:600000}")
+    public void purgar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            int abandonados = trabajoReporteRepository.marcarAbandonados(ahora.minusMinutes(maximoMinutos), ahora,
+                    TrabajoReporteDTO.FALLIDO, "El trabajo no terminó en " + maximoMinutos + " minutos");
+            if (abandonados > 0) {
+                log.warn("{} trabajos de reporte marcados como fallidos por no terminar", abandonados);
+            }
+            trabajoReporteRepository.deleteTerminadosAntesDe(ahora.minusMinutes(retencionMinutos));
+        });
+        
+        Instant limiteArchivos = Instant.now().minus(Duration.ofMinutes(retencionMinutos));
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio)) {
+            for (Path archivo : archivos) {
+                if (Files.getLastModifiedTime(archivo).toInstant().isBefore(limiteArchivos)) {
+                    Files.deleteIfExists(archivo);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo purgar el directorio de reportes {}: {}", directorio, e.getMessage());
+        }
+    }
+    
+    private void generar(String id) {
+        Optional<TrabajoReporte> encontrado = trabajoReporteRepository.findById(id);
+        if (encontrado.isEmpty()) {
+            return;
+        }
+        TrabajoReporte trabajo = encontrado.get();
+        trabajo.setEstado(TrabajoReporteDTO.EN_CURSO);
+        trabajo = trabajoReporteRepository.save(trabajo);
+        
+        Path destino = directorio.resolve(trabajo.getId() + "." + trabajo.getFormato() + ".gz");
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 OutputStream salida = new GZIPOutputStream(Channels.newOutputStream(canal), TAMANO_BUFFER)) {
+                if (CSV.equals(trabajo.getFormato())) {
+                    reporteService.escribirEstadoCuentaCsv(trabajo.getClienteId(), trabajo.getFechaInicio(),
+                            trabajo.getFechaFin(), salida);
+                } else {
+                    reporteService.escribirEstadoCuenta(trabajo.getClienteId(), trabajo.getFechaInicio(),
+                            trabajo.getFechaFin(), salida);
+                }
+            }
+            // El archivo solo aparece con su nombre final cuando está completo
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+            trabajo.setTamano(Files.size(destino));
+            trabajo.setEstado(TrabajoReporteDTO.TERMINADO);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Falló el reporte {} del cliente {}: {}", trabajo.getId(), trabajo.getClienteId(), e.getMessage());
+            String error = String.valueOf(e.getMessage());
+            trabajo.setError(error.length() > TrabajoReporte.LARGO_ERROR
+                    ? error.substring(0, TrabajoReporte.LARGO_ERROR) : error);
+            trabajo.setEstado(TrabajoReporteDTO.FALLIDO);
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException ignorada) {
+                log.debug("No se pudo borrar {}", temporal);
+            }
+        } finally {
+            trabajo.setTerminado(LocalDateTime.now());
+            trabajo.setClaveActiva(null);
+            trabajoReporteRepository.save(trabajo);
+        }
+    }
+}
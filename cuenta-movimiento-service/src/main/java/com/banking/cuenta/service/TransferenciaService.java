@@ -0,0 +1,49 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.dto.ResultadoTransferenciaDTO;
+import com.banking.cuenta.model.dto.TransferenciaDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Retiro y depósito en una sola transacción. Las dos cuentas se bloquean antes de registrar nada y
+// siempre en el mismo orden: franjas en memoria por índice y filas de saldos_cuenta por cuentaId
+// ascendente. Dos transferencias opuestas entre las mismas cuentas esperan, nunca se interbloquean.
+@Service
+@Transactional
+public class TransferenciaService {
+    
+    @Autowired
+    private MovimientoService movimientoService;
+    
+    @Autowired
+    private SaldoCuentaService saldoCuentaService;
+    
+    @Autowired
+    private CuentaLockManager cuentaLockManager;
+    
+    public ResultadoTransferenciaDTO transferir(TransferenciaDTO transferencia) {
+        Long origen = transferencia.getCuentaOrigenId();
+        Long destino = transferencia.getCuentaDestinoId();
+        if (origen.equals(destino)) {
+            throw new RuntimeException("La cuenta de origen y la de destino deben ser distintas");
+        }
+        
+        cuentaLockManager.lockAll(List.of(origen, destino));
+        saldoCuentaService.bloquearSaldo(Math.min(origen, destino));
+        saldoCuentaService.bloquearSaldo(Math.max(origen, destino));
+        
+        // Con los bloqueos ya tomados, save valida el saldo y vuelve a entrar en ellos sin esperar
+        LocalDateTime fecha = LocalDateTime.now();
+        Movimiento retiro = new Movimiento("Retiro", transferencia.getValor(), null, origen);
+        retiro.setFecha(fecha);
+        Movimiento deposito = new Movimiento("Deposito", transferencia.getValor(), null, destino);
+        deposito.setFecha(fecha);
+        
+        return new ResultadoTransferenciaDTO(movimientoService.save(retiro), movimientoService.save(deposito));
+    }
+}
@@ -0,0 +1,90 @@
+package com.banking.cuenta.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Envío de un archivo del disco con soporte de {@code Range} (un solo rango) e {@code If-Range}.
+ * Con el conector NIO de Tomcat la copia la hace el propio Tomcat con sendfile, que usa
+ * {@code FileChannel.transferTo} hacia el socket; sin ese soporte se hace el mismo
+ * {@code transferTo} hacia la salida de la respuesta.
+ */
+public final class EnvioArchivo {
+    
+    private static final String SENDFILE_SOPORTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+    
+    private EnvioArchivo() {}
+    
+    public static void enviar(HttpServletRequest request, HttpServletResponse response, Path archivo,
+                              String tipoContenido, String nombre, String etag) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long longitud = canal.size();
+            long inicio = 0;
+            long fin = longitud - 1;
+            
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.ETAG, etag);
+            String rango = request.getHeader(HttpHeaders.RANGE);
+            String siRango = request.getHeader(HttpHeaders.IF_RANGE);
+            if (rango != null && longitud > 0 && (siRango == null || siRango.equals(etag))) {
+                List<HttpRange> rangos = rangos(rango);
+                // Varios rangos (multipart/byteranges) no se atienden: se envía el archivo completo
+                if (rangos.size() == 1) {
+                    try {
+                        inicio = rangos.get(0).getRangeStart(longitud);
+                        fin = rangos.get(0).getRangeEnd(longitud);
+                    } catch (IllegalArgumentException e) {
+                        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + longitud);
+                        return;
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fin + "/" + longitud);
+                }
+            }
+            
+            long cantidad = fin - inicio + 1;
+            response.setContentType(tipoContenido);
+            response.setContentLengthLong(cantidad);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(nombre).build().toString());
+            
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTE))) {
+                request.setAttribute(SENDFILE_ARCHIVO, archivo.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_INICIO, inicio);
+                request.setAttribute(SENDFILE_FIN, fin + 1);
+                return;
+            }
+            
+            WritableByteChannel destino = Channels.newChannel(response.getOutputStream());
+            long enviados = 0;
+            while (enviados < cantidad) {
+                enviados += canal.transferTo(inicio + enviados, cantidad - enviados, destino);
+            }
+            response.flushBuffer();
+        }
+    }
+    
+    private static List<HttpRange> rangos(String rango) {
+        try {
+            return HttpRange.parseRanges(rango);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
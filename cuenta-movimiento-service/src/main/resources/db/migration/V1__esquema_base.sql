@@ -0,0 +1,54 @@
+-- Esquema base de cuentas y movimientos, equivalente al de BaseDatos.sql.
+-- Sobre una base ya creada con ese script no cambia nada.
+
+CREATE TABLE IF NOT EXISTS cuentas (
+    cuenta_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    numero_cuenta VARCHAR(20) NOT NULL UNIQUE,
+    tipo_cuenta VARCHAR(20) NOT NULL CHECK (tipo_cuenta IN ('Ahorros', 'Corriente')),
+    saldo_inicial DECIMAL(15,2) NOT NULL DEFAULT 0.00 CHECK (saldo_inicial >= 0),
+    estado BOOLEAN NOT NULL DEFAULT TRUE,
+    cliente_id BIGINT NOT NULL,
+    fecha_creacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_actualizacion DATETIME NULL
+);
+
+CREATE TABLE IF NOT EXISTS movimientos (
+    movimiento_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    fecha DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    tipo_movimiento VARCHAR(20) NOT NULL CHECK (tipo_movimiento IN ('Deposito', 'Retiro')),
+    valor DECIMAL(15,2) NOT NULL CHECK (valor > 0),
+    saldo DECIMAL(15,2) NOT NULL,
+    cuenta_id BIGINT NOT NULL,
+    fecha_creacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (cuenta_id) REFERENCES cuentas(cuenta_id) ON DELETE CASCADE
+);
+
+-- Secuencia de identificadores de movimientos (MySQL no tiene secuencias: Hibernate usa esta tabla)
+CREATE TABLE IF NOT EXISTS movimientos_seq (
+    next_val BIGINT NOT NULL
+);
+
+-- Saldo vigente por cuenta (cabecera del libro mayor)
+CREATE TABLE IF NOT EXISTS saldos_cuenta (
+    cuenta_id BIGINT PRIMARY KEY,
+    saldo DECIMAL(15,2) NOT NULL,
+    activa BOOLEAN NOT NULL DEFAULT TRUE,
+    fecha_actualizacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (cuenta_id) REFERENCES cuentas(cuenta_id) ON DELETE CASCADE
+);
+
+-- La secuencia reparte bloques de 50 identificadores: arranca por encima del máximo existente
+INSERT INTO movimientos_seq (next_val)
+SELECT m.next_val
+FROM (SELECT COALESCE(MAX(movimiento_id), 0) + 50 AS next_val FROM movimientos) m
+WHERE NOT EXISTS (SELECT 1 FROM movimientos_seq);
+
+-- Saldo vigente de las cuentas que aún no lo tienen: último movimiento o saldo inicial
+INSERT INTO saldos_cuenta (cuenta_id, saldo, activa)
+SELECT c.cuenta_id,
+       COALESCE((SELECT m.saldo FROM movimientos m
+                 WHERE m.cuenta_id = c.cuenta_id
+                 ORDER BY m.fecha DESC, m.movimiento_id DESC LIMIT 1), c.saldo_inicial),
+       c.estado
+FROM cuentas c
+WHERE NOT EXISTS (SELECT 1 FROM saldos_cuenta s WHERE s.cuenta_id = c.cuenta_id);
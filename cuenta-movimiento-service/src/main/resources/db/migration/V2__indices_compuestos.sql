@@ -0,0 +1,35 @@
+-- Índices compuestos para las consultas que filtran por cuenta y ordenan o filtran por fecha.
+-- El orden de fecha y movimiento_id es el mismo, de modo que un índice sirve tanto a las
+-- consultas descendentes (lectura directa) como a las ascendentes (lectura inversa) sin filesort.
+
+-- findByCuentaId*, findLastMovimientoByCuentaId, estado de cuenta y paginación por cuenta
+CREATE INDEX idx_movimientos_cuenta_fecha ON movimientos (cuenta_id, fecha DESC, movimiento_id DESC);
+
+-- Listado general de movimientos paginado por (fecha, movimiento_id)
+CREATE INDEX idx_movimientos_fecha_id ON movimientos (fecha DESC, movimiento_id DESC);
+
+-- Cuentas activas de un cliente
+CREATE INDEX idx_cuentas_cliente_estado ON cuentas (cliente_id, estado);
+
+-- Los índices de una sola columna quedan cubiertos por los anteriores. MySQL no tiene
+-- DROP INDEX IF EXISTS y en una base creada solo con las migraciones no existen.
+SET @sentencia = (SELECT IF(COUNT(*) > 0, 'DROP INDEX idx_movimientos_cuenta_id ON movimientos', 'DO 0')
+                  FROM information_schema.statistics
+                  WHERE table_schema = DATABASE() AND table_name = 'movimientos' AND index_name = 'idx_movimientos_cuenta_id');
+PREPARE sentencia FROM @sentencia;
+EXECUTE sentencia;
+DEALLOCATE PREPARE sentencia;
+
+SET @sentencia = (SELECT IF(COUNT(*) > 0, 'DROP INDEX idx_movimientos_fecha ON movimientos', 'DO 0')
+                  FROM information_schema.statistics
+                  WHERE table_schema = DATABASE() AND table_name = 'movimientos' AND index_name = 'idx_movimientos_fecha');
+PREPARE sentencia FROM @sentencia;
+EXECUTE sentencia;
+DEALLOCATE PREPARE sentencia;
+
+SET @sentencia = (SELECT IF(COUNT(*) > 0, 'DROP INDEX idx_cuentas_cliente_id ON cuentas', 'DO 0')
+                  FROM information_schema.statistics
+                  WHERE table_schema = DATABASE() AND table_name = 'cuentas' AND index_name = 'idx_cuentas_cliente_id');
+PREPARE sentencia FROM @sentencia;
+EXECUTE sentencia;
+DEALLOCATE PREPARE sentencia;
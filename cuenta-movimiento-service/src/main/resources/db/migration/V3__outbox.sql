@@ -0,0 +1,21 @@
+-- Eventos pendientes de publicar en Kafka (patrón outbox). Se escriben en la misma transacción
+-- que el movimiento o la cuenta y el relay los borra cuando el broker confirma la publicación.
+
+CREATE TABLE IF NOT EXISTS outbox_cuentas (
+    id BIGINT PRIMARY KEY,
+    evento_id VARCHAR(36) NOT NULL,
+    topico VARCHAR(100) NOT NULL,
+    clave VARCHAR(50) NOT NULL,
+    tipo VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    fecha_creacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Secuencia de identificadores del outbox (tabla equivalente, como movimientos_seq)
+CREATE TABLE IF NOT EXISTS outbox_cuentas_seq (
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO outbox_cuentas_seq (next_val)
+SELECT 1 FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM outbox_cuentas_seq);
@@ -0,0 +1,25 @@
+-- Réplica local de los clientes, alimentada por los eventos del tópico banking.clientes.
+
+CREATE TABLE IF NOT EXISTS clientes_replica (
+    cliente_id BIGINT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    estado BOOLEAN NOT NULL DEFAULT TRUE,
+    eliminado BOOLEAN NOT NULL DEFAULT FALSE,
+    fecha_evento DATETIME NOT NULL
+);
+
+-- Los clientes creados antes del outbox nunca emitieron eventos: se copian de las tablas del
+-- servicio de clientes si ya existen en la base compartida. La fecha mínima hace que cualquier
+-- evento posterior prevalezca sobre esta copia.
+SET @sentencia = (SELECT IF(COUNT(*) = 2,
+                            'INSERT INTO clientes_replica (cliente_id, nombre, estado, eliminado, fecha_evento)
+                             SELECT p.persona_id, p.nombre, c.estado, FALSE, ''1970-01-01 00:00:00''
+                             FROM personas p
+                             JOIN clientes c ON c.persona_id = p.persona_id
+                             WHERE NOT EXISTS (SELECT 1 FROM clientes_replica r WHERE r.cliente_id = p.persona_id)',
+                            'DO 0')
+                  FROM information_schema.tables
+                  WHERE table_schema = DATABASE() AND table_name IN ('personas', 'clientes'));
+PREPARE sentencia FROM @sentencia;
+EXECUTE sentencia;
+DEALLOCATE PREPARE sentencia;
@@ -0,0 +1,38 @@
+-- Modelo de lectura del estado de cuenta: un resumen por cuenta y día, actualizado en la misma
+-- transacción que cada movimiento. Los reportes suman estas filas en lugar de recorrer el período.
+
+CREATE TABLE IF NOT EXISTS saldos_diarios (
+    cuenta_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    saldo_apertura DECIMAL(15,2) NOT NULL,
+    total_depositos DECIMAL(15,2) NOT NULL,
+    total_retiros DECIMAL(15,2) NOT NULL,
+    saldo_cierre DECIMAL(15,2) NOT NULL,
+    cantidad INT NOT NULL,
+    fecha_actualizacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (cuenta_id, fecha),
+    FOREIGN KEY (cuenta_id) REFERENCES cuentas(cuenta_id) ON DELETE CASCADE
+);
+
+-- Resúmenes del historial existente. Apertura y cierre salen del primer y último movimiento
+-- registrados en el día (orden de movimiento_id, el mismo en que se encadenaron los saldos).
+INSERT INTO saldos_diarios (cuenta_id, fecha, saldo_apertura, total_depositos, total_retiros, saldo_cierre, cantidad)
+SELECT d.cuenta_id,
+       d.fecha,
+       CASE WHEN p.tipo_movimiento = 'Deposito' THEN p.saldo - p.valor ELSE p.saldo + p.valor END,
+       d.total_depositos,
+       d.total_retiros,
+       u.saldo,
+       d.cantidad
+FROM (SELECT m.cuenta_id,
+             DATE(m.fecha) AS fecha,
+             SUM(CASE WHEN m.tipo_movimiento = 'Deposito' THEN m.valor ELSE 0 END) AS total_depositos,
+             SUM(CASE WHEN m.tipo_movimiento = 'Retiro' THEN m.valor ELSE 0 END) AS total_retiros,
+             COUNT(*) AS cantidad,
+             MIN(m.movimiento_id) AS primer_id,
+             MAX(m.movimiento_id) AS ultimo_id
+      FROM movimientos m
+      GROUP BY m.cuenta_id, DATE(m.fecha)) d
+JOIN movimientos p ON p.movimiento_id = d.primer_id
+JOIN movimientos u ON u.movimiento_id = d.ultimo_id
+WHERE NOT EXISTS (SELECT 1 FROM saldos_diarios s WHERE s.cuenta_id = d.cuenta_id AND s.fecha = d.fecha);
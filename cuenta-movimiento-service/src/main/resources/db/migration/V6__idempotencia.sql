@@ -0,0 +1,11 @@
+-- Claves Idempotency-Key de POST /api/movimientos: cada una apunta al movimiento que creó y se
+-- inserta en la misma transacción que él. Las vencidas se purgan periódicamente.
+
+CREATE TABLE IF NOT EXISTS idempotencia_movimientos (
+    clave VARCHAR(100) PRIMARY KEY,
+    movimiento_id BIGINT NOT NULL,
+    fecha_creacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_expiracion DATETIME NOT NULL
+);
+
+CREATE INDEX idx_idempotencia_expiracion ON idempotencia_movimientos (fecha_expiracion);
@@ -0,0 +1,21 @@
+-- Cuentas calientes: los depósitos se reparten entre N franjas de saldo y el saldo de la cuenta es
+-- la cabecera (porción reservada para retiros) más la suma de sus franjas. franjas = 0 es el modo normal.
+
+ALTER TABLE saldos_cuenta ADD COLUMN franjas INT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_saldos_cuenta_franjas ON saldos_cuenta (franjas);
+
+CREATE TABLE IF NOT EXISTS saldos_cuenta_franjas (
+    cuenta_id BIGINT NOT NULL,
+    franja INT NOT NULL,
+    saldo DECIMAL(15,2) NOT NULL,
+    fecha_actualizacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (cuenta_id, franja),
+    FOREIGN KEY (cuenta_id) REFERENCES cuentas(cuenta_id) ON DELETE CASCADE
+);
+
+-- Cada franja lleva su propio resumen diario para que los depósitos no coincidan en una misma fila
+ALTER TABLE saldos_diarios
+    ADD COLUMN franja INT NOT NULL DEFAULT 0,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (cuenta_id, fecha, franja);
@@ -0,0 +1,20 @@
+-- Trabajos de reporte en segundo plano (/api/reportes/jobs), visibles desde todas las instancias.
+-- clave_activa es única mientras el trabajo está pendiente o en curso y queda en NULL al terminar.
+
+CREATE TABLE IF NOT EXISTS trabajos_reporte (
+    trabajo_id VARCHAR(36) PRIMARY KEY,
+    cliente_id BIGINT NOT NULL,
+    fecha_inicio DATETIME NOT NULL,
+    fecha_fin DATETIME NOT NULL,
+    formato VARCHAR(4) NOT NULL,
+    estado VARCHAR(10) NOT NULL,
+    clave_activa VARCHAR(100) NULL,
+    tamano BIGINT NULL,
+    error VARCHAR(500) NULL,
+    creado DATETIME NOT NULL,
+    terminado DATETIME NULL,
+    CONSTRAINT uk_trabajos_reporte_clave_activa UNIQUE (clave_activa)
+);
+
+-- Purga: trabajos sin terminar más viejos que el máximo y terminados pasada la retención
+CREATE INDEX idx_trabajos_reporte_terminado ON trabajos_reporte (terminado, creado);
@@ -0,0 +1,16 @@
+-- Versión por cuenta de los eventos de banking.cuentas: los consumidores descartan un evento cuya
+-- versión no supere la última aplicada, aunque el relay lo publique fuera de orden.
+
+CREATE TABLE IF NOT EXISTS versiones_eventos_cuentas (
+    agregado_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+-- Las cuentas existentes parten de 0: sus eventos anteriores no llevaban versión
+INSERT INTO versiones_eventos_cuentas (agregado_id, version)
+SELECT c.cuenta_id, 0
+FROM cuentas c
+WHERE NOT EXISTS (SELECT 1 FROM versiones_eventos_cuentas v WHERE v.agregado_id = c.cuenta_id);
+
+-- La réplica de clientes guarda la versión del último evento aplicado (NULL en eventos sin versión)
+ALTER TABLE clientes_replica ADD COLUMN version_evento BIGINT NULL;
@@ -0,0 +1,89 @@
+package com.banking.cuenta;
+
+import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.service.CuentaCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin @Transactional: cada lectura abre su propia sesión y solo puede resolverse desde la caché de segundo nivel
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+    
+    private static final String NUMERO_CUENTA = "9940000001";
+    
+    @Autowired
+    private CuentaRepository cuentaRepository;
+    
+    @Autowired
+    private CuentaCache cuentaCache;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private Cuenta cuenta;
+    private Statistics estadisticas;
+    
+    @BeforeEach
+    void setUp() {
+        cuenta = cuentaRepository.save(new Cuenta(NUMERO_CUENTA, "Ahorros", new BigDecimal("100.00"), 96L));
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        cuentaRepository.deleteById(cuenta.getCuentaId());
+    }
+    
+    @Test
+    void testConsultaCacheada_LaSegundaLecturaNoVaALaBaseYUnEventoRemotoLaDescarta() throws Exception {
+        // Given - la primera lectura ejecuta la consulta y la deja en la región de consultas
+        long fallosConsulta = estadisticas.getQueryCacheMissCount();
+        long aciertosConsulta = estadisticas.getQueryCacheHitCount();
+        long aciertosEntidad = estadisticas.getDomainDataRegionStatistics(Cuenta.REGION_CACHE).getHitCount();
+        cuentaRepository.findByNumeroCuenta(NUMERO_CUENTA);
+        
+        // When
+        Cuenta leida = cuentaRepository.findByNumeroCuenta(NUMERO_CUENTA).orElseThrow();
+        
+        // Then - la consulta sale de la caché, la cuenta por id también (en otra sesión) y los aciertos se
+        // publican como métricas
+        assertEquals(cuenta.getCuentaId(), leida.getCuentaId());
+        assertEquals(fallosConsulta + 1, estadisticas.getQueryCacheMissCount());
+        assertEquals(aciertosConsulta + 1, estadisticas.getQueryCacheHitCount());
+        assertTrue(cuentaRepository.findById(cuenta.getCuentaId()).isPresent());
+        assertTrue(estadisticas.getDomainDataRegionStatistics(Cuenta.REGION_CACHE).getHitCount() > aciertosEntidad);
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", Cuenta.REGION_CACHE, "result", "hit").meter());
+        
+        // Un cambio hecho por otra instancia llega como evento y descarta la cuenta y las consultas
+        cuentaCache.recibirEvento(objectMapper.writeValueAsString(Map.of(
+                "eventoId", "evento-l2", "tipo", "CuentaActualizada", "agregadoId", cuenta.getCuentaId(),
+                "datos", Map.of("clienteId", 96))));
+        assertFalse(entityManagerFactory.getCache().contains(Cuenta.class, cuenta.getCuentaId()));
+        assertEquals(cuenta.getCuentaId(), cuentaRepository.findByNumeroCuenta(NUMERO_CUENTA).orElseThrow().getCuentaId());
+        assertEquals(fallosConsulta + 2, estadisticas.getQueryCacheMissCount());
+        assertEquals(aciertosConsulta + 1, estadisticas.getQueryCacheHitCount());
+    }
+}
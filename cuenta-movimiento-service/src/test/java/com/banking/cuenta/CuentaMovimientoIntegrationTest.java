@@ -2,20 +2,45 @@ package com.banking.cuenta;
 
 import com.banking.cuenta.model.Cuenta;
 import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.SaldoDiario;
+import com.banking.cuenta.model.SaldoDiarioId;
 import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.model.dto.EstadoCuentaDTO;
+import com.banking.cuenta.model.dto.MovimientoResumen;
+import com.banking.cuenta.model.dto.PaginaDTO;
+import com.banking.cuenta.model.dto.ResultadoLoteDTO;
 import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SaldoDiarioRepository;
+import com.banking.cuenta.service.ClienteReplicaService;
+import com.banking.cuenta.service.CuentaCache;
+import com.banking.cuenta.service.CuentaService;
+import com.banking.cuenta.service.IdempotenciaService;
+import com.banking.cuenta.service.MovimientoLoteService;
 import com.banking.cuenta.service.MovimientoService;
+import com.banking.cuenta.service.ReporteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,9 +55,39 @@ class CuentaMovimientoIntegrationTest {
     @Autowired
     private MovimientoRepository movimientoRepository;
     
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+    
     @Autowired
     private MovimientoService movimientoService;
     
+    @Autowired
+    private MovimientoLoteService movimientoLoteService;
+    
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+    
+    @Autowired
+    private ReporteService reporteService;
+    
+    @Autowired
+    private ClienteReplicaService clienteReplicaService;
+    
+    @Autowired
+    private CuentaService cuentaService;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
     private Cuenta cuenta;
     
     @BeforeEach
@@ -151,14 +206,14 @@ class CuentaMovimientoIntegrationTest {
         deposito.setValor(new BigDecimal("500.00"));
         deposito.setCuentaId(cuenta.getCuentaId());
         deposito.setFecha(LocalDateTime.now().minusDays(1));
-        movimientoRepository.save(deposito);
+        movimientoService.save(deposito);
         
         Movimiento retiro = new Movimiento();
         retiro.setTipoMovimiento("Retiro");
         retiro.setValor(new BigDecimal("200.00"));
         retiro.setCuentaId(cuenta.getCuentaId());
         retiro.setFecha(LocalDateTime.now());
-        movimientoRepository.save(retiro);
+        movimientoService.save(retiro);
         
         LocalDateTime fechaInicio = LocalDateTime.now().minusDays(2);
         LocalDateTime fechaFin = LocalDateTime.now().plusDays(1);
@@ -179,4 +234,275 @@ class CuentaMovimientoIntegrationTest {
         assertEquals(new BigDecimal("1300.00"), estado.getSaldoDisponible()); // 1000 + 500 - 200
         assertEquals(2, estado.getMovimientos().size());
     }
+    
+    @Test
+    void testEscribirEstadoCuenta_IncluyeCuentasSinMovimientos() throws IOException {
+        // Given - una segunda cuenta del mismo cliente sin movimientos en el período
+        Cuenta cuentaSinMovimientos = new Cuenta();
+        cuentaSinMovimientos.setNumeroCuenta("1234567891");
+        cuentaSinMovimientos.setTipoCuenta("Corriente");
+        cuentaSinMovimientos.setSaldoInicial(new BigDecimal("250.00"));
+        cuentaSinMovimientos.setEstado(true);
+        cuentaSinMovimientos.setClienteId(1L);
+        cuentaRepository.save(cuentaSinMovimientos);
+        
+        Movimiento deposito = new Movimiento();
+        deposito.setTipoMovimiento("Deposito");
+        deposito.setValor(new BigDecimal("500.00"));
+        deposito.setCuentaId(cuenta.getCuentaId());
+        movimientoService.save(deposito);
+        
+        // When
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        reporteService.escribirEstadoCuenta(1L, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), salida);
+        EstadoCuentaDTO[] estados = objectMapper.readValue(salida.toByteArray(), EstadoCuentaDTO[].class);
+        
+        // Then
+        assertEquals(2, estados.length);
+        assertEquals(cuenta.getNumeroCuenta(), estados[0].getNumeroCuenta());
+        assertEquals(new BigDecimal("500.00"), estados[0].getMovimiento());
+        assertEquals(new BigDecimal("1500.00"), estados[0].getSaldoDisponible());
+        assertEquals(1, estados[0].getMovimientos().size());
+        assertEquals("1234567891", estados[1].getNumeroCuenta());
+        assertEquals(0, estados[1].getMovimiento().compareTo(BigDecimal.ZERO));
+        assertEquals(new BigDecimal("250.00"), estados[1].getSaldoDisponible());
+        assertTrue(estados[1].getMovimientos().isEmpty());
+    }
+    
+    @Test
+    void testEventoCliente_DaNombreAlEstadoCuenta() {
+        // Given - un cliente propio para no alterar el nombre del cliente 1 en el mapa de la réplica
+        Cuenta cuentaCliente = new Cuenta();
+        cuentaCliente.setNumeroCuenta("1234567892");
+        cuentaCliente.setTipoCuenta("Ahorros");
+        cuentaCliente.setSaldoInicial(new BigDecimal("100.00"));
+        cuentaCliente.setEstado(true);
+        cuentaCliente.setClienteId(77L);
+        cuentaRepository.save(cuentaCliente);
+        
+        LocalDateTime inicio = LocalDateTime.now().minusDays(1);
+        LocalDateTime fin = LocalDateTime.now().plusDays(1);
+        assertEquals("Cliente 77", movimientoService.generarEstadoCuenta(77L, inicio, fin).get(0).getCliente());
+        
+        // When - creación y luego una reentrega atrasada con otro nombre
+        clienteReplicaService.recibirEvento("{\"eventoId\":\"e1\",\"tipo\":\"ClienteActualizado\",\"agregadoId\":77,"
+                + "\"fecha\":\"2026-01-02T10:00:00\",\"datos\":{\"nombre\":\"Marianela Montalvo\",\"estado\":true}}");
+        clienteReplicaService.recibirEvento("{\"eventoId\":\"e0\",\"tipo\":\"ClienteCreado\",\"agregadoId\":77,"
+                + "\"fecha\":\"2026-01-01T10:00:00\",\"datos\":{\"nombre\":\"M. Montalvo\",\"estado\":true}}");
+        
+        // Then
+        assertEquals("Marianela Montalvo", movimientoService.generarEstadoCuenta(77L, inicio, fin).get(0).getCliente());
+    }
+    
+    @Test
+    void testEventoCliente_LaVersionPrevaleceSobreLaFecha() {
+        // Given - instancias con relojes distintos: la versión 2 trae una fecha anterior a la 1
+        clienteReplicaService.recibirEvento("{\"eventoId\":\"v2\",\"tipo\":\"ClienteActualizado\",\"agregadoId\":78,"
+                + "\"version\":2,\"fecha\":\"2026-01-01T10:00:00\",\"datos\":{\"nombre\":\"Nombre nuevo\",\"estado\":true}}");
+        
+        // When - la versión 1 llega después
+        clienteReplicaService.recibirEvento("{\"eventoId\":\"v1\",\"tipo\":\"ClienteCreado\",\"agregadoId\":78,"
+                + "\"version\":1,\"fecha\":\"2026-01-01T10:00:05\",\"datos\":{\"nombre\":\"Nombre viejo\",\"estado\":true}}");
+        
+        // Then
+        assertEquals("Nombre nuevo", clienteReplicaService.nombre(78L));
+    }
+    
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testEventoCliente_YaAplicadoPorOtraInstanciaActualizaElMapa() {
+        // Given - esta instancia aplicó la versión 1 y otra ya guardó la 2 en la tabla compartida
+        clienteReplicaService.recibirEvento("{\"eventoId\":\"o1\",\"tipo\":\"ClienteCreado\",\"agregadoId\":79,"
+                + "\"version\":1,\"fecha\":\"2026-01-01T10:00:00\",\"datos\":{\"nombre\":\"Nombre viejo\",\"estado\":true}}");
+        jdbcTemplate.update("UPDATE clientes_replica SET nombre = ?, version_evento = 2 WHERE cliente_id = 79", "Nombre nuevo");
+        
+        try {
+            // When - la versión 2 llega también a esta instancia
+            clienteReplicaService.recibirEvento("{\"eventoId\":\"o2\",\"tipo\":\"ClienteActualizado\",\"agregadoId\":79,"
+                    + "\"version\":2,\"fecha\":\"2026-01-01T10:00:05\",\"datos\":{\"nombre\":\"Nombre nuevo\",\"estado\":true}}");
+            
+            // Then - el mapa queda con la fila que guardó la otra instancia
+            assertEquals("Nombre nuevo", clienteReplicaService.nombre(79L));
+        } finally {
+            // Sin transacción de prueba también queda confirmada la cuenta de setUp
+            jdbcTemplate.update("DELETE FROM clientes_replica WHERE cliente_id = 79");
+            cuentaRepository.deleteById(cuenta.getCuentaId());
+        }
+    }
+    
+    @Test
+    void testFindById_LaCacheSeInvalidaAlActualizar() {
+        // Given - la primera lectura deja la cuenta en caché
+        Cache cache = cacheManager.getCache(CuentaCache.CUENTAS);
+        cuentaService.findById(cuenta.getCuentaId());
+        assertNotNull(cache.get(cuenta.getCuentaId()));
+        
+        Cuenta cambios = new Cuenta(cuenta.getNumeroCuenta(), "Corriente", cuenta.getSaldoInicial(), cuenta.getClienteId());
+        
+        // When
+        cuentaService.update(cuenta.getCuentaId(), cambios);
+        
+        // Then
+        assertNull(cache.get(cuenta.getCuentaId()));
+        assertEquals("Corriente", cuentaService.findById(cuenta.getCuentaId()).orElseThrow().getTipoCuenta());
+        assertEquals("Corriente", cuentaService.findByNumeroCuenta(cuenta.getNumeroCuenta()).orElseThrow().getTipoCuenta());
+        assertEquals(1, cuentaService.findByClienteId(1L).size());
+    }
+    
+    @Test
+    void testListarPorCuenta_RecorrePaginasConCursor() {
+        // Given - cinco depósitos, probablemente con la misma fecha: el desempate es movimiento_id
+        for (int i = 1; i <= 5; i++) {
+            Movimiento deposito = new Movimiento();
+            deposito.setTipoMovimiento("Deposito");
+            deposito.setValor(new BigDecimal(i * 10));
+            deposito.setCuentaId(cuenta.getCuentaId());
+            movimientoService.save(deposito);
+        }
+        
+        // When
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaDTO<MovimientoResumen> pagina = movimientoService.listarPorCuenta(cuenta.getCuentaId(), cursor, 2, false);
+            pagina.getContenido().forEach(m -> ids.add(m.getMovimientoId()));
+            cursor = pagina.getSiguiente();
+            paginas++;
+        } while (cursor != null);
+        
+        // Then
+        assertEquals(3, paginas);
+        assertEquals(5, ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertThrows(IllegalArgumentException.class,
+                () -> movimientoService.listarPorCuenta(cuenta.getCuentaId(), "no-es-un-cursor", 2, false));
+    }
+    
+    @Test
+    void testProcesarLote_RechazaSoloElMovimientoSinSaldo() {
+        // Given - el segundo retiro sobregira la cuenta y debe rechazarse sin afectar a los demás
+        Movimiento deposito = new Movimiento("Deposito", new BigDecimal("500.00"), null, cuenta.getCuentaId());
+        Movimiento retiroExcesivo = new Movimiento("Retiro", new BigDecimal("2000.00"), null, cuenta.getCuentaId());
+        Movimiento retiro = new Movimiento("Retiro", new BigDecimal("300.00"), null, cuenta.getCuentaId());
+        Movimiento cuentaInexistente = new Movimiento("Deposito", new BigDecimal("10.00"), null, -1L);
+        
+        // When
+        List<ResultadoLoteDTO> resultados = movimientoLoteService.procesar(
+                List.of(deposito, retiroExcesivo, retiro, cuentaInexistente));
+        
+        // Then
+        assertEquals(4, resultados.size());
+        assertEquals(ResultadoLoteDTO.ACEPTADO, resultados.get(0).getEstado());
+        assertEquals(new BigDecimal("1500.00"), resultados.get(0).getSaldo());
+        assertEquals(ResultadoLoteDTO.RECHAZADO, resultados.get(1).getEstado());
+        assertEquals("Saldo no disponible", resultados.get(1).getError());
+        assertEquals(ResultadoLoteDTO.ACEPTADO, resultados.get(2).getEstado());
+        assertEquals(new BigDecimal("1200.00"), resultados.get(2).getSaldo());
+        assertEquals(ResultadoLoteDTO.RECHAZADO, resultados.get(3).getEstado());
+        
+        List<Movimiento> movimientos = movimientoRepository.findByCuentaId(cuenta.getCuentaId());
+        assertEquals(2, movimientos.size());
+    }
+    
+    @Test
+    void testSaldosDiarios_DanElTotalDelPeriodo() {
+        // Given - dos días con movimientos; el período empieza a mitad del primero
+        LocalDate anteayer = LocalDate.now().minusDays(2);
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        Movimiento deposito = new Movimiento("Deposito", new BigDecimal("500.00"), null, cuenta.getCuentaId());
+        deposito.setFecha(anteayer.atTime(10, 0));
+        movimientoService.save(deposito);
+        Movimiento retiro = new Movimiento("Retiro", new BigDecimal("100.00"), null, cuenta.getCuentaId());
+        retiro.setFecha(ayer.atTime(9, 0));
+        retiro = movimientoService.save(retiro);
+        Movimiento segundoDeposito = new Movimiento("Deposito", new BigDecimal("50.00"), null, cuenta.getCuentaId());
+        segundoDeposito.setFecha(ayer.atTime(15, 0));
+        movimientoService.save(segundoDeposito);
+        
+        SaldoDiario resumen = saldoDiarioRepository.findById(new SaldoDiarioId(cuenta.getCuentaId(), ayer)).orElseThrow();
+        assertEquals(new BigDecimal("1500.00"), resumen.getSaldoApertura());
+        assertEquals(new BigDecimal("50.00"), resumen.getTotalDepositos());
+        assertEquals(new BigDecimal("100.00"), resumen.getTotalRetiros());
+        assertEquals(new BigDecimal("1450.00"), resumen.getSaldoCierre());
+        assertEquals(2, resumen.getCantidad());
+        
+        // When - el día de ayer sale del resumen; el depósito de anteayer queda fuera del período
+        LocalDateTime inicio = anteayer.atTime(12, 0);
+        LocalDateTime fin = LocalDateTime.now().plusDays(1);
+        EstadoCuentaDTO estado = movimientoService.generarEstadoCuenta(1L, inicio, fin).get(0);
+        
+        // Then
+        assertEquals(0, estado.getMovimiento().compareTo(new BigDecimal("-50.00")));
+        assertEquals(2, estado.getMovimientos().size());
+        
+        // When - al eliminar el retiro el resumen del día se corrige
+        movimientoService.deleteById(retiro.getMovimientoId());
+        
+        // Then
+        assertEquals(1, saldoDiarioRepository.findById(new SaldoDiarioId(cuenta.getCuentaId(), ayer)).orElseThrow().getCantidad());
+        assertEquals(0, movimientoService.generarEstadoCuenta(1L, inicio, fin).get(0).getMovimiento()
+                .compareTo(new BigDecimal("50.00")));
+    }
+    
+    @Test
+    void testIdempotencia_ElReintentoDevuelveElMovimientoOriginal() {
+        // Given
+        String clave = UUID.randomUUID().toString();
+        Movimiento primero = idempotenciaService.registrar(clave,
+                new Movimiento("Deposito", new BigDecimal("500.00"), null, cuenta.getCuentaId()));
+        
+        // When - el cliente reintenta con la misma clave
+        Movimiento reintento = idempotenciaService.registrar(clave,
+                new Movimiento("Deposito", new BigDecimal("500.00"), null, cuenta.getCuentaId()));
+        
+        // Then - el depósito se aplicó una sola vez
+        assertEquals(primero.getMovimientoId(), reintento.getMovimientoId());
+        assertEquals(new BigDecimal("1500.00"), reintento.getSaldo());
+        assertEquals(1, movimientoRepository.findByCuentaId(cuenta.getCuentaId()).size());
+        
+        RuntimeException error = assertThrows(IdempotenciaService.ClaveReutilizadaException.class,
+                () -> idempotenciaService.registrar(clave,
+                        new Movimiento("Retiro", new BigDecimal("500.00"), null, cuenta.getCuentaId())));
+        assertEquals("La clave de idempotencia ya se usó con otro movimiento", error.getMessage());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testIdempotencia_LaCacheVenceConLaFilaDeLaClave() {
+        // Given - una clave leída de la tabla a un minuto de vencer
+        String clave = UUID.randomUUID().toString();
+        Movimiento original = new Movimiento("Deposito", new BigDecimal("20.00"), null, cuenta.getCuentaId());
+        
+        // When
+        cacheManager.getCache(IdempotenciaService.CACHE)
+                .put(clave, new IdempotenciaService.ClaveRecordada(original, LocalDateTime.now().plusMinutes(1)));
+        
+        // Then - la entrada en memoria vence con la fila, no ttl-horas después
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = (com.github.benmanes.caffeine.cache.Cache<Object, Object>)
+                cacheManager.getCache(IdempotenciaService.CACHE).getNativeCache();
+        Duration vence = cache.policy().expireVariably().orElseThrow().getExpiresAfter(clave).orElseThrow();
+        assertTrue(vence.compareTo(Duration.ofMinutes(1)) <= 0);
+        assertTrue(vence.compareTo(Duration.ZERO) > 0);
+    }
+    
+    @Test
+    void testMetricas_CuentanRegistrosYRechazosPorMotivo() {
+        // Given
+        double rechazosPrevios = meterRegistry.get("banking.movimientos.rechazados")
+                .tag("motivo", "saldo_no_disponible").counter().count();
+        long registrosPrevios = meterRegistry.get("banking.movimientos.registro").timers().stream()
+                .mapToLong(timer -> timer.count()).sum();
+        
+        // When
+        movimientoService.save(new Movimiento("Deposito", new BigDecimal("10.00"), null, cuenta.getCuentaId()));
+        assertThrows(RuntimeException.class, () -> movimientoService.save(
+                new Movimiento("Retiro", new BigDecimal("5000.00"), null, cuenta.getCuentaId())));
+        
+        // Then - el temporizador cuenta ambas llamadas (etiqueta exception) y el rechazo queda con su motivo
+        assertEquals(rechazosPrevios + 1, meterRegistry.get("banking.movimientos.rechazados")
+                .tag("motivo", "saldo_no_disponible").counter().count());
+        assertEquals(registrosPrevios + 2, meterRegistry.get("banking.movimientos.registro").timers().stream()
+                .mapToLong(timer -> timer.count()).sum());
+    }
 }
@@ -0,0 +1,204 @@
+package com.banking.cuenta;
+
+import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.SaldoCuenta;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SaldoCuentaRepository;
+import com.banking.cuenta.service.MovimientoService;
+import com.banking.cuenta.service.SaldoCuentaService;
+import com.banking.cuenta.service.SaldoFranjaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin @Transactional: cada movimiento se confirma en su propia transacción, como en producción
+@SpringBootTest
+@ActiveProfiles("test")
+class MovimientoConcurrenciaTest {
+    
+    private static final int HILOS = 16;
+    private static final int RETIROS_POR_HILO = 20;
+    
+    @Autowired
+    private CuentaRepository cuentaRepository;
+    
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+    
+    @Autowired
+    private SaldoCuentaRepository saldoCuentaRepository;
+    
+    @Autowired
+    private MovimientoService movimientoService;
+    
+    @Autowired
+    private SaldoCuentaService saldoCuentaService;
+    
+    @Autowired
+    private SaldoFranjaService saldoFranjaService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private Cuenta cuenta;
+    
+    @BeforeEach
+    void setUp() {
+        cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("9900000001");
+        cuenta.setTipoCuenta("Corriente");
+        cuenta.setSaldoInicial(new BigDecimal("1000.00"));
+        cuenta.setEstado(true);
+        cuenta.setClienteId(99L);
+        cuenta = cuentaRepository.save(cuenta);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        movimientoRepository.deleteAll(movimientoRepository.findByCuentaId(cuenta.getCuentaId()));
+        saldoCuentaRepository.deleteById(cuenta.getCuentaId());
+        cuentaRepository.deleteById(cuenta.getCuentaId());
+    }
+    
+    @Test
+    void testRetirosConcurrentes_NoSobregiranLaCuenta() throws InterruptedException {
+        // Given - 320 retiros de 10 contra un saldo de 1000: solo 100 pueden aplicarse
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch inicio = new CountDownLatch(1);
+        AtomicInteger aceptados = new AtomicInteger();
+        AtomicInteger rechazados = new AtomicInteger();
+        
+        for (int i = 0; i < HILOS; i++) {
+            executor.submit(() -> {
+                inicio.await();
+                for (int j = 0; j < RETIROS_POR_HILO; j++) {
+                    Movimiento retiro = new Movimiento();
+                    retiro.setTipoMovimiento("Retiro");
+                    retiro.setValor(new BigDecimal("10.00"));
+                    retiro.setCuentaId(cuenta.getCuentaId());
+                    try {
+                        movimientoService.save(retiro);
+                        aceptados.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        assertEquals("Saldo no disponible", e.getMessage());
+                        rechazados.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        
+        // When
+        inicio.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        
+        // Then
+        assertEquals(100, aceptados.get());
+        assertEquals(HILOS * RETIROS_POR_HILO - 100, rechazados.get());
+        assertEquals(0, saldoCuentaRepository.findById(cuenta.getCuentaId()).orElseThrow()
+                .getSaldo().compareTo(BigDecimal.ZERO));
+        
+        List<Movimiento> movimientos = movimientoRepository.findByCuentaId(cuenta.getCuentaId());
+        assertEquals(100, movimientos.size());
+        assertTrue(movimientos.stream().allMatch(m -> m.getSaldo().signum() >= 0));
+    }
+    
+    @Test
+    void testCuentaCaliente_DepositosEnFranjasYRetiroSobreElSaldoCompleto() throws InterruptedException {
+        // Given - cuenta caliente con 8 franjas y 320 depósitos de 10 en paralelo
+        saldoFranjaService.configurar(cuenta.getCuentaId(), 8);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch inicio = new CountDownLatch(1);
+        
+        for (int i = 0; i < HILOS; i++) {
+            executor.submit(() -> {
+                inicio.await();
+                for (int j = 0; j < RETIROS_POR_HILO; j++) {
+                    movimientoService.save(movimiento("Deposito", "10.00"));
+                }
+                return null;
+            });
+        }
+        
+        // When
+        inicio.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        
+        // Then - ningún depósito se pierde entre cabecera y franjas
+        assertEquals(0, new BigDecimal("4200.00").compareTo(saldoCuentaService.calcularSaldoActual(cuenta.getCuentaId())));
+        assertEquals(HILOS * RETIROS_POR_HILO, movimientoRepository.findByCuentaId(cuenta.getCuentaId()).size());
+        
+        // Un retiro por encima del saldo completo se rechaza aunque parte esté en franjas; el saldo exacto se acepta
+        RuntimeException rechazo = assertThrows(RuntimeException.class,
+                () -> movimientoService.save(movimiento("Retiro", "4200.01")));
+        assertEquals("Saldo no disponible", rechazo.getMessage());
+        Movimiento retiro = movimientoService.save(movimiento("Retiro", "4200.00"));
+        assertEquals(0, retiro.getSaldo().compareTo(BigDecimal.ZERO));
+        
+        saldoFranjaService.configurar(cuenta.getCuentaId(), 0);
+        assertEquals(0, saldoCuentaRepository.findById(cuenta.getCuentaId()).orElseThrow()
+                .getSaldo().compareTo(BigDecimal.ZERO));
+    }
+    
+    @Test
+    void testEliminarMovimiento_RevierteSuValorAunqueLaCuentaHayaSidoCaliente() {
+        // Given - dos depósitos en modo caliente y un retiro ya en modo normal
+        saldoFranjaService.configurar(cuenta.getCuentaId(), 4);
+        Movimiento deposito = movimientoService.save(movimiento("Deposito", "100.00"));
+        movimientoService.save(movimiento("Deposito", "50.00"));
+        saldoFranjaService.configurar(cuenta.getCuentaId(), 0);
+        movimientoService.save(movimiento("Retiro", "30.00"));
+        
+        // When - se elimina un movimiento que no es el último
+        movimientoService.deleteById(deposito.getMovimientoId());
+        
+        // Then - 1000 + 50 - 30, no el saldo que quedó en el último movimiento
+        assertEquals(0, new BigDecimal("1020.00").compareTo(saldoCuentaService.calcularSaldoActual(cuenta.getCuentaId())));
+    }
+    
+    @Test
+    void testInicializarSaldo_OtraInstanciaCreoLaCabeceraPrimero() {
+        // Given - la cabecera aparece entre la búsqueda sin resultado y el alta de esta instancia
+        saldoCuentaRepository.save(new SaldoCuenta(cuenta.getCuentaId(), new BigDecimal("1000.00"), true));
+        SaldoCuentaService destino = AopTestUtils.getTargetObject(saldoCuentaService);
+        
+        // When - la clave duplicada no invalida la transacción, que sigue y confirma
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            SaldoCuenta saldoCuenta = ReflectionTestUtils.invokeMethod(destino, "inicializarSaldo", cuenta.getCuentaId());
+            saldoCuenta.setSaldo(saldoCuenta.getSaldo().add(BigDecimal.TEN));
+        });
+        
+        // Then
+        assertEquals(0, new BigDecimal("1010.00").compareTo(
+                saldoCuentaRepository.findById(cuenta.getCuentaId()).orElseThrow().getSaldo()));
+    }
+    
+    private Movimiento movimiento(String tipo, String valor) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setTipoMovimiento(tipo);
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setCuentaId(cuenta.getCuentaId());
+        return movimiento;
+    }
+}
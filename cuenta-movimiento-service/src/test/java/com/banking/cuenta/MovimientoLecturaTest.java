@@ -0,0 +1,137 @@
+package com.banking.cuenta;
+
+import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.dto.EstadoCuentaDTO;
+import com.banking.cuenta.model.dto.LineaEstadoCuentaDTO;
+import com.banking.cuenta.model.dto.MovimientoLecturaDTO;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SaldoCuentaRepository;
+import com.banking.cuenta.service.MovimientoLecturaService;
+import com.banking.cuenta.service.MovimientoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin @Transactional: R2DBC usa otra conexión y solo ve lo confirmado por JPA
+@SpringBootTest
+@ActiveProfiles("test")
+class MovimientoLecturaTest {
+    
+    @Autowired
+    private CuentaRepository cuentaRepository;
+    
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+    
+    @Autowired
+    private SaldoCuentaRepository saldoCuentaRepository;
+    
+    @Autowired
+    private MovimientoService movimientoService;
+    
+    @Autowired
+    private MovimientoLecturaService movimientoLecturaService;
+    
+    private Cuenta cuenta;
+    
+    @BeforeEach
+    void setUp() {
+        cuenta = new Cuenta("9900000002", "Ahorros", new BigDecimal("100.00"), 98L);
+        cuenta = cuentaRepository.save(cuenta);
+        
+        LocalDateTime inicio = LocalDateTime.now().minusHours(3);
+        for (int i = 0; i < 3; i++) {
+            Movimiento deposito = new Movimiento();
+            deposito.setTipoMovimiento("Deposito");
+            deposito.setValor(new BigDecimal("10.00"));
+            deposito.setCuentaId(cuenta.getCuentaId());
+            deposito.setFecha(inicio.plusHours(i));
+            movimientoService.save(deposito);
+        }
+    }
+    
+    @AfterEach
+    void tearDown() {
+        movimientoRepository.deleteAll(movimientoRepository.findByCuentaId(cuenta.getCuentaId()));
+        saldoCuentaRepository.findById(cuenta.getCuentaId()).ifPresent(saldoCuentaRepository::delete);
+        cuentaRepository.deleteById(cuenta.getCuentaId());
+    }
+    
+    @Test
+    void testFindByCuentaId_EmiteEnElOrdenPedido() {
+        // When
+        List<MovimientoLecturaDTO> ascendentes = movimientoLecturaService.findByCuentaId(cuenta.getCuentaId(), false)
+                .collectList().block();
+        List<MovimientoLecturaDTO> descendentes = movimientoLecturaService.findByCuentaId(cuenta.getCuentaId(), true)
+                .collectList().block();
+        
+        // Then
+        assertEquals(3, ascendentes.size());
+        assertEquals(new BigDecimal("110.00"), ascendentes.get(0).getSaldo());
+        assertEquals(new BigDecimal("130.00"), ascendentes.get(2).getSaldo());
+        assertEquals(ascendentes.get(2).getMovimientoId(), descendentes.get(0).getMovimientoId());
+    }
+    
+    @Test
+    void testGenerarEstadoCuenta_MovimientosYLuegoElResumenDeLaCuenta() {
+        // When
+        List<LineaEstadoCuentaDTO> lineas = movimientoLecturaService.generarEstadoCuenta(98L,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1)).collectList().block();
+        
+        // Then - tres movimientos sueltos y al final el resumen, sin la lista
+        assertEquals(4, lineas.size());
+        for (LineaEstadoCuentaDTO linea : lineas.subList(0, 3)) {
+            assertEquals("9900000002", linea.getNumeroCuenta());
+            assertNotNull(linea.getMovimiento());
+            assertNull(linea.getResumen());
+        }
+        assertEquals(new BigDecimal("130.00"), lineas.get(0).getMovimiento().getSaldo());
+        EstadoCuentaDTO resumen = lineas.get(3).getResumen();
+        assertNull(lineas.get(3).getMovimiento());
+        assertEquals("Cliente 98", resumen.getCliente());
+        assertEquals(new BigDecimal("30.00"), resumen.getMovimiento());
+        assertEquals(new BigDecimal("130.00"), resumen.getSaldoDisponible());
+        assertNull(resumen.getMovimientos());
+    }
+    
+    @Test
+    void testGenerarEstadoCuenta_ResumenAlCambiarDeCuenta() {
+        // Given - una segunda cuenta del mismo cliente sin movimientos en el período
+        Cuenta otra = cuentaRepository.save(new Cuenta("9900000003", "Corriente", new BigDecimal("50.00"), 98L));
+        
+        try {
+            // When
+            List<LineaEstadoCuentaDTO> lineas = movimientoLecturaService.generarEstadoCuenta(98L,
+                    LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1)).collectList().block();
+            
+            // Then - cada resumen sigue a los movimientos de su cuenta
+            List<String> resumenes = lineas.stream().filter(l -> l.getResumen() != null).map(LineaEstadoCuentaDTO::getNumeroCuenta).toList();
+            assertEquals(2, resumenes.size());
+            assertTrue(resumenes.contains("9900000003"));
+            assertNotNull(lineas.get(lineas.size() - 1).getResumen());
+            Set<String> cerradas = new HashSet<>();
+            for (LineaEstadoCuentaDTO linea : lineas) {
+                assertFalse(cerradas.contains(linea.getNumeroCuenta()), "Línea de " + linea.getNumeroCuenta() + " después de su resumen");
+                if (linea.getResumen() != null) {
+                    cerradas.add(linea.getNumeroCuenta());
+                }
+            }
+        } finally {
+            saldoCuentaRepository.findById(otra.getCuentaId()).ifPresent(saldoCuentaRepository::delete);
+            cuentaRepository.deleteById(otra.getCuentaId());
+        }
+    }
+}
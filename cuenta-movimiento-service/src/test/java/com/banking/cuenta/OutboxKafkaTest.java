@@ -0,0 +1,104 @@
+package com.banking.cuenta;
+
+import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.repository.EventoOutboxRepository;
+import com.banking.cuenta.service.CuentaService;
+import com.banking.cuenta.service.MovimientoService;
+import com.banking.cuenta.service.OutboxService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Relay habilitado contra el broker embebido; base propia para no compartir el outbox con otras pruebas
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxdb",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "banking.outbox.relay-habilitado=true",
+        "banking.outbox.intervalo-ms=100"
+})
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 1, topics = {OutboxService.TOPICO_MOVIMIENTOS, OutboxService.TOPICO_CUENTAS})
+class OutboxKafkaTest {
+    
+    @Autowired
+    private CuentaService cuentaService;
+    
+    @Autowired
+    private MovimientoService movimientoService;
+    
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+    
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void testMovimientoConfirmado_SePublicaConLaCuentaComoClave() throws Exception {
+        // Given
+        Cuenta cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("7700000001");
+        cuenta.setTipoCuenta("Ahorros");
+        cuenta.setSaldoInicial(new BigDecimal("100.00"));
+        cuenta.setEstado(true);
+        cuenta.setClienteId(1L);
+        cuenta = cuentaService.save(cuenta);
+        
+        Movimiento deposito = new Movimiento();
+        deposito.setTipoMovimiento("Deposito");
+        deposito.setValor(new BigDecimal("50.00"));
+        deposito.setCuentaId(cuenta.getCuentaId());
+        
+        // When
+        Movimiento movimiento = movimientoService.save(deposito);
+        
+        // Then
+        Map<String, Object> propiedades = KafkaTestUtils.consumerProps("outbox-test", "false", embeddedKafka);
+        propiedades.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, String> consumidor = new DefaultKafkaConsumerFactory<>(propiedades,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumidor, OutboxService.TOPICO_MOVIMIENTOS);
+            ConsumerRecord<String, String> registro =
+                    KafkaTestUtils.getSingleRecord(consumidor, OutboxService.TOPICO_MOVIMIENTOS, Duration.ofSeconds(15));
+            
+            assertEquals(String.valueOf(cuenta.getCuentaId()), registro.key());
+            assertEquals(OutboxService.MOVIMIENTO_REGISTRADO,
+                    new String(registro.headers().lastHeader("tipo").value(), StandardCharsets.UTF_8));
+            
+            JsonNode evento = objectMapper.readTree(registro.value());
+            assertNotNull(evento.get("eventoId").asText());
+            assertEquals(OutboxService.MOVIMIENTO_REGISTRADO, evento.get("tipo").asText());
+            assertEquals(movimiento.getMovimientoId().longValue(), evento.get("agregadoId").asLong());
+            assertEquals(1, evento.get("version").asLong());
+            assertEquals(0, new BigDecimal("150.00").compareTo(evento.get("datos").get("saldo").decimalValue()));
+        }
+        
+        // El relay borra los eventos una vez confirmados por el broker
+        long limite = System.currentTimeMillis() + 10_000;
+        while (eventoOutboxRepository.count() > 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, eventoOutboxRepository.count());
+    }
+}
@@ -0,0 +1,45 @@
+package com.banking.cuenta;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Los casos de PlanConsultasTest sobre un MySQL 8.0 en contenedor, con el esquema de las migraciones:
+// aquí el EXPLAIN informa el tipo de acceso y "Using filesort". Sin Docker disponible se omite.
+@Testcontainers(disabledWithoutDocker = true)
+class PlanConsultasMySqlTest extends PlanConsultasTest {
+    
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("banking_db")
+            .withUrlParam("serverTimezone", "UTC");
+    
+    @DynamicPropertySource
+    static void baseMySql(DynamicPropertyRegistry registro) {
+        // El contexto puede crearse antes que la extensión de Testcontainers arranque el contenedor
+        MYSQL.start();
+        registro.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registro.add("spring.datasource.username", MYSQL::getUsername);
+        registro.add("spring.datasource.password", MYSQL::getPassword);
+        registro.add("spring.datasource.driver-class-name", MYSQL::getDriverClassName);
+        registro.add("spring.r2dbc.url", () -> "r2dbc:mysql://" + MYSQL.getHost() + ":"
+                + MYSQL.getMappedPort(MySQLContainer.MYSQL_PORT) + "/" + MYSQL.getDatabaseName() + "?serverZoneId=UTC");
+        registro.add("spring.r2dbc.username", MYSQL::getUsername);
+        registro.add("spring.r2dbc.password", MYSQL::getPassword);
+        // Los índices son los de db/migration, no los que Hibernate deduce de las entidades
+        registro.add("spring.flyway.enabled", () -> "true");
+        registro.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registro.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.MySQLDialect");
+    }
+    
+    @Test
+    void testSeEjecutaSobreMySql() {
+        // Sin esto, un cambio de configuración devolvería la prueba a H2 y las comprobaciones de filesort no correrían
+        assertTrue(mysql, "PlanConsultasMySqlTest no se ejecuta sobre MySQL");
+    }
+}
@@ -0,0 +1,373 @@
+package com.banking.cuenta;
+
+import com.banking.cuenta.model.dto.FilaEstadoCuenta;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SaldoCuentaRepository;
+import com.banking.cuenta.repository.SaldoDiarioRepository;
+import com.banking.cuenta.repository.SaldoFranjaRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Regresión de planes de ejecución: cada consulta de los repositorios se ejecuta sobre un conjunto
+// de datos sembrado, se captura el SQL con sus parámetros y se le pide el EXPLAIN a la base.
+// Ninguna consulta puede recorrer una tabla completa y cada una debe usar el índice esperado.
+// H2 no informa de ordenamientos: PlanConsultasMySqlTest repite los mismos casos sobre MySQL, donde
+// además se rechaza "Using filesort". El rebalanceo de cuentas calientes se aplaza para que no cambie
+// los datos sembrados ni sus consultas se mezclen con las capturadas.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plandb",
+        "banking.cuentas-calientes.intervalo-rebalanceo-ms=3600000"
+})
+@ActiveProfiles("test")
+@Import(PlanConsultasTest.CapturaSqlConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlanConsultasTest {
+    
+    private static final int CLIENTES = 20;
+    private static final int CUENTAS_POR_CLIENTE = 5;
+    private static final int MOVIMIENTOS_POR_CUENTA = 40;
+    private static final long CLIENTE_ID = 510L;
+    private static final LocalDateTime FECHA_BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    
+    private static final String IDX_MOVIMIENTOS_CUENTA = "idx_movimientos_cuenta_fecha";
+    private static final String IDX_MOVIMIENTOS_FECHA = "idx_movimientos_fecha_id";
+    private static final String IDX_CUENTAS_CLIENTE = "idx_cuentas_cliente_estado";
+    
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+    
+    @Autowired
+    private CuentaRepository cuentaRepository;
+    
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+    
+    @Autowired
+    private SaldoCuentaRepository saldoCuentaRepository;
+    
+    @Autowired
+    private SaldoFranjaRepository saldoFranjaRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    boolean mysql;
+    private Long cuentaId;
+    private String numeroCuenta;
+    
+    @BeforeAll
+    void sembrarDatos() throws SQLException {
+        try (Connection conexion = dataSource.getConnection()) {
+            mysql = conexion.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        }
+        
+        List<Object[]> cuentas = new ArrayList<>();
+        for (int c = 1; c <= CLIENTES; c++) {
+            for (int k = 0; k < CUENTAS_POR_CLIENTE; k++) {
+                cuentas.add(new Object[]{String.format("77%03d%03d", c, k), "Ahorros", new BigDecimal("100.00"),
+                        k != 0, 500L + c, FECHA_BASE});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO cuentas (numero_cuenta, tipo_cuenta, saldo_inicial, estado, cliente_id, fecha_creacion) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", cuentas);
+        
+        List<Long> cuentaIds = jdbcTemplate.queryForList("SELECT cuenta_id FROM cuentas ORDER BY cuenta_id", Long.class);
+        List<Object[]> movimientos = new ArrayList<>();
+        long movimientoId = 1;
+        for (Long id : cuentaIds) {
+            BigDecimal saldo = new BigDecimal("100.00");
+            for (int j = 0; j < MOVIMIENTOS_POR_CUENTA; j++) {
+                saldo = saldo.add(BigDecimal.TEN);
+                LocalDateTime fecha = FECHA_BASE.plusHours(j).plusMinutes(id);
+                movimientos.add(new Object[]{movimientoId++, fecha, "Deposito", BigDecimal.TEN, saldo, id, fecha});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO movimientos (movimiento_id, fecha, tipo_movimiento, valor, saldo, cuenta_id, fecha_creacion) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", movimientos);
+        
+        // Resúmenes diarios de los mismos movimientos, como los deja la migración V5
+        jdbcTemplate.update("INSERT INTO saldos_diarios (cuenta_id, fecha, franja, saldo_apertura, total_depositos, total_retiros, " +
+                "saldo_cierre, cantidad, fecha_actualizacion) " +
+                "SELECT cuenta_id, CAST(fecha AS DATE), 0, MIN(saldo) - 10, SUM(valor), 0, MAX(saldo), COUNT(*), MAX(fecha) " +
+                "FROM movimientos GROUP BY cuenta_id, CAST(fecha AS DATE)");
+        
+        // Cabeceras de saldo; la primera cuenta activa de cada cliente es caliente con 4 franjas
+        jdbcTemplate.update("INSERT INTO saldos_cuenta (cuenta_id, saldo, activa, franjas, fecha_actualizacion) " +
+                "SELECT cuenta_id, saldo_inicial, estado, " +
+                "CASE WHEN numero_cuenta LIKE '%001' THEN 4 ELSE 0 END, fecha_creacion FROM cuentas");
+        List<Object[]> franjas = new ArrayList<>();
+        for (Long id : jdbcTemplate.queryForList("SELECT cuenta_id FROM saldos_cuenta WHERE franjas > 0", Long.class)) {
+            for (int f = 1; f <= 4; f++) {
+                franjas.add(new Object[]{id, f, BigDecimal.TEN, FECHA_BASE});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO saldos_cuenta_franjas (cuenta_id, franja, saldo, fecha_actualizacion) " +
+                "VALUES (?, ?, ?, ?)", franjas);
+        
+        // Estadísticas actualizadas para que el optimizador elija con los volúmenes reales
+        jdbcTemplate.execute(mysql
+                ? "ANALYZE TABLE cuentas, movimientos, saldos_diarios, saldos_cuenta, saldos_cuenta_franjas"
+                : "ANALYZE");
+        
+        cuentaId = jdbcTemplate.queryForObject("SELECT MAX(cuenta_id) FROM cuentas WHERE cliente_id = ?", Long.class, CLIENTE_ID);
+        numeroCuenta = jdbcTemplate.queryForObject("SELECT numero_cuenta FROM cuentas WHERE cuenta_id = ?", String.class, cuentaId);
+    }
+    
+    Stream<CasoConsulta> consultas() {
+        LocalDateTime desde = FECHA_BASE.plusHours(5);
+        LocalDateTime hasta = FECHA_BASE.plusHours(15);
+        LocalDateTime cursor = FECHA_BASE.plusHours(20);
+        return Stream.of(
+                new CasoConsulta("MovimientoRepository.findByCuentaId", true,
+                        () -> movimientoRepository.findByCuentaId(cuentaId), IDX_MOVIMIENTOS_CUENTA),
+                new CasoConsulta("MovimientoRepository.findByCuentaIdOrderByFechaDesc", true,
+                        () -> movimientoRepository.findByCuentaIdOrderByFechaDesc(cuentaId), IDX_MOVIMIENTOS_CUENTA),
+                new CasoConsulta("MovimientoRepository.existsByCuentaId", true,
+                        () -> movimientoRepository.existsByCuentaId(cuentaId), IDX_MOVIMIENTOS_CUENTA),
+                new CasoConsulta("MovimientoRepository.findByCuentaIdAndFechaBetween", true,
+                        () -> movimientoRepository.findByCuentaIdAndFechaBetween(cuentaId, desde, hasta), IDX_MOVIMIENTOS_CUENTA),
+                new CasoConsulta("MovimientoRepository.findLastMovimientoByCuentaId", true,
+                        () -> movimientoRepository.findLastMovimientoByCuentaId(cuentaId), IDX_MOVIMIENTOS_CUENTA),
+                new CasoConsulta("MovimientoRepository.findPaginaPorCuentaAnteriorA", true,
+                        () -> movimientoRepository.findPaginaPorCuentaAnteriorA(cuentaId, cursor, Long.MAX_VALUE, Limit.of(51)),
+                        IDX_MOVIMIENTOS_CUENTA),
+                new CasoConsulta("MovimientoRepository.findPaginaPorCuentaPosteriorA", true,
+                        () -> movimientoRepository.findPaginaPorCuentaPosteriorA(cuentaId, cursor, 0L, Limit.of(51)),
+                        IDX_MOVIMIENTOS_CUENTA),
+                new CasoConsulta("MovimientoRepository.findPaginaAnteriorA", true,
+                        () -> movimientoRepository.findPaginaAnteriorA(cursor, Long.MAX_VALUE, Limit.of(51)), IDX_MOVIMIENTOS_FECHA),
+                // Consultas de varias cuentas: el orden final combina tablas y MySQL puede ordenar en memoria
+                new CasoConsulta("MovimientoRepository.findByClienteIdAndFechaBetween", false,
+                        () -> movimientoRepository.findByClienteIdAndFechaBetween(CLIENTE_ID, desde, hasta),
+                        IDX_CUENTAS_CLIENTE, IDX_MOVIMIENTOS_CUENTA),
+                new CasoConsulta("MovimientoRepository.streamEstadoCuenta", false, () -> {
+                    try (Stream<FilaEstadoCuenta> filas = movimientoRepository.streamEstadoCuenta(CLIENTE_ID, desde, hasta)) {
+                        filas.forEach(fila -> { });
+                    }
+                }, IDX_CUENTAS_CLIENTE, IDX_MOVIMIENTOS_CUENTA),
+                new CasoConsulta("SaldoDiarioRepository.sumarPorCliente", false,
+                        () -> saldoDiarioRepository.sumarPorCliente(CLIENTE_ID, FECHA_BASE.toLocalDate(),
+                                FECHA_BASE.toLocalDate().plusDays(1)), IDX_CUENTAS_CLIENTE, "primary"),
+                // Las franjas se leen por cuenta_id: clave primaria en MySQL, índice propio en el esquema de H2
+                new CasoConsulta("SaldoFranjaRepository.sumarPorCliente", false,
+                        () -> saldoFranjaRepository.sumarPorCliente(CLIENTE_ID), IDX_CUENTAS_CLIENTE),
+                new CasoConsulta("SaldoCuentaRepository.findByFranjasGreaterThan", true,
+                        () -> saldoCuentaRepository.findByFranjasGreaterThan(0), "idx_saldos_cuenta_franjas"),
+                new CasoConsulta("CuentaRepository.findActiveCuentasByClienteId", true,
+                        () -> cuentaRepository.findActiveCuentasByClienteId(CLIENTE_ID), IDX_CUENTAS_CLIENTE),
+                new CasoConsulta("CuentaRepository.findByClienteId", true,
+                        () -> cuentaRepository.findByClienteId(CLIENTE_ID), IDX_CUENTAS_CLIENTE),
+                new CasoConsulta("CuentaRepository.findByNumeroCuenta", true,
+                        () -> cuentaRepository.findByNumeroCuenta(numeroCuenta)),
+                new CasoConsulta("CuentaRepository.findPaginaPosteriorA", true,
+                        () -> cuentaRepository.findPaginaPosteriorA(cuentaId - 10, Limit.of(51)), "primary")
+        );
+    }
+    
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultas")
+    void testConsultaUsaIndice(CasoConsulta caso) throws Exception {
+        // When
+        CapturaSql.limpiar();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> caso.consulta.run());
+        List<SentenciaCapturada> sentencias = CapturaSql.selects();
+        
+        // Then
+        assertFalse(sentencias.isEmpty(), "No se capturó ninguna consulta para " + caso);
+        for (SentenciaCapturada sentencia : sentencias) {
+            String plan = explicar(sentencia, caso);
+            for (String indice : caso.indices) {
+                assertTrue(plan.contains(indice), caso + " no usa " + indice + ":\n" + plan);
+            }
+        }
+    }
+    
+    // Devuelve el plan en minúsculas tras comprobar que no recorre tablas completas
+    private String explicar(SentenciaCapturada sentencia, CasoConsulta caso) throws Exception {
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sentencia.sql)) {
+            sentencia.aplicarParametros(explain);
+            try (ResultSet filas = explain.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (filas.next()) {
+                    if (mysql) {
+                        String tabla = filas.getString("table");
+                        String tipo = filas.getString("type");
+                        String extra = filas.getString("Extra");
+                        plan.append(tabla).append(' ').append(tipo).append(' ')
+                            .append(filas.getString("key")).append(' ').append(extra).append('\n');
+                        assertNotEquals("ALL", tipo, caso + " recorre la tabla " + tabla + " completa");
+                        if (caso.sinFilesort) {
+                            assertFalse(extra != null && extra.contains("Using filesort"), caso + " ordena con filesort");
+                        }
+                    } else {
+                        plan.append(filas.getString(1)).append('\n');
+                    }
+                }
+                String texto = plan.toString().toLowerCase();
+                assertFalse(texto.contains("tablescan"), caso + " recorre una tabla completa:\n" + plan);
+                return texto;
+            }
+        }
+    }
+    
+    static class CasoConsulta {
+        
+        private final String nombre;
+        private final boolean sinFilesort;
+        private final Runnable consulta;
+        private final String[] indices;
+        
+        CasoConsulta(String nombre, boolean sinFilesort, Runnable consulta, String... indices) {
+            this.nombre = nombre;
+            this.sinFilesort = sinFilesort;
+            this.consulta = consulta;
+            this.indices = indices;
+        }
+        
+        @Override
+        public String toString() {
+            return nombre;
+        }
+    }
+    
+    static class SentenciaCapturada {
+        
+        private final String sql;
+        private final List<Object[]> parametros;
+        
+        SentenciaCapturada(String sql, Map<Integer, Object[]> parametros) {
+            this.sql = sql;
+            this.parametros = new ArrayList<>(parametros.values());
+        }
+        
+        // Repite sobre otra sentencia las mismas llamadas setXxx que hizo Hibernate
+        void aplicarParametros(PreparedStatement destino) throws Exception {
+            for (Object[] llamada : parametros) {
+                ((Method) llamada[0]).invoke(destino, (Object[]) llamada[1]);
+            }
+        }
+    }
+    
+    static class CapturaSql {
+        
+        private static final List<SentenciaCapturada> SENTENCIAS = new CopyOnWriteArrayList<>();
+        
+        // Solo se captura lo que ejecuta el hilo de la prueba, no las tareas programadas del servicio
+        private static volatile Thread hilo;
+        
+        static void limpiar() {
+            SENTENCIAS.clear();
+            hilo = Thread.currentThread();
+        }
+        
+        static List<SentenciaCapturada> selects() {
+            return SENTENCIAS.stream()
+                    .filter(s -> s.sql.trim().toLowerCase().startsWith("select"))
+                    .toList();
+        }
+        
+        static Connection conexion(Connection conexion) {
+            return (Connection) Proxy.newProxyInstance(CapturaSql.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, metodo, args) -> {
+                        Object resultado = invocar(metodo, conexion, args);
+                        if (metodo.getName().equals("prepareStatement") && resultado instanceof PreparedStatement sentencia) {
+                            return sentencia((String) args[0], sentencia);
+                        }
+                        return resultado;
+                    });
+        }
+        
+        private static PreparedStatement sentencia(String sql, PreparedStatement sentencia) {
+            Map<Integer, Object[]> parametros = new TreeMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(CapturaSql.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (proxy, metodo, args) -> {
+                        String nombre = metodo.getName();
+                        if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                            parametros.put(indice, new Object[]{metodo, args.clone()});
+                        } else if (nombre.equals("clearParameters")) {
+                            parametros.clear();
+                        } else if ((nombre.equals("executeQuery") || nombre.equals("execute")) && Thread.currentThread() == hilo) {
+                            SENTENCIAS.add(new SentenciaCapturada(sql, parametros));
+                        }
+                        return invocar(metodo, sentencia, args);
+                    });
+        }
+        
+        private static Object invocar(Method metodo, Object destino, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(destino, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+    
+    @TestConfiguration
+    static class CapturaSqlConfig {
+        
+        @Bean
+        static BeanPostProcessor capturaSqlPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    // Solo el DataSource enrutador: envolver también sus pools capturaría cada sentencia dos veces
+                    if (bean instanceof DataSource origen && "dataSource".equals(beanName)) {
+                        return new DelegatingDataSource(origen) {
+                            @Override
+                            public Connection getConnection() throws SQLException {
+                                return CapturaSql.conexion(super.getConnection());
+                            }
+                            
+                            @Override
+                            public Connection getConnection(String username, String password) throws SQLException {
+                                return CapturaSql.conexion(super.getConnection(username, password));
+                            }
+                        };
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.banking.cuenta;
+
+import com.banking.cuenta.config.LecturaPropiaFilter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// La "réplica" es la misma base H2 con otro pool; cada conexión de ese pool se marca con @pool
+@SpringBootTest(properties = {
+        "banking.replica.datasource.hikari.jdbc-url=jdbc:h2:mem:testdb",
+        "banking.replica.datasource.hikari.connection-init-sql=SET @pool = 'replica'"
+})
+@ActiveProfiles("test")
+class ReplicaLecturaTest {
+    
+    private static final String REPLICA = "replica";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private LecturaPropiaFilter lecturaPropiaFilter;
+    
+    @Test
+    void testTransaccionSoloLectura_LeeDeLaReplicaYLaEscrituraDelPrincipal() {
+        assertEquals(REPLICA, poolDeLaTransaccion(true));
+        assertNull(poolDeLaTransaccion(false));
+    }
+    
+    @Test
+    void testLecturaPropia_QuienEscribioLeeDelPrincipalDuranteLaVentana() throws Exception {
+        // Given - el cliente 7 registra un movimiento
+        MockHttpServletRequest escritura = new MockHttpServletRequest("POST", "/api/movimientos");
+        escritura.addHeader(LecturaPropiaFilter.CABECERA_CLIENTE, "7");
+        lecturaPropiaFilter.doFilter(escritura, new MockHttpServletResponse(), (request, response) -> { });
+        
+        // When
+        String poolCliente7 = leerComo("7");
+        String poolCliente8 = leerComo("8");
+        
+        // Then - solo quien escribió deja de leer de la réplica
+        assertNull(poolCliente7);
+        assertEquals(REPLICA, poolCliente8);
+    }
+    
+    private String leerComo(String clienteId) throws Exception {
+        MockHttpServletRequest lectura = new MockHttpServletRequest("GET", "/api/movimientos/cuenta/1");
+        lectura.addHeader(LecturaPropiaFilter.CABECERA_CLIENTE, clienteId);
+        AtomicReference<String> pool = new AtomicReference<>();
+        FilterChain consulta = (request, response) -> pool.set(poolDeLaTransaccion(true));
+        lecturaPropiaFilter.doFilter(lectura, new MockHttpServletResponse(), consulta);
+        return pool.get();
+    }
+    
+    private String poolDeLaTransaccion(boolean soloLectura) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(soloLectura);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT @pool", String.class));
+    }
+}
@@ -0,0 +1,274 @@
+package com.banking.cuenta;
+
+import com.banking.cuenta.config.EnrutamientoDataSource;
+import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.model.TrabajoReporte;
+import com.banking.cuenta.model.dto.TrabajoReporteDTO;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SaldoCuentaRepository;
+import com.banking.cuenta.repository.TrabajoReporteRepository;
+import com.banking.cuenta.service.MovimientoService;
+import com.banking.cuenta.service.ReportesEjecutor;
+import com.banking.cuenta.service.TrabajoReporteService;
+import com.banking.cuenta.util.EnvioArchivo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Un hilo y un lugar en cola: el tercer reporte simultáneo se rechaza y los trabajos se encolan detrás del hilo ocupado
+@SpringBootTest(properties = {"banking.reportes.hilos=1", "banking.reportes.cola=1"})
+@ActiveProfiles("test")
+class ReportesTest {
+    
+    @Autowired
+    private ReportesEjecutor reportesEjecutor;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    @Qualifier("reportesDataSource")
+    private DataSource reportesDataSource;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private TrabajoReporteService trabajoReporteService;
+    
+    @Autowired
+    private MovimientoService movimientoService;
+    
+    @Autowired
+    private CuentaRepository cuentaRepository;
+    
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+    
+    @Autowired
+    private SaldoCuentaRepository saldoCuentaRepository;
+    
+    @Autowired
+    private TrabajoReporteRepository trabajoReporteRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private Cuenta cuenta;
+    
+    @AfterEach
+    void tearDown() {
+        if (cuenta != null) {
+            movimientoRepository.deleteAll(movimientoRepository.findByCuentaId(cuenta.getCuentaId()));
+            saldoCuentaRepository.findById(cuenta.getCuentaId()).ifPresent(saldoCuentaRepository::delete);
+            cuentaRepository.deleteById(cuenta.getCuentaId());
+        }
+    }
+    
+    @Test
+    void testReporte_CorreEnSuHiloYTomaConexionesDelPoolDeReportes() throws InterruptedException {
+        // Given
+        CountDownLatch fin = new CountDownLatch(1);
+        AtomicReference<String> hilo = new AtomicReference<>();
+        AtomicReference<String> destino = new AtomicReference<>();
+        AtomicInteger activasEnReportes = new AtomicInteger(-1);
+        long esperasPrevias = meterRegistry.timer("banking.reportes.espera").count();
+        
+        // When
+        reportesEjecutor.ejecutar(() -> {
+            hilo.set(Thread.currentThread().getName());
+            destino.set(EnrutamientoDataSource.destinoActual());
+            try (Connection conexion = dataSource.getConnection();
+                 Statement consulta = conexion.createStatement()) {
+                // La conexión es perezosa: se toma del pool al ejecutar la primera sentencia
+                consulta.execute("SELECT 1");
+                // El pool llega envuelto por el proxy de trazas JDBC
+                HikariDataSource pool = reportesDataSource.unwrap(HikariDataSource.class);
+                activasEnReportes.set(pool.getHikariPoolMXBean().getActiveConnections());
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                fin.countDown();
+            }
+        });
+        
+        // Then
+        assertTrue(fin.await(10, TimeUnit.SECONDS));
+        assertTrue(hilo.get().startsWith(ReportesEjecutor.PREFIJO_HILOS));
+        assertEquals(EnrutamientoDataSource.REPORTES, destino.get());
+        assertEquals(1, activasEnReportes.get());
+        assertEquals(EnrutamientoDataSource.PRINCIPAL, EnrutamientoDataSource.destinoActual());
+        assertEquals(esperasPrevias + 1, meterRegistry.timer("banking.reportes.espera").count());
+    }
+    
+    @Test
+    void testReportes_ConHilosYColaLlenosSeRechazan() throws InterruptedException {
+        // Given - el único hilo queda ocupado y el segundo reporte espera en la cola
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch encoladoTerminado = new CountDownLatch(1);
+        reportesEjecutor.ejecutar(() -> {
+            enCurso.countDown();
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(enCurso.await(10, TimeUnit.SECONDS));
+        reportesEjecutor.ejecutar(encoladoTerminado::countDown);
+        
+        // When / Then
+        assertThrows(TaskRejectedException.class, () -> reportesEjecutor.ejecutar(() -> { }));
+        assertEquals(1.0, meterRegistry.get("executor.queued").tag("name", "reportes").gauge().value());
+        
+        liberar.countDown();
+        assertTrue(encoladoTerminado.await(10, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void testTrabajo_PedidosIgualesSeUnenYElArchivoSeDescargaPorRangos() throws Exception {
+        // Given - una cuenta con un depósito y el único hilo de reportes ocupado
+        cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("9930000001");
+        cuenta.setTipoCuenta("Ahorros");
+        cuenta.setSaldoInicial(new BigDecimal("500.00"));
+        cuenta.setEstado(true);
+        cuenta.setClienteId(95L);
+        cuenta = cuentaRepository.save(cuenta);
+        Movimiento deposito = new Movimiento();
+        deposito.setTipoMovimiento("Deposito");
+        deposito.setValor(new BigDecimal("100.00"));
+        deposito.setCuentaId(cuenta.getCuentaId());
+        movimientoService.save(deposito);
+        
+        CountDownLatch liberar = new CountDownLatch(1);
+        reportesEjecutor.ejecutar(() -> {
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        LocalDateTime inicio = LocalDateTime.now().minusDays(1);
+        LocalDateTime fin = LocalDateTime.now().plusDays(1);
+        
+        // When - el segundo pedido llega con el primero todavía pendiente
+        TrabajoReporteDTO primero = trabajoReporteService.crear(95L, inicio, fin, TrabajoReporteService.JSON);
+        TrabajoReporteDTO segundo = trabajoReporteService.crear(95L, inicio, fin, TrabajoReporteService.JSON);
+        liberar.countDown();
+        
+        // Then
+        assertEquals(primero.getId(), segundo.getId());
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!TrabajoReporteDTO.TERMINADO.equals(trabajoReporteService.obtener(primero.getId()).orElseThrow().getEstado())
+                && System.nanoTime() < limite) {
+            Thread.sleep(20);
+        }
+        TrabajoReporteDTO terminado = trabajoReporteService.obtener(primero.getId()).orElseThrow();
+        assertEquals(TrabajoReporteDTO.TERMINADO, terminado.getEstado());
+        
+        Path archivo = trabajoReporteService.archivo(terminado);
+        byte[] comprimido = Files.readAllBytes(archivo);
+        assertEquals(comprimido.length, terminado.getTamano());
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            JsonNode estados = objectMapper.readTree(entrada);
+            assertEquals(1, estados.size());
+            assertEquals("9930000001", estados.get(0).get("numeroCuenta").asText());
+            assertEquals(0, new BigDecimal("600.00").compareTo(estados.get(0).get("saldoDisponible").decimalValue()));
+        }
+        
+        // Un rango del archivo comprimido, como al reanudar una descarga
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        EnvioArchivo.enviar(request, response, archivo, "application/gzip", "reporte.json.gz", "\"" + terminado.getId() + "\"");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-19/" + comprimido.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(comprimido, 10, 20), response.getContentAsByteArray());
+    }
+    
+    @Test
+    void testTrabajo_DeOtraInstanciaSeConsultaYSeUne() throws Exception {
+        // Given - trabajos registrados por otra instancia: uno terminado con su archivo en el directorio
+        // compartido y otro en curso
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime fin = LocalDateTime.of(2024, 12, 31, 0, 0);
+        TrabajoReporte terminado = new TrabajoReporte("otra-instancia-terminado", 96L, inicio, fin,
+                TrabajoReporteService.JSON, TrabajoReporteDTO.TERMINADO, null);
+        terminado.setTamano(3L);
+        terminado.setTerminado(LocalDateTime.now());
+        trabajoReporteRepository.save(terminado);
+        Path archivo = trabajoReporteService.archivo(TrabajoReporteDTO.desde(terminado));
+        Files.write(archivo, new byte[] {1, 2, 3});
+        
+        TrabajoReporte enCurso = new TrabajoReporte("otra-instancia-en-curso", 96L, inicio, fin,
+                TrabajoReporteService.CSV, TrabajoReporteDTO.EN_CURSO,
+                96L + "|" + inicio + "|" + fin + "|" + TrabajoReporteService.CSV);
+        trabajoReporteRepository.save(enCurso);
+        
+        // When
+        TrabajoReporteDTO consultado = trabajoReporteService.obtener("otra-instancia-terminado").orElseThrow();
+        TrabajoReporteDTO unido = trabajoReporteService.crear(96L, inicio, fin, TrabajoReporteService.CSV);
+        
+        // Then
+        assertEquals(TrabajoReporteDTO.TERMINADO, consultado.getEstado());
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(trabajoReporteService.archivo(consultado)));
+        assertEquals("otra-instancia-en-curso", unido.getId());
+        Files.deleteIfExists(archivo);
+    }
+    
+    @Test
+    void testPurga_TrabajoSinTerminarDeUnaInstanciaDetenida() {
+        // Given - un trabajo en curso desde hace dos horas
+        LocalDateTime inicio = LocalDateTime.of(2023, 1, 1, 0, 0);
+        LocalDateTime fin = LocalDateTime.of(2023, 12, 31, 0, 0);
+        TrabajoReporte abandonado = new TrabajoReporte("instancia-detenida", 97L, inicio, fin,
+                TrabajoReporteService.JSON, TrabajoReporteDTO.EN_CURSO,
+                97L + "|" + inicio + "|" + fin + "|" + TrabajoReporteService.JSON);
+        abandonado.setCreado(LocalDateTime.now().minusHours(2));
+        trabajoReporteRepository.save(abandonado);
+        
+        // When
+        trabajoReporteService.purgar();
+        
+        // Then - queda fallido y un pedido igual crea un trabajo nuevo
+        TrabajoReporte purgado = trabajoReporteRepository.findById("instancia-detenida").orElseThrow();
+        assertEquals(TrabajoReporteDTO.FALLIDO, purgado.getEstado());
+        assertNull(purgado.getClaveActiva());
+        assertNotNull(purgado.getTerminado());
+        TrabajoReporteDTO nuevo = trabajoReporteService.crear(97L, inicio, fin, TrabajoReporteService.JSON);
+        assertNotEquals("instancia-detenida", nuevo.getId());
+    }
+}
@@ -0,0 +1,133 @@
+package com.banking.cuenta;
+
+import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.dto.TransferenciaDTO;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SaldoCuentaRepository;
+import com.banking.cuenta.service.TransferenciaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin @Transactional: cada transferencia se confirma en su propia transacción, como en producción
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferenciaConcurrenciaTest {
+    
+    private static final int CUENTAS = 4;
+    private static final int HILOS = 16;
+    private static final int TRANSFERENCIAS_POR_HILO = 50;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("500.00");
+    
+    @Autowired
+    private CuentaRepository cuentaRepository;
+    
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+    
+    @Autowired
+    private SaldoCuentaRepository saldoCuentaRepository;
+    
+    @Autowired
+    private TransferenciaService transferenciaService;
+    
+    private final List<Cuenta> cuentas = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < CUENTAS; i++) {
+            Cuenta cuenta = new Cuenta("991000000" + i, "Corriente", SALDO_INICIAL, 97L);
+            cuentas.add(cuentaRepository.save(cuenta));
+        }
+    }
+    
+    @AfterEach
+    void tearDown() {
+        for (Cuenta cuenta : cuentas) {
+            movimientoRepository.deleteAll(movimientoRepository.findByCuentaId(cuenta.getCuentaId()));
+            saldoCuentaRepository.findById(cuenta.getCuentaId()).ifPresent(saldoCuentaRepository::delete);
+            cuentaRepository.deleteById(cuenta.getCuentaId());
+        }
+        cuentas.clear();
+    }
+    
+    @Test
+    void testTransferenciasCruzadas_NoSeInterbloqueanYConservanElTotal() throws InterruptedException {
+        // Given - 800 transferencias entre 4 cuentas, en ambos sentidos sobre cada par
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch inicio = new CountDownLatch(1);
+        AtomicInteger aceptadas = new AtomicInteger();
+        AtomicInteger sinSaldo = new AtomicInteger();
+        Queue<String> errores = new ConcurrentLinkedQueue<>();
+        
+        for (int i = 0; i < HILOS; i++) {
+            executor.submit(() -> {
+                inicio.await();
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                for (int j = 0; j < TRANSFERENCIAS_POR_HILO; j++) {
+                    int origen = aleatorio.nextInt(CUENTAS);
+                    int destino = (origen + 1 + aleatorio.nextInt(CUENTAS - 1)) % CUENTAS;
+                    TransferenciaDTO transferencia = new TransferenciaDTO(cuentas.get(origen).getCuentaId(),
+                            cuentas.get(destino).getCuentaId(), new BigDecimal(aleatorio.nextInt(1, 100)));
+                    try {
+                        transferenciaService.transferir(transferencia);
+                        aceptadas.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        if ("Saldo no disponible".equals(e.getMessage())) {
+                            sinSaldo.incrementAndGet();
+                        } else {
+                            errores.add(e.getMessage());
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        
+        // When
+        long comienzo = System.nanoTime();
+        inicio.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS), "Las transferencias no terminaron: posible interbloqueo");
+        double segundos = (System.nanoTime() - comienzo) / 1e9;
+        
+        // Then - ninguna falló por bloqueo ni por tiempo de espera y el dinero total no cambió
+        assertTrue(errores.isEmpty(), "Errores inesperados: " + errores);
+        assertEquals(HILOS * TRANSFERENCIAS_POR_HILO, aceptadas.get() + sinSaldo.get());
+        assertTrue(aceptadas.get() > 0);
+        double porSegundo = HILOS * TRANSFERENCIAS_POR_HILO / segundos;
+        assertTrue(porSegundo > 20, "Rendimiento insuficiente: " + Math.round(porSegundo) + " transferencias/s");
+        
+        BigDecimal total = BigDecimal.ZERO;
+        for (Cuenta cuenta : cuentas) {
+            BigDecimal saldo = saldoCuentaRepository.findById(cuenta.getCuentaId()).orElseThrow().getSaldo();
+            assertTrue(saldo.signum() >= 0);
+            total = total.add(saldo);
+        }
+        assertEquals(0, total.compareTo(SALDO_INICIAL.multiply(BigDecimal.valueOf(CUENTAS))));
+        
+        int movimientos = 0;
+        for (Cuenta cuenta : cuentas) {
+            movimientos += movimientoRepository.findByCuentaId(cuenta.getCuentaId()).size();
+        }
+        assertEquals(2 * aceptadas.get(), movimientos);
+    }
+}
@@ -0,0 +1,118 @@
+package com.banking.cuenta;
+
+import com.banking.cuenta.model.Cuenta;
+import com.banking.cuenta.model.Movimiento;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SaldoCuentaRepository;
+import com.banking.cuenta.service.MovimientoService;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Las trazas se exportan a memoria en lugar de al colector OTLP; se muestrean todas
+@SpringBootTest(properties = "management.tracing.sampling.probability=1.0")
+@ActiveProfiles("test")
+@AutoConfigureObservability(metrics = false)
+@Import(TrazasTest.ExportadorEnMemoria.class)
+class TrazasTest {
+    
+    @Autowired
+    private CuentaRepository cuentaRepository;
+    
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+    
+    @Autowired
+    private SaldoCuentaRepository saldoCuentaRepository;
+    
+    @Autowired
+    private MovimientoService movimientoService;
+    
+    @Autowired
+    private ObservationRegistry observationRegistry;
+    
+    @Autowired
+    private SdkTracerProvider sdkTracerProvider;
+    
+    @Autowired
+    private InMemorySpanExporter exportador;
+    
+    private Cuenta cuenta;
+    
+    @BeforeEach
+    void setUp() {
+        cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("9920000001");
+        cuenta.setTipoCuenta("Ahorros");
+        cuenta.setSaldoInicial(new BigDecimal("100.00"));
+        cuenta.setEstado(true);
+        cuenta.setClienteId(96L);
+        cuenta = cuentaRepository.save(cuenta);
+        exportador.reset();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        movimientoRepository.deleteAll(movimientoRepository.findByCuentaId(cuenta.getCuentaId()));
+        saldoCuentaRepository.deleteById(cuenta.getCuentaId());
+        cuentaRepository.deleteById(cuenta.getCuentaId());
+    }
+    
+    @Test
+    void testSave_SpanDelServicioConLasConsultasComoHijas() {
+        // Given - una petición ya observada, como la que abre el span HTTP
+        Observation peticion = Observation.start("prueba", observationRegistry);
+        
+        // When
+        try (Observation.Scope scope = peticion.openScope()) {
+            movimientoService.save(new Movimiento("Deposito", new BigDecimal("50.00"), null, cuenta.getCuentaId()));
+        } finally {
+            peticion.stop();
+        }
+        sdkTracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+        
+        // Then - el span del método transaccional y las consultas JDBC quedan en la misma traza
+        List<SpanData> spans = exportador.getFinishedSpanItems();
+        SpanData raiz = buscar(spans, "prueba");
+        SpanData servicio = buscar(spans, "movimiento-service.save");
+        assertEquals(raiz.getTraceId(), servicio.getTraceId());
+        assertEquals(raiz.getSpanId(), servicio.getParentSpanId());
+        assertTrue(spans.stream().anyMatch(span -> "query".equals(span.getName())
+                && span.getTraceId().equals(servicio.getTraceId())));
+    }
+    
+    private SpanData buscar(List<SpanData> spans, String nombre) {
+        return spans.stream()
+                .filter(span -> nombre.equals(span.getName()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Sin span " + nombre + " en " + spans));
+    }
+    
+    @TestConfiguration
+    static class ExportadorEnMemoria {
+        
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}